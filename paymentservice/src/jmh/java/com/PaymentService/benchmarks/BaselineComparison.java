@@ -0,0 +1,80 @@
+package com.PaymentService.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file against the baseline committed in src/jmh/baseline.json and
+ * exits non-zero when any throughput score dropped by more than the tolerance (default 10%,
+ * override with -Djmh.tolerance=0.2), or when there is no baseline to compare against. To record
+ * a new baseline, run the benchmarks on the reference machine with -Djmh.record-baseline=true,
+ * which copies the result over the baseline file, and commit it.
+ */
+public final class BaselineComparison {
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File baselineFile = new File(args[0]);
+        File resultFile = new File(args[1]);
+        double tolerance = Double.parseDouble(System.getProperty("jmh.tolerance", "0.10"));
+
+        if (Boolean.getBoolean("jmh.record-baseline")) {
+            Files.copy(resultFile.toPath(), baselineFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Recorded " + resultFile + " as the baseline at " + baselineFile);
+            return;
+        }
+        if (!baselineFile.exists()) {
+            // A gate without a baseline would pass every run, so treat it as a failure
+            System.out.println("No baseline at " + baselineFile + "; record one with -Djmh.record-baseline=true");
+            System.exit(2);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, Double> baseline = throughputScores(objectMapper.readTree(baselineFile));
+        Map<String, Double> current = throughputScores(objectMapper.readTree(resultFile));
+
+        int regressions = 0;
+        for (Map.Entry<String, Double> entry : current.entrySet()) {
+            Double expected = baseline.get(entry.getKey());
+            if (expected == null) {
+                System.out.printf("NEW        %-90s %14.3f%n", entry.getKey(), entry.getValue());
+                continue;
+            }
+            double change = (entry.getValue() - expected) / expected;
+            boolean regressed = change < -tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-10s %-90s %14.3f -> %14.3f (%+.1f%%)%n",
+                    regressed ? "REGRESSED" : "OK", entry.getKey(), expected, entry.getValue(), change * 100);
+        }
+
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed by more than " + (tolerance * 100) + "%");
+            System.exit(1);
+        }
+    }
+
+    // Keyed by benchmark name plus parameters; only throughput mode is compared
+    private static Map<String, Double> throughputScores(JsonNode results) {
+        Map<String, Double> scores = new HashMap<>();
+        for (JsonNode result : results) {
+            if (!"thrpt".equals(result.path("mode").asText())) {
+                continue;
+            }
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            result.path("params").fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            scores.put(key.toString(), result.path("primaryMetric").path("score").asDouble());
+        }
+        return scores;
+    }
+}
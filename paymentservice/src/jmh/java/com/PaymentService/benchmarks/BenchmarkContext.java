@@ -0,0 +1,29 @@
+package com.PaymentService.benchmarks;
+
+import com.PaymentService.paymentservice.PaymentserviceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+final class BenchmarkContext {
+    private BenchmarkContext() {
+    }
+
+    // Full application context on an in-memory H2 database with the stub gateways
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(PaymentserviceApplication.class, StubGatewayConfig.class)
+                .web(WebApplicationType.NONE)
+                .profiles("benchmark")
+                .properties(properties)
+                .run();
+    }
+
+    // Same, with the servlet container and any extra properties, for benchmarks that go over the wire
+    static ConfigurableApplicationContext startWeb(String... properties) {
+        return new SpringApplicationBuilder(PaymentserviceApplication.class, StubGatewayConfig.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("benchmark")
+                .properties(properties)
+                .run();
+    }
+}
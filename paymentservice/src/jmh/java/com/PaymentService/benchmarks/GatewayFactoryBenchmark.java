@@ -0,0 +1,65 @@
+package com.PaymentService.benchmarks;
+
+import com.PaymentService.paymentservice.configs.RazorpayClientFactory;
+import com.PaymentService.paymentservice.merchant.MerchantCredentialsResolver;
+import com.PaymentService.paymentservice.merchant.MerchantProperties;
+import com.PaymentService.paymentservice.metrics.PaymentMetrics;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.paymentgateway.MerchantGatewayPool;
+import com.PaymentService.paymentservice.paymentgateway.PaymentGateway;
+import com.PaymentService.paymentservice.paymentgateway.PaymentGatewayFactory;
+import com.PaymentService.paymentservice.retry.GatewayRetries;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GatewayFactoryBenchmark {
+    private PaymentGatewayFactory paymentGatewayFactory;
+
+    @Param({"RAZORPAY", "stripe"})
+    public String gatewayType;
+
+    @Setup
+    public void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PaymentMetrics paymentMetrics = new PaymentMetrics(meterRegistry);
+        GatewayRetries gatewayRetries = new GatewayRetries(meterRegistry, true, 3, 50, 1000, 0.1, 20);
+        MerchantProperties merchantProperties = new MerchantProperties();
+        MerchantProperties.Account account = new MerchantProperties.Account();
+        account.setStripeSecretKey("sk_test_bench");
+        merchantProperties.getAccounts().put("merchant_1", account);
+        MerchantGatewayPool merchantGatewayPool = new MerchantGatewayPool(
+                new MerchantCredentialsResolver(merchantProperties), new RazorpayClientFactory(),
+                paymentMetrics, gatewayRetries, meterRegistry, merchantProperties);
+        paymentGatewayFactory = new PaymentGatewayFactory(
+                new StubGatewayConfig.StubRazorpaymentGateway(),
+                new StubGatewayConfig.StubStripePaymentGateway(),
+                paymentMetrics,
+                gatewayRetries,
+                merchantGatewayPool);
+    }
+
+    @Benchmark
+    public PaymentGateway resolveByName() {
+        return paymentGatewayFactory.getGateway(gatewayType);
+    }
+
+    @Benchmark
+    public PaymentGateway resolveByType() {
+        return paymentGatewayFactory.getGateway(Payment.PaymentGatewayType.STRIPE);
+    }
+
+    // Cache hit after the first call: the merchant's clients are built once
+    @Benchmark
+    public PaymentGateway resolveForMerchant() {
+        return paymentGatewayFactory.getGateway(Payment.PaymentGatewayType.STRIPE, "merchant_1");
+    }
+}
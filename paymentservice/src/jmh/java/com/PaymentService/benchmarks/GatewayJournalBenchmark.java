@@ -0,0 +1,114 @@
+package com.PaymentService.benchmarks;
+
+import com.PaymentService.paymentservice.constants.PaymentConstants;
+import com.PaymentService.paymentservice.dtos.InitiatePaymentResponseDto;
+import com.PaymentService.paymentservice.dtos.RefundPaymentResponseDto;
+import com.PaymentService.paymentservice.journal.GatewayJournal;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.repositories.PaymentRepository;
+import com.PaymentService.paymentservice.services.PaymentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of the gateway journal on the initiate and refund paths: the same service calls with the
+ * journal off and on, plus the journal's own intent/outcome/close cycle on its own. The journal
+ * lives in a temp directory and is forced at the production interval, so the numbers include
+ * contention with the background fsync.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class GatewayJournalBenchmark {
+    private static final int SEEDED_PAYMENTS = 10_000;
+    private static final Map<String, String> LINK_RESPONSE =
+            Map.of("paymentLinkId", "plink_bench", "paymentLinkUrl", "https://rzp.io/i/bench");
+    private static final Map<String, String> REFUND_RESPONSE = Map.of("refundId", "rfnd_bench", "status", "processed");
+
+    @Param({"false", "true"})
+    public boolean journal;
+
+    private final AtomicLong orderSequence = new AtomicLong();
+    private Path journalDirectory;
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private GatewayJournal gatewayJournal;
+    private String[] paymentIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        journalDirectory = Files.createTempDirectory("journal-benchmark");
+        context = BenchmarkContext.start("payment.journal.enabled=" + journal,
+                "payment.journal.directory=" + journalDirectory);
+        paymentService = context.getBean(PaymentService.class);
+        gatewayJournal = context.getBean(GatewayJournal.class);
+
+        // Large enough that one-unit refunds never exhaust a payment during the run
+        List<Payment> payments = new ArrayList<>(SEEDED_PAYMENTS);
+        paymentIds = new String[SEEDED_PAYMENTS];
+        for (int i = 0; i < SEEDED_PAYMENTS; i++) {
+            paymentIds[i] = "pay_seed_" + i;
+            payments.add(Payment.builder()
+                    .orderId("seed-order-" + i)
+                    .amount(Long.MAX_VALUE / 2)
+                    .currency(PaymentConstants.CURRENCY_INR)
+                    .phoneNumber("9999999999")
+                    .email("seed@example.com")
+                    .status(Payment.PaymentStatus.SUCCESS)
+                    .gatewayType(Payment.PaymentGatewayType.RAZORPAY)
+                    .paymentLinkId("plink_seed_" + i)
+                    .paymentId(paymentIds[i])
+                    .build());
+        }
+        context.getBean(PaymentRepository.class).saveAll(payments);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(journalDirectory);
+    }
+
+    @Benchmark
+    public InitiatePaymentResponseDto initiatePayment() {
+        return paymentService.initiatePayment("bench-order-" + orderSequence.incrementAndGet(), 50_000L,
+                "9999999999", "bench@example.com", PaymentConstants.GATEWAY_RAZORPAY, null);
+    }
+
+    @Benchmark
+    public RefundPaymentResponseDto refundPayment() {
+        return paymentService.refundPayment(paymentIds[ThreadLocalRandom.current().nextInt(paymentIds.length)], 1L);
+    }
+
+    @Benchmark
+    public long journalPaymentLinkCycle() {
+        long opId = gatewayJournal.paymentLinkIntent("bench-order", 50_000L, "9999999999", "bench@example.com",
+                Payment.PaymentGatewayType.RAZORPAY, null);
+        gatewayJournal.paymentLinkOutcome(opId, LINK_RESPONSE);
+        gatewayJournal.close(opId);
+        return opId;
+    }
+
+    @Benchmark
+    public long journalRefundCycle() {
+        long opId = gatewayJournal.refundIntent("bench-refund-key", "pay_seed_0");
+        gatewayJournal.refundOutcome(opId, REFUND_RESPONSE);
+        gatewayJournal.close(opId);
+        return opId;
+    }
+}
@@ -0,0 +1,140 @@
+package com.PaymentService.benchmarks;
+
+import com.PaymentService.paymentservice.constants.PaymentConstants;
+import com.PaymentService.paymentservice.dtos.InitiatePaymentResponseDto;
+import com.PaymentService.paymentservice.dtos.PaymentStatusResponseDto;
+import com.PaymentService.paymentservice.grpc.GrpcServer;
+import com.PaymentService.paymentservice.grpc.v1.GatewayType;
+import com.PaymentService.paymentservice.grpc.v1.InitiatePaymentRequest;
+import com.PaymentService.paymentservice.grpc.v1.InitiatePaymentResponse;
+import com.PaymentService.paymentservice.grpc.v1.PaymentApiGrpc;
+import com.PaymentService.paymentservice.grpc.v1.PaymentStatusRequest;
+import com.PaymentService.paymentservice.grpc.v1.PaymentStatusResponse;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.repositories.PaymentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.ManagedChannel;
+import io.grpc.netty.NettyChannelBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The same calls over REST (HTTP/1.1 + JSON, java.net.http client) and gRPC (HTTP/2 + protobuf,
+ * blocking stub) against one running service on loopback, so the difference is framing,
+ * serialization and connection handling rather than service work. Both clients keep their
+ * connections open across invocations, as internal callers would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class GrpcVsRestBenchmark {
+    private static final int SEEDED_PAYMENTS = 10_000;
+
+    private final AtomicLong orderSequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private String[] paymentIds;
+    private String baseUrl;
+    private HttpClient httpClient;
+    private ObjectMapper objectMapper;
+    private ManagedChannel channel;
+    private PaymentApiGrpc.PaymentApiBlockingStub stub;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startWeb("server.port=0", "payment.grpc.enabled=true", "payment.grpc.port=0",
+                "payment.admission.enabled=false");
+        PaymentRepository paymentRepository = context.getBean(PaymentRepository.class);
+        List<Payment> payments = new ArrayList<>(SEEDED_PAYMENTS);
+        paymentIds = new String[SEEDED_PAYMENTS];
+        for (int i = 0; i < SEEDED_PAYMENTS; i++) {
+            paymentIds[i] = "pay_seed_" + i;
+            payments.add(Payment.builder()
+                    .orderId("seed-order-" + i)
+                    .amount(50_000L)
+                    .currency(PaymentConstants.CURRENCY_INR)
+                    .phoneNumber("9999999999")
+                    .email("seed@example.com")
+                    .status(Payment.PaymentStatus.SUCCESS)
+                    .gatewayType(Payment.PaymentGatewayType.RAZORPAY)
+                    .paymentLinkId("plink_seed_" + i)
+                    .paymentId(paymentIds[i])
+                    .build());
+        }
+        paymentRepository.saveAll(payments);
+
+        baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        objectMapper = context.getBean(ObjectMapper.class);
+        channel = NettyChannelBuilder.forAddress("127.0.0.1", context.getBean(GrpcServer.class).getPort())
+                .usePlaintext()
+                .build();
+        stub = PaymentApiGrpc.newBlockingStub(channel);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+        context.close();
+    }
+
+    @Benchmark
+    public PaymentStatusResponseDto restGetPaymentStatus() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/payments/status/" + randomPaymentId()))
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        return objectMapper.readValue(response.body(), PaymentStatusResponseDto.class);
+    }
+
+    @Benchmark
+    public PaymentStatusResponse grpcGetPaymentStatus() {
+        return stub.getPaymentStatus(PaymentStatusRequest.newBuilder().setPaymentId(randomPaymentId()).build());
+    }
+
+    @Benchmark
+    public InitiatePaymentResponseDto restInitiatePayment() throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "orderId", "rest-order-" + orderSequence.incrementAndGet(),
+                "amount", 50_000L,
+                "phoneNumber", "9999999999",
+                "email", "bench@example.com",
+                "gatewayType", PaymentConstants.GATEWAY_RAZORPAY));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/payments/"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        return objectMapper.readValue(response.body(), InitiatePaymentResponseDto.class);
+    }
+
+    @Benchmark
+    public InitiatePaymentResponse grpcInitiatePayment() {
+        return stub.initiatePayment(InitiatePaymentRequest.newBuilder()
+                .setOrderId("grpc-order-" + orderSequence.incrementAndGet())
+                .setAmount(50_000L)
+                .setPhoneNumber("9999999999")
+                .setEmail("bench@example.com")
+                .setGatewayType(GatewayType.RAZORPAY)
+                .build());
+    }
+
+    private String randomPaymentId() {
+        return paymentIds[ThreadLocalRandom.current().nextInt(paymentIds.length)];
+    }
+}
@@ -0,0 +1,129 @@
+package com.PaymentService.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.PaymentService.paymentservice.logging.LogContext;
+import com.PaymentService.paymentservice.logging.SuccessPathSamplingFilter;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost on the request thread of the log lines one initiate request writes, under the old setup
+ * (synchronous pattern output, like the default console appender) and the new one (async JSON,
+ * optionally sampled). Output goes to a temp file so the synchronous case pays a real write.
+ * The async appender runs with the production settings, so once the writer falls behind INFO
+ * events are discarded rather than blocking, exactly as they would be under load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+    private static final String HOT_PATH_LOGGER = "com.PaymentService.paymentservice.services.PaymentService";
+
+    @Param({"SYNC_PATTERN", "ASYNC_JSON", "ASYNC_JSON_SAMPLED"})
+    public String mode;
+
+    private LoggerContext context;
+    private Logger logger;
+    private Path logFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("logging-benchmark", ".log");
+        context = new LoggerContext();
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        context.start();
+
+        boolean json = !"SYNC_PATTERN".equals(mode);
+        Appender<ILoggingEvent> output = fileAppender(json ? jsonEncoder() : patternEncoder());
+        Appender<ILoggingEvent> root = output;
+        if (json) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC");
+            async.setQueueSize(8192);
+            async.setIncludeCallerData(false);
+            async.addAppender(output);
+            async.start();
+            root = async;
+        }
+        if ("ASYNC_JSON_SAMPLED".equals(mode)) {
+            SuccessPathSamplingFilter sampling = new SuccessPathSamplingFilter();
+            sampling.setContext(context);
+            sampling.setLoggerPrefixes("com.PaymentService.paymentservice");
+            sampling.setRate(0.1);
+            sampling.start();
+            context.addTurboFilter(sampling);
+        }
+
+        Logger rootLogger = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.INFO);
+        rootLogger.addAppender(root);
+        logger = context.getLogger(HOT_PATH_LOGGER);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void initiateRequestLogLines() {
+        long n = ThreadLocalRandom.current().nextLong();
+        String orderId = "order_" + n;
+        MDC.put(LogContext.REQUEST_ID, Long.toHexString(n));
+        MDC.put(LogContext.ORDER_ID, orderId);
+        MDC.put(LogContext.GATEWAY, "RAZORPAY");
+        try {
+            logger.info("Initiating payment for orderId: {}", orderId);
+            logger.info("Payment link created successfully for orderId: {}, paymentLinkId: {}", orderId, "plink_1");
+            logger.info("Payment initiated successfully for orderId: {}", orderId);
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    private Appender<ILoggingEvent> fileAppender(Encoder<ILoggingEvent> encoder) {
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setName("FILE");
+        appender.setFile(logFile.toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    private Encoder<ILoggingEvent> patternEncoder() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> jsonEncoder() {
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+        return encoder;
+    }
+}
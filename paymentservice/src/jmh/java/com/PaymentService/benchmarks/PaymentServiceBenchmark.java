@@ -0,0 +1,86 @@
+package com.PaymentService.benchmarks;
+
+import com.PaymentService.paymentservice.constants.PaymentConstants;
+import com.PaymentService.paymentservice.dtos.InitiatePaymentResponseDto;
+import com.PaymentService.paymentservice.dtos.PaymentStatusResponseDto;
+import com.PaymentService.paymentservice.dtos.VerifyPaymentResponseDto;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.repositories.PaymentRepository;
+import com.PaymentService.paymentservice.services.PaymentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end service calls against H2 and the stub gateways: repository access, entity mapping,
+ * transactions and DTO mapping, without any network time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PaymentServiceBenchmark {
+    private static final int SEEDED_PAYMENTS = 10_000;
+
+    private final AtomicLong orderSequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private String[] paymentIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        paymentService = context.getBean(PaymentService.class);
+        PaymentRepository paymentRepository = context.getBean(PaymentRepository.class);
+
+        List<Payment> payments = new ArrayList<>(SEEDED_PAYMENTS);
+        paymentIds = new String[SEEDED_PAYMENTS];
+        for (int i = 0; i < SEEDED_PAYMENTS; i++) {
+            paymentIds[i] = "pay_seed_" + i;
+            payments.add(Payment.builder()
+                    .orderId("seed-order-" + i)
+                    .amount(50_000L)
+                    .currency(PaymentConstants.CURRENCY_INR)
+                    .phoneNumber("9999999999")
+                    .email("seed@example.com")
+                    .status(Payment.PaymentStatus.SUCCESS)
+                    .gatewayType(i % 2 == 0 ? Payment.PaymentGatewayType.RAZORPAY : Payment.PaymentGatewayType.STRIPE)
+                    .paymentLinkId("plink_seed_" + i)
+                    .paymentId(paymentIds[i])
+                    .build());
+        }
+        paymentRepository.saveAll(payments);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public InitiatePaymentResponseDto initiatePayment() {
+        return paymentService.initiatePayment("bench-order-" + orderSequence.incrementAndGet(), 50_000L,
+                "9999999999", "bench@example.com", PaymentConstants.GATEWAY_RAZORPAY, null);
+    }
+
+    @Benchmark
+    public VerifyPaymentResponseDto verifyPayment() {
+        return paymentService.verifyPayment(randomPaymentId(), null);
+    }
+
+    @Benchmark
+    public PaymentStatusResponseDto getPaymentStatus() {
+        return paymentService.getPaymentStatus(randomPaymentId());
+    }
+
+    private String randomPaymentId() {
+        return paymentIds[ThreadLocalRandom.current().nextInt(paymentIds.length)];
+    }
+}
@@ -0,0 +1,69 @@
+package com.PaymentService.benchmarks;
+
+import com.PaymentService.paymentservice.constants.PaymentConstants;
+import com.PaymentService.paymentservice.dtos.InitiatePaymentResponseDto;
+import com.PaymentService.paymentservice.dtos.PaymentStatusResponseDto;
+import com.PaymentService.paymentservice.dtos.RefundPaymentResponseDto;
+import com.PaymentService.paymentservice.dtos.VerifyPaymentResponseDto;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.services.PaymentResponseMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+    private Payment payment;
+    private Map<String, String> paymentResponse;
+    private Map<String, String> refundResponse;
+
+    @Setup
+    public void setUp() {
+        payment = Payment.builder()
+                .id(1L)
+                .orderId("order-1")
+                .amount(50_000L)
+                .currency(PaymentConstants.CURRENCY_INR)
+                .phoneNumber("9999999999")
+                .email("bench@example.com")
+                .status(Payment.PaymentStatus.SUCCESS)
+                .gatewayType(Payment.PaymentGatewayType.RAZORPAY)
+                .paymentLinkId("plink_1")
+                .paymentLinkUrl("https://pay.example.com/plink_1")
+                .paymentId("pay_1")
+                .build();
+        paymentResponse = StubGatewayConfig.StubResponses.payment("pay_1", PaymentConstants.STATUS_CAPTURED, "upi");
+        refundResponse = StubGatewayConfig.StubResponses.refund("rfnd_", "pay_1", 10_000L);
+    }
+
+    @Benchmark
+    public InitiatePaymentResponseDto initiateResponse() {
+        return PaymentResponseMapper.toInitiateResponse(payment, PaymentConstants.MESSAGE_PAYMENT_LINK_GENERATED);
+    }
+
+    @Benchmark
+    public VerifyPaymentResponseDto verifyResponse() {
+        return PaymentResponseMapper.toVerifyResponse(payment, paymentResponse);
+    }
+
+    @Benchmark
+    public RefundPaymentResponseDto refundResponse() {
+        return PaymentResponseMapper.toRefundResponse(payment, refundResponse);
+    }
+
+    @Benchmark
+    public PaymentStatusResponseDto liveStatusResponse() {
+        return PaymentResponseMapper.toStatusResponse(payment, paymentResponse);
+    }
+
+    @Benchmark
+    public PaymentStatusResponseDto storedStatusResponse() {
+        return PaymentResponseMapper.toStatusResponse(payment);
+    }
+}
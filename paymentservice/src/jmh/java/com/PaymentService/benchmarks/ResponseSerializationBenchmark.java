@@ -0,0 +1,73 @@
+package com.PaymentService.benchmarks;
+
+import com.PaymentService.paymentservice.constants.PaymentConstants;
+import com.PaymentService.paymentservice.dtos.InitiatePaymentResponseDto;
+import com.PaymentService.paymentservice.dtos.PaymentStatusResponseDto;
+import com.PaymentService.paymentservice.dtos.RefundPaymentResponseDto;
+import com.PaymentService.paymentservice.dtos.VerifyPaymentResponseDto;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.services.PaymentResponseMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of the response DTOs with an ObjectMapper configured like the application's
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+    private ObjectMapper objectMapper;
+    private InitiatePaymentResponseDto initiateResponse;
+    private VerifyPaymentResponseDto verifyResponse;
+    private RefundPaymentResponseDto refundResponse;
+    private PaymentStatusResponseDto statusResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Payment payment = Payment.builder()
+                .orderId("order-1")
+                .amount(50_000L)
+                .currency(PaymentConstants.CURRENCY_INR)
+                .status(Payment.PaymentStatus.SUCCESS)
+                .gatewayType(Payment.PaymentGatewayType.RAZORPAY)
+                .paymentLinkId("plink_1")
+                .paymentLinkUrl("https://pay.example.com/plink_1")
+                .paymentId("pay_1")
+                .build();
+        Map<String, String> paymentResponse =
+                StubGatewayConfig.StubResponses.payment("pay_1", PaymentConstants.STATUS_CAPTURED, "upi");
+        initiateResponse = PaymentResponseMapper.toInitiateResponse(payment, PaymentConstants.MESSAGE_PAYMENT_LINK_GENERATED);
+        verifyResponse = PaymentResponseMapper.toVerifyResponse(payment, paymentResponse);
+        refundResponse = PaymentResponseMapper.toRefundResponse(payment,
+                StubGatewayConfig.StubResponses.refund("rfnd_", "pay_1", 10_000L));
+        statusResponse = PaymentResponseMapper.toStatusResponse(payment, paymentResponse);
+    }
+
+    @Benchmark
+    public byte[] initiateResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(initiateResponse);
+    }
+
+    @Benchmark
+    public byte[] verifyResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(verifyResponse);
+    }
+
+    @Benchmark
+    public byte[] refundResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(refundResponse);
+    }
+
+    @Benchmark
+    public byte[] statusResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(statusResponse);
+    }
+}
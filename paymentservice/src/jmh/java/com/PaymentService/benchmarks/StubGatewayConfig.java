@@ -0,0 +1,126 @@
+package com.PaymentService.benchmarks;
+
+import com.PaymentService.paymentservice.constants.PaymentConstants;
+import com.PaymentService.paymentservice.paymentgateway.RazorpaymentGateway;
+import com.PaymentService.paymentservice.paymentgateway.StripePaymentGateway;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory gateways that answer instantly with canned responses, so benchmarks measure the
+ * service itself rather than the network.
+ */
+@Configuration
+public class StubGatewayConfig {
+
+    @Bean
+    @Primary
+    public RazorpaymentGateway stubRazorpaymentGateway() {
+        return new StubRazorpaymentGateway();
+    }
+
+    @Bean
+    @Primary
+    public StripePaymentGateway stubStripePaymentGateway() {
+        return new StubStripePaymentGateway();
+    }
+
+    static class StubRazorpaymentGateway extends RazorpaymentGateway {
+        StubRazorpaymentGateway() {
+            super(null);
+        }
+
+        @Override
+        public Map<String, String> generatePaymentLink(String orderId, Long amount, String phoneNumber, String email) {
+            return StubResponses.paymentLink("plink_", orderId);
+        }
+
+        @Override
+        public Map<String, String> verifyPayment(String paymentId) {
+            return StubResponses.payment(paymentId, PaymentConstants.STATUS_CAPTURED, "upi");
+        }
+
+        @Override
+        public Map<String, String> refundPayment(String paymentId, Long amount) {
+            return StubResponses.refund("rfnd_", paymentId, amount);
+        }
+
+        @Override
+        public Map<String, String> getPaymentStatus(String paymentId) {
+            return StubResponses.payment(paymentId, PaymentConstants.STATUS_CAPTURED, "upi");
+        }
+    }
+
+    static class StubStripePaymentGateway extends StripePaymentGateway {
+        @Override
+        public Map<String, String> generatePaymentLink(String orderId, Long amount, String phoneNumber, String email) {
+            return StubResponses.paymentLink("pi_", orderId);
+        }
+
+        @Override
+        public Map<String, String> generatePaymentLink(String orderId, Long amount, String phoneNumber, String email,
+                                                       String idempotencyKey) {
+            return generatePaymentLink(orderId, amount, phoneNumber, email);
+        }
+
+        @Override
+        public Map<String, String> verifyPayment(String paymentId) {
+            return StubResponses.payment(paymentId, PaymentConstants.STATUS_SUCCEEDED, "card");
+        }
+
+        @Override
+        public Map<String, String> refundPayment(String paymentId, Long amount) {
+            return StubResponses.refund("re_", paymentId, amount);
+        }
+
+        @Override
+        public Map<String, String> refundPayment(String paymentId, Long amount, String idempotencyKey) {
+            return refundPayment(paymentId, amount);
+        }
+
+        @Override
+        public Map<String, String> getPaymentStatus(String paymentId) {
+            return StubResponses.payment(paymentId, PaymentConstants.STATUS_SUCCEEDED, "card");
+        }
+    }
+
+    static final class StubResponses {
+        private static final AtomicLong SEQUENCE = new AtomicLong();
+
+        private StubResponses() {
+        }
+
+        static Map<String, String> paymentLink(String idPrefix, String orderId) {
+            String id = idPrefix + SEQUENCE.incrementAndGet();
+            Map<String, String> response = new HashMap<>();
+            response.put("paymentLinkId", id);
+            response.put("paymentLinkUrl", "https://pay.example.com/" + id);
+            response.put("orderId", orderId);
+            return response;
+        }
+
+        static Map<String, String> payment(String paymentId, String status, String method) {
+            Map<String, String> response = new HashMap<>();
+            response.put("paymentId", paymentId);
+            response.put("status", status);
+            response.put("amount", "50000");
+            response.put("currency", PaymentConstants.CURRENCY_INR);
+            response.put("method", method);
+            return response;
+        }
+
+        static Map<String, String> refund(String idPrefix, String paymentId, Long amount) {
+            Map<String, String> response = new HashMap<>();
+            response.put("refundId", idPrefix + SEQUENCE.incrementAndGet());
+            response.put("paymentId", paymentId);
+            response.put("amount", String.valueOf(amount != null ? amount : 50000L));
+            response.put("status", "processed");
+            return response;
+        }
+    }
+}
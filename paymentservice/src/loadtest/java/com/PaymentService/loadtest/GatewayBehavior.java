@@ -0,0 +1,20 @@
+package com.PaymentService.loadtest;
+
+import java.util.Properties;
+
+/**
+ * How the simulator answers: response latency plus the share of requests that fail with a
+ * server error or are throttled with 429.
+ */
+public record GatewayBehavior(LatencyDistribution latency, double errorRate, double rateLimitRate) {
+
+    public static GatewayBehavior from(Properties properties, String prefix, GatewayBehavior defaults) {
+        String latency = properties.getProperty(prefix + "latency");
+        String errorRate = properties.getProperty(prefix + "error-rate");
+        String rateLimitRate = properties.getProperty(prefix + "rate-limit-rate");
+        return new GatewayBehavior(
+                latency != null ? LatencyDistribution.parse(latency) : defaults.latency(),
+                errorRate != null ? Double.parseDouble(errorRate) : defaults.errorRate(),
+                rateLimitRate != null ? Double.parseDouble(rateLimitRate) : defaults.rateLimitRate());
+    }
+}
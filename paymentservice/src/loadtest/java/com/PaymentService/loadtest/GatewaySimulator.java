@@ -0,0 +1,252 @@
+package com.PaymentService.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded HTTP stand-in for the parts of the Razorpay and Stripe APIs the service uses:
+ * Razorpay payment links, payment fetch and refunds, and Stripe PaymentIntents and refunds.
+ * Both SDKs can be pointed at it through razorpay.base-url and stripe.base-url. Latency,
+ * error rate and 429 rate follow the current {@link GatewayBehavior}, which can be swapped
+ * while running.
+ */
+public class GatewaySimulator implements AutoCloseable {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Map<String, Object>> paymentIntents = new ConcurrentHashMap<>();
+    private volatile GatewayBehavior behavior;
+
+    public GatewaySimulator(int port, GatewayBehavior behavior) throws IOException {
+        this.behavior = behavior;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/v1/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void setBehavior(GatewayBehavior behavior) {
+        this.behavior = behavior;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            List<String> path = List.of(exchange.getRequestURI().getPath().substring("/v1/".length()).split("/"));
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            boolean stripe = "payment_intents".equals(path.get(0)) || "refunds".equals(path.get(0));
+
+            GatewayBehavior current = behavior;
+            Random random = ThreadLocalRandom.current();
+            sleep(current.latency().sampleMillis(random));
+            double roll = random.nextDouble();
+            if (roll < current.rateLimitRate()) {
+                respond(exchange, 429, stripe
+                        ? stripeError("rate_limit_error", "Too many requests")
+                        : razorpayError("BAD_REQUEST_ERROR", "Too many requests"));
+                return;
+            }
+            if (roll < current.rateLimitRate() + current.errorRate()) {
+                respond(exchange, 500, stripe
+                        ? stripeError("api_error", "Simulated server error")
+                        : razorpayError("SERVER_ERROR", "Simulated server error"));
+                return;
+            }
+
+            Map<String, Object> response = route(method, path, body);
+            if (response == null) {
+                respond(exchange, 404, stripe
+                        ? stripeError("invalid_request_error", "Unrecognized request URL")
+                        : razorpayError("BAD_REQUEST_ERROR", "The requested URL was not found on the server"));
+                return;
+            }
+            respond(exchange, 200, response);
+        } catch (RuntimeException e) {
+            respond(exchange, 500, razorpayError("SERVER_ERROR", String.valueOf(e.getMessage())));
+        }
+    }
+
+    private Map<String, Object> route(String method, List<String> path, String body) throws IOException {
+        String resource = path.get(0);
+        if ("POST".equals(method) && "payment_links".equals(resource) && path.size() == 1) {
+            return razorpayPaymentLink(OBJECT_MAPPER.readTree(body));
+        }
+        if ("GET".equals(method) && "payments".equals(resource) && path.size() == 2) {
+            return razorpayPayment(path.get(1));
+        }
+        if ("POST".equals(method) && "payments".equals(resource) && path.size() == 3 && "refund".equals(path.get(2))) {
+            JsonNode request = body.isEmpty() ? OBJECT_MAPPER.createObjectNode() : OBJECT_MAPPER.readTree(body);
+            return razorpayRefund(path.get(1), request.path("amount").asLong(50_000L));
+        }
+        if ("POST".equals(method) && "payment_intents".equals(resource) && path.size() == 1) {
+            return createPaymentIntent(parseForm(body));
+        }
+        if ("GET".equals(method) && "payment_intents".equals(resource) && path.size() == 2) {
+            return retrievePaymentIntent(path.get(1));
+        }
+        if ("POST".equals(method) && "refunds".equals(resource) && path.size() == 1) {
+            return stripeRefund(parseForm(body));
+        }
+        return null;
+    }
+
+    private Map<String, Object> razorpayPaymentLink(JsonNode request) {
+        String id = "plink_sim" + sequence.incrementAndGet();
+        Map<String, Object> link = new LinkedHashMap<>();
+        link.put("id", id);
+        link.put("entity", "payment_link");
+        link.put("amount", request.path("amount").asLong());
+        link.put("currency", request.path("currency").asText("INR"));
+        link.put("reference_id", request.path("reference_id").asText());
+        link.put("status", "created");
+        link.put("short_url", "https://rzp.io/i/" + id);
+        return link;
+    }
+
+    // Every fetched payment is reported as captured; unknown or null ids get a fresh payment id
+    private Map<String, Object> razorpayPayment(String paymentId) {
+        String id = paymentId.startsWith("pay_") ? paymentId : "pay_sim" + sequence.incrementAndGet();
+        Map<String, Object> payment = new LinkedHashMap<>();
+        payment.put("id", id);
+        payment.put("entity", "payment");
+        payment.put("amount", 50_000L);
+        payment.put("currency", "INR");
+        payment.put("status", "captured");
+        payment.put("order_id", "order_sim" + id.substring(4));
+        payment.put("method", "upi");
+        return payment;
+    }
+
+    private Map<String, Object> razorpayRefund(String paymentId, long amount) {
+        Map<String, Object> refund = new LinkedHashMap<>();
+        refund.put("id", "rfnd_sim" + sequence.incrementAndGet());
+        refund.put("entity", "refund");
+        refund.put("payment_id", paymentId);
+        refund.put("amount", amount);
+        refund.put("currency", "INR");
+        refund.put("status", "processed");
+        return refund;
+    }
+
+    private Map<String, Object> createPaymentIntent(Map<String, String> form) {
+        String id = "pi_sim" + sequence.incrementAndGet();
+        Map<String, Object> metadata = new HashMap<>();
+        form.forEach((key, value) -> {
+            if (key.startsWith("metadata[") && key.endsWith("]")) {
+                metadata.put(key.substring("metadata[".length(), key.length() - 1), value);
+            }
+        });
+        Map<String, Object> intent = new LinkedHashMap<>();
+        intent.put("id", id);
+        intent.put("object", "payment_intent");
+        intent.put("amount", Long.parseLong(form.getOrDefault("amount", "0")));
+        intent.put("currency", form.getOrDefault("currency", "inr"));
+        intent.put("status", "requires_payment_method");
+        intent.put("client_secret", id + "_secret_sim");
+        intent.put("metadata", metadata);
+        intent.put("payment_method_types", List.of("card"));
+        intent.put("latest_charge", null);
+        paymentIntents.put(id, intent);
+        return intent;
+    }
+
+    // Retrieval simulates the customer having paid in the meantime
+    private Map<String, Object> retrievePaymentIntent(String id) {
+        Map<String, Object> stored = paymentIntents.get(id);
+        Map<String, Object> intent = new LinkedHashMap<>(stored != null ? stored : Map.of(
+                "id", id, "object", "payment_intent", "amount", 50_000L, "currency", "inr",
+                "metadata", Map.of(), "payment_method_types", List.of("card")));
+        intent.put("status", "succeeded");
+        intent.put("latest_charge", "ch_sim" + id.substring(id.indexOf("sim") + 3));
+        return intent;
+    }
+
+    private Map<String, Object> stripeRefund(Map<String, String> form) {
+        String paymentIntentId = form.get("payment_intent");
+        Map<String, Object> intent = paymentIntents.get(paymentIntentId);
+        long amount = form.containsKey("amount")
+                ? Long.parseLong(form.get("amount"))
+                : intent != null ? (Long) intent.get("amount") : 50_000L;
+        Map<String, Object> refund = new LinkedHashMap<>();
+        refund.put("id", "re_sim" + sequence.incrementAndGet());
+        refund.put("object", "refund");
+        refund.put("amount", amount);
+        refund.put("currency", "inr");
+        refund.put("payment_intent", paymentIntentId);
+        refund.put("status", "succeeded");
+        return refund;
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                form.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private static Map<String, Object> razorpayError(String code, String description) {
+        return Map.of("error", Map.of("code", code, "description", description));
+    }
+
+    private static Map<String, Object> stripeError(String type, String message) {
+        return Map.of("error", Map.of("type", type, "message", message));
+    }
+
+    private static void respond(HttpExchange exchange, int status, Map<String, Object> body) throws IOException {
+        byte[] bytes = OBJECT_MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if (status == 429) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
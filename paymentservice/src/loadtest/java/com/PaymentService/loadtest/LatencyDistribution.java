@@ -0,0 +1,34 @@
+package com.PaymentService.loadtest;
+
+import java.util.Random;
+
+/**
+ * Latency model for simulated gateway responses. Parsed from specs such as {@code fixed:50},
+ * {@code uniform:20:200} or {@code lognormal:80:0.5} (median ms and sigma).
+ */
+public interface LatencyDistribution {
+    long sampleMillis(Random random);
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        switch (parts[0]) {
+            case "fixed": {
+                long millis = Long.parseLong(parts[1]);
+                return random -> millis;
+            }
+            case "uniform": {
+                long min = Long.parseLong(parts[1]);
+                long max = Long.parseLong(parts[2]);
+                return random -> min + (long) (random.nextDouble() * (max - min));
+            }
+            case "lognormal": {
+                double median = Double.parseDouble(parts[1]);
+                double sigma = Double.parseDouble(parts[2]);
+                double mu = Math.log(median);
+                return random -> Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+            }
+            default:
+                throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.PaymentService.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Closed-loop load generator for the PaymentController API. A fixed number of virtual-thread
+ * workers pick operations by the configured mix; follow-up operations (verify, status, refund)
+ * use ids produced by earlier initiate and verify calls.
+ */
+public class LoadGenerator {
+    enum Operation { INITIATE, VERIFY, STATUS, STATUS_BY_ORDER, REFUND }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int ID_RING_SIZE = 1 << 16;
+
+    private final String baseUrl;
+    private final int concurrency;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final double stripeShare;
+    private final Operation[] weightedOperations;
+    private final HttpClient httpClient;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong orderSequence = new AtomicLong();
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    private final Queue<String> unverifiedOrders = new ConcurrentLinkedQueue<>();
+    private final Queue<String> refundablePayments = new ConcurrentLinkedQueue<>();
+    private final AtomicReferenceArray<String> knownOrders = new AtomicReferenceArray<>(ID_RING_SIZE);
+    private final AtomicReferenceArray<String> knownPayments = new AtomicReferenceArray<>(ID_RING_SIZE);
+    private final AtomicLong knownOrderCount = new AtomicLong();
+    private final AtomicLong knownPaymentCount = new AtomicLong();
+
+    private volatile boolean measuring;
+
+    public LoadGenerator(String baseUrl, Properties scenario) {
+        this.baseUrl = baseUrl;
+        this.concurrency = Integer.parseInt(scenario.getProperty("concurrency", "64"));
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(scenario.getProperty("warmup.seconds", "10")));
+        this.durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(scenario.getProperty("duration.seconds", "60")));
+        this.stripeShare = Double.parseDouble(scenario.getProperty("stripe.share", "0.3"));
+        this.weightedOperations = weightedOperations(scenario);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats(operation.name().toLowerCase()));
+        }
+    }
+
+    public void run(PrintStream out) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        execute(nextOperation());
+                    }
+                });
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, measureFrom - System.nanoTime()));
+            measuring = true;
+            out.println("Warm-up done, measuring for " + TimeUnit.NANOSECONDS.toSeconds(durationNanos) + " s");
+        }
+        report(out, durationNanos / 1e9);
+    }
+
+    private Operation nextOperation() {
+        return weightedOperations[ThreadLocalRandom.current().nextInt(weightedOperations.length)];
+    }
+
+    private void execute(Operation chosen) {
+        String id = switch (chosen) {
+            case VERIFY -> unverifiedOrders.poll();
+            case STATUS -> pick(knownPayments, knownPaymentCount);
+            case STATUS_BY_ORDER -> pick(knownOrders, knownOrderCount);
+            case REFUND -> refundablePayments.poll();
+            case INITIATE -> null;
+        };
+        // Operations that depend on earlier results fall back to initiate until there is something to use
+        Operation operation = id == null ? Operation.INITIATE : chosen;
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request(operation, id), HttpResponse.BodyHandlers.ofString());
+            long latencyMicros = (System.nanoTime() - start) / 1000;
+            if (response.statusCode() >= 400) {
+                recordError(operation, "HTTP " + response.statusCode());
+                return;
+            }
+            handleResponse(operation, OBJECT_MAPPER.readTree(response.body()));
+            if (measuring) {
+                stats.get(operation).recordSuccess(latencyMicros);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            recordError(operation, e.getClass().getSimpleName());
+        }
+    }
+
+    private HttpRequest request(Operation operation, String id) {
+        return switch (operation) {
+            case INITIATE -> {
+                String orderId = "lt-" + runId + "-" + orderSequence.incrementAndGet();
+                String gateway = ThreadLocalRandom.current().nextDouble() < stripeShare ? "STRIPE" : "RAZORPAY";
+                yield post("/payments/", "{\"orderId\":\"" + orderId + "\",\"amount\":50000,"
+                        + "\"phoneNumber\":\"9876543210\",\"email\":\"load@example.com\",\"gatewayType\":\"" + gateway + "\"}");
+            }
+            case VERIFY -> post("/payments/verify", "{\"orderId\":\"" + id + "\"}");
+            case STATUS -> get("/payments/status/" + id);
+            case STATUS_BY_ORDER -> get("/payments/status/order/" + id);
+            case REFUND -> post("/payments/refund", "{\"paymentId\":\"" + id + "\",\"amount\":10000}");
+        };
+    }
+
+    private void handleResponse(Operation operation, JsonNode body) {
+        if (operation == Operation.INITIATE) {
+            String orderId = body.path("orderId").asText();
+            remember(knownOrders, knownOrderCount, orderId);
+            // Verify by orderId is only meaningful for Razorpay links, Stripe intents are verified by intent id
+            if (body.path("paymentLinkId").asText().startsWith("plink_")) {
+                unverifiedOrders.add(orderId);
+            }
+        } else if (operation == Operation.VERIFY && "SUCCESS".equals(body.path("status").asText())) {
+            String paymentId = body.path("paymentId").asText();
+            remember(knownPayments, knownPaymentCount, paymentId);
+            refundablePayments.add(paymentId);
+        }
+    }
+
+    private void recordError(Operation operation, String kind) {
+        if (measuring) {
+            stats.get(operation).recordError(kind);
+        }
+    }
+
+    private void report(PrintStream out, double seconds) {
+        long total = 0;
+        long errors = 0;
+        out.println();
+        for (OperationStats operationStats : stats.values()) {
+            operationStats.print(out, seconds);
+            total += operationStats.getCount();
+            errors += operationStats.getErrorCount();
+        }
+        out.printf("%nTotal: %d ok, %d errors, %.1f req/s over %.0f s%n", total, errors, (total + errors) / seconds, seconds);
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private static void remember(AtomicReferenceArray<String> ring, AtomicLong counter, String id) {
+        ring.set((int) (counter.getAndIncrement() % ID_RING_SIZE), id);
+    }
+
+    private static String pick(AtomicReferenceArray<String> ring, AtomicLong counter) {
+        int bound = (int) Math.min(counter.get(), ID_RING_SIZE);
+        return bound == 0 ? null : ring.get(ThreadLocalRandom.current().nextInt(bound));
+    }
+
+    private static Operation[] weightedOperations(Properties scenario) {
+        int initiate = Integer.parseInt(scenario.getProperty("mix.initiate", "20"));
+        int verify = Integer.parseInt(scenario.getProperty("mix.verify", "20"));
+        int status = Integer.parseInt(scenario.getProperty("mix.status", "45"));
+        int statusByOrder = Integer.parseInt(scenario.getProperty("mix.status-by-order", "10"));
+        int refund = Integer.parseInt(scenario.getProperty("mix.refund", "5"));
+        Operation[] operations = new Operation[initiate + verify + status + statusByOrder + refund];
+        int index = 0;
+        for (int i = 0; i < initiate; i++) operations[index++] = Operation.INITIATE;
+        for (int i = 0; i < verify; i++) operations[index++] = Operation.VERIFY;
+        for (int i = 0; i < status; i++) operations[index++] = Operation.STATUS;
+        for (int i = 0; i < statusByOrder; i++) operations[index++] = Operation.STATUS_BY_ORDER;
+        for (int i = 0; i < refund; i++) operations[index++] = Operation.REFUND;
+        return operations;
+    }
+}
@@ -0,0 +1,91 @@
+package com.PaymentService.loadtest;
+
+import com.PaymentService.paymentservice.PaymentserviceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the gateway simulator, starts the service in-process on H2 against it (unless
+ * target.url points at an already running instance) and drives load through the REST API.
+ * The scenario comes from loadtest.properties, or the file passed as first argument; any entry
+ * can be overridden with -Dloadtest.&lt;key&gt;=value.
+ */
+public final class LoadTestRunner {
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Properties scenario = loadScenario(args.length > 0 ? args[0] : null);
+        GatewayBehavior baseBehavior = GatewayBehavior.from(scenario, "simulator.",
+                new GatewayBehavior(LatencyDistribution.parse("fixed:0"), 0.0, 0.0));
+
+        try (GatewaySimulator simulator = new GatewaySimulator(
+                Integer.parseInt(scenario.getProperty("simulator.port", "0")), baseBehavior)) {
+            simulator.start();
+            System.out.println("Gateway simulator listening on " + simulator.getBaseUrl());
+
+            String targetUrl = scenario.getProperty("target.url", "");
+            ConfigurableApplicationContext service = null;
+            if (targetUrl.isBlank()) {
+                service = new SpringApplicationBuilder(PaymentserviceApplication.class)
+                        .profiles(scenario.getProperty("service.profiles", "loadtest").split(","))
+                        .properties("razorpay.base-url=" + simulator.getBaseUrl(),
+                                "stripe.base-url=" + simulator.getBaseUrl(),
+                                "payment.warmup.enabled=" + scenario.getProperty("service.warmup", "true"))
+                        .run();
+                targetUrl = "http://127.0.0.1:" + service.getEnvironment().getProperty("local.server.port");
+            }
+            System.out.println("Driving load against " + targetUrl);
+
+            ScheduledExecutorService phases = schedulePhases(scenario, simulator, baseBehavior);
+            try {
+                new LoadGenerator(targetUrl, scenario).run(System.out);
+            } finally {
+                phases.shutdownNow();
+                if (service != null) {
+                    service.close();
+                }
+            }
+        }
+    }
+
+    // phase.N.at-seconds switches the simulator to phase.N.* behaviour, counted from the start of the run
+    private static ScheduledExecutorService schedulePhases(Properties scenario, GatewaySimulator simulator,
+                                                           GatewayBehavior baseBehavior) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        for (int phase = 1; scenario.containsKey("phase." + phase + ".at-seconds"); phase++) {
+            String prefix = "phase." + phase + ".";
+            long atSeconds = Long.parseLong(scenario.getProperty(prefix + "at-seconds"));
+            GatewayBehavior behavior = GatewayBehavior.from(scenario, prefix, baseBehavior);
+            int phaseNumber = phase;
+            scheduler.schedule(() -> {
+                System.out.println("Switching simulator to phase " + phaseNumber);
+                simulator.setBehavior(behavior);
+            }, atSeconds, TimeUnit.SECONDS);
+        }
+        return scheduler;
+    }
+
+    private static Properties loadScenario(String path) throws IOException {
+        Properties scenario = new Properties();
+        try (InputStream input = path != null
+                ? new FileInputStream(path)
+                : LoadTestRunner.class.getResourceAsStream("/loadtest.properties")) {
+            if (input != null) {
+                scenario.load(input);
+            }
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("loadtest."))
+                .forEach(name -> scenario.setProperty(name.substring("loadtest.".length()), System.getProperty(name)));
+        return scenario;
+    }
+}
@@ -0,0 +1,58 @@
+package com.PaymentService.loadtest;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencies and outcomes of one API operation during the measurement window
+class OperationStats {
+    private final String name;
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private long[] latenciesMicros = new long[1 << 16];
+    private int count;
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    synchronized void recordSuccess(long latencyMicros) {
+        if (count == latenciesMicros.length) {
+            latenciesMicros = Arrays.copyOf(latenciesMicros, count * 2);
+        }
+        latenciesMicros[count++] = latencyMicros;
+    }
+
+    void recordError(String kind) {
+        errors.computeIfAbsent(kind, key -> new LongAdder()).increment();
+    }
+
+    synchronized void print(PrintStream out, double seconds) {
+        long[] sorted = Arrays.copyOf(latenciesMicros, count);
+        Arrays.sort(sorted);
+        long errorCount = errors.values().stream().mapToLong(LongAdder::sum).sum();
+        out.printf("%-16s %10d ok %8d err %10.1f req/s   p50 %8.2f ms   p99 %8.2f ms   p999 %8.2f ms   max %8.2f ms%n",
+                name, count, errorCount, (count + errorCount) / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                sorted.length > 0 ? sorted[sorted.length - 1] / 1000.0 : 0.0);
+        new TreeMap<>(errors).forEach((kind, adder) -> out.printf("%-16s   %-40s %10d%n", "", kind, adder.sum()));
+    }
+
+    synchronized int getCount() {
+        return count;
+    }
+
+    long getErrorCount() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+}
@@ -0,0 +1,55 @@
+-- H2 (MySQL mode) equivalent of the Flyway migrations, run by each embedded shard on connect
+CREATE TABLE IF NOT EXISTS payments (
+    id               BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    order_id         VARCHAR(255) NOT NULL,
+    amount           BIGINT       NOT NULL,
+    refunded_amount  BIGINT       NOT NULL DEFAULT 0,
+    currency         VARCHAR(255) NOT NULL,
+    merchant_id      VARCHAR(64),
+    phone_number     VARCHAR(255) NOT NULL,
+    email            VARCHAR(255) NOT NULL,
+    status           VARCHAR(32)  NOT NULL,
+    gateway_type     VARCHAR(32)  NOT NULL,
+    payment_link_id  VARCHAR(255),
+    payment_id       VARCHAR(255),
+    payment_link_url VARCHAR(255),
+    failure_reason   VARCHAR(255),
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6),
+    CONSTRAINT uk_payments_order_id UNIQUE (order_id),
+    CONSTRAINT uk_payments_payment_link_id UNIQUE (payment_link_id),
+    CONSTRAINT uk_payments_payment_id UNIQUE (payment_id)
+);
+CREATE INDEX IF NOT EXISTS idx_payments_status_created_at ON payments (status, created_at);
+CREATE INDEX IF NOT EXISTS idx_payments_gateway_type_created_at ON payments (gateway_type, created_at);
+CREATE INDEX IF NOT EXISTS idx_payments_updated_at ON payments (updated_at);
+CREATE INDEX IF NOT EXISTS idx_payments_created_at ON payments (created_at);
+CREATE TABLE IF NOT EXISTS payment_stats_hourly (
+    bucket_hour   TIMESTAMP   NOT NULL,
+    gateway_type  VARCHAR(32) NOT NULL,
+    status        VARCHAR(32) NOT NULL,
+    payment_count BIGINT      NOT NULL,
+    amount_sum    BIGINT      NOT NULL,
+    PRIMARY KEY (bucket_hour, gateway_type, status)
+);
+CREATE TABLE IF NOT EXISTS refunds (
+    id                BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    payment_id        BIGINT       NOT NULL,
+    amount            BIGINT       NOT NULL,
+    status            VARCHAR(32)  NOT NULL,
+    gateway_refund_id VARCHAR(255),
+    gateway_status    VARCHAR(255),
+    failure_reason    VARCHAR(255),
+    created_at        TIMESTAMP(6),
+    updated_at        TIMESTAMP(6),
+    CONSTRAINT uk_refunds_gateway_refund_id UNIQUE (gateway_refund_id),
+    CONSTRAINT fk_refunds_payment FOREIGN KEY (payment_id) REFERENCES payments (id)
+);
+CREATE INDEX IF NOT EXISTS idx_refunds_payment_id_created_at ON refunds (payment_id, created_at);
+CREATE TABLE IF NOT EXISTS gateway_sync_cursors (
+    gateway_type VARCHAR(32)  NOT NULL,
+    account_id   VARCHAR(64)  NOT NULL,
+    synced_until TIMESTAMP(6) NOT NULL,
+    updated_at   TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (gateway_type, account_id)
+);
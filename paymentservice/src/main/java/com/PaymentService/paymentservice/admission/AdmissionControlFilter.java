@@ -0,0 +1,147 @@
+package com.PaymentService.paymentservice.admission;
+
+import com.PaymentService.paymentservice.dtos.ErrorResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Admission control in front of the /payments endpoints. Each endpoint class has its own adaptive
+ * concurrency limit, so a flood of status polls can't take the slots initiate and verify need.
+ * While a more important class is saturated or shedding, less important classes are held to a
+ * fraction of their limit. Rejections are immediate, with Retry-After, instead of queueing on
+ * the shared Tomcat pool.
+ *
+ * Because nothing waits for a slot, there is no queue depth to report: payment.admission.inflight
+ * (admitted requests still running, per class) is the gauge to watch in its place, against
+ * payment.admission.limit.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@EnableConfigurationProperties(AdmissionProperties.class)
+@ConditionalOnProperty(name = "payment.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final ObjectMapper objectMapper;
+    private final long pressureWindowNanos;
+    private final double lowPriorityFraction;
+    private final Map<EndpointClass, GradientLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Integer> retryAfterSeconds = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> limitSheds = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> prioritySheds = new EnumMap<>(EndpointClass.class);
+    private final AtomicLongArray lastShedNanos = new AtomicLongArray(EndpointClass.values().length);
+
+    public AdmissionControlFilter(AdmissionProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.pressureWindowNanos = properties.getPressureWindowMs() * 1_000_000L;
+        this.lowPriorityFraction = properties.getLowPriorityFraction();
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            AdmissionProperties.Limits limits = properties.limitsFor(endpointClass);
+            GradientLimiter limiter = new GradientLimiter(limits.getInitialLimit(), limits.getMinLimit(), limits.getMaxLimit());
+            limiters.put(endpointClass, limiter);
+            retryAfterSeconds.put(endpointClass, limits.getRetryAfterSeconds());
+            lastShedNanos.set(endpointClass.ordinal(), NEVER);
+            String tag = endpointClass.getTagValue();
+            Gauge.builder("payment.admission.inflight", limiter, GradientLimiter::getInflight)
+                    .description("Requests admitted and still running; rejected requests never queue")
+                    .tag("endpoint", tag)
+                    .register(meterRegistry);
+            Gauge.builder("payment.admission.limit", limiter, GradientLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("endpoint", tag)
+                    .register(meterRegistry);
+            limitSheds.put(endpointClass, shedCounter(meterRegistry, tag, "limit"));
+            prioritySheds.put(endpointClass, shedCounter(meterRegistry, tag, "priority"));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        GradientLimiter limiter = limiters.get(endpointClass);
+        long now = System.nanoTime();
+        boolean yielding = isHigherPriorityUnderPressure(endpointClass, now);
+        if (!limiter.tryAcquire(yielding ? lowPriorityFraction : 1.0)) {
+            lastShedNanos.set(endpointClass.ordinal(), now);
+            (yielding ? prioritySheds : limitSheds).get(endpointClass).increment();
+            logger.debug("Shedding {} request, inflight: {}, limit: {}, yielding: {}",
+                    endpointClass, limiter.getInflight(), limiter.getLimit(), yielding);
+            reject(request, response, endpointClass);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            // Failed requests free their slot but don't feed the latency signal
+            limiter.release(completed ? System.nanoTime() - start : 0);
+        }
+    }
+
+    private boolean isHigherPriorityUnderPressure(EndpointClass endpointClass, long now) {
+        for (EndpointClass other : EndpointClass.values()) {
+            if (other.getPriority() >= endpointClass.getPriority()) {
+                continue;
+            }
+            long lastShed = lastShedNanos.get(other.ordinal());
+            if (limiters.get(other).isSaturated() || (lastShed != NEVER && now - lastShed < pressureWindowNanos)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, EndpointClass endpointClass)
+            throws IOException {
+        response.setStatus(endpointClass.getShedStatus().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds.get(endpointClass)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponseDto error = ErrorResponseDto.builder()
+                .message("Service is overloaded, retry later")
+                .errorCode(endpointClass.getShedStatus().name())
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .build();
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static Counter shedCounter(MeterRegistry meterRegistry, String endpoint, String reason) {
+        return Counter.builder("payment.admission.shed")
+                .description("Requests rejected by admission control")
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
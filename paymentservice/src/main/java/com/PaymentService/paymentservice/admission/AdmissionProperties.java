@@ -0,0 +1,30 @@
+package com.PaymentService.paymentservice.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "payment.admission")
+public class AdmissionProperties {
+    private boolean enabled = true;
+    // How long a class counts as under pressure after it last shed a request
+    private long pressureWindowMs = 1000;
+    // Share of its own limit a lower-priority class may use while a more important one is under pressure
+    private double lowPriorityFraction = 0.25;
+    private Map<EndpointClass, Limits> endpoints = new EnumMap<>(EndpointClass.class);
+
+    public Limits limitsFor(EndpointClass endpointClass) {
+        return endpoints.getOrDefault(endpointClass, new Limits());
+    }
+
+    @Data
+    public static class Limits {
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+        private int retryAfterSeconds = 1;
+    }
+}
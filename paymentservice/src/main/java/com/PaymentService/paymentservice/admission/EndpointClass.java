@@ -0,0 +1,71 @@
+package com.PaymentService.paymentservice.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Payment endpoints grouped by how much they matter when the service is overloaded. A lower
+ * priority value is more important; classes are shed in reverse priority order.
+ */
+public enum EndpointClass {
+    INITIATE(0, HttpStatus.SERVICE_UNAVAILABLE),
+    VERIFY(0, HttpStatus.SERVICE_UNAVAILABLE),
+    REFUND(1, HttpStatus.SERVICE_UNAVAILABLE),
+    WEBHOOK(1, HttpStatus.SERVICE_UNAVAILABLE),
+    // Polls are told to slow down rather than that the service is down
+    STATUS(2, HttpStatus.TOO_MANY_REQUESTS),
+    // Reporting reads are shed first: the export stream holds a connection for the whole range
+    EXPORT(3, HttpStatus.TOO_MANY_REQUESTS),
+    STATS(3, HttpStatus.TOO_MANY_REQUESTS);
+
+    private static final String BASE_PATH = "/payments";
+
+    private final int priority;
+    private final HttpStatus shedStatus;
+
+    EndpointClass(int priority, HttpStatus shedStatus) {
+        this.priority = priority;
+        this.shedStatus = shedStatus;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public HttpStatus getShedStatus() {
+        return shedStatus;
+    }
+
+    public String getTagValue() {
+        return name().toLowerCase();
+    }
+
+    // Null for requests outside the /payments controllers, which are not admission controlled
+    static EndpointClass of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(BASE_PATH)) {
+            return null;
+        }
+        String subPath = path.substring(BASE_PATH.length());
+        if ("POST".equals(request.getMethod())) {
+            return switch (subPath) {
+                case "/" -> INITIATE;
+                case "/verify" -> VERIFY;
+                case "/refund" -> REFUND;
+                case "/webhook" -> WEBHOOK;
+                default -> null;
+            };
+        }
+        if (!"GET".equals(request.getMethod())) {
+            return null;
+        }
+        if (subPath.startsWith("/status/")) {
+            return STATUS;
+        }
+        return switch (subPath) {
+            case "/export" -> EXPORT;
+            case "/stats" -> STATS;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.PaymentService.paymentservice.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limit in the style of Netflix's Gradient2. The limit follows the ratio of
+ * the long-term average latency to the latest sample: it grows by a queue allowance of
+ * sqrt(limit) while latency holds steady and shrinks in proportion as latency rises, so the
+ * limit settles where requests stop queueing instead of at a hand-tuned thread count.
+ */
+public class GradientLimiter {
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+    // Guarded by this
+    private double longRttNanos;
+    private long samples;
+
+    public GradientLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * Takes a slot when fewer than {@code fraction} of the current limit are in use. The fraction
+     * lets callers run a class below its limit while more important traffic is under pressure.
+     */
+    public boolean tryAcquire(double fraction) {
+        int allowed = Math.max(minLimit, (int) (limit * fraction));
+        int current = inflight.get();
+        while (current < allowed) {
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+            current = inflight.get();
+        }
+        return false;
+    }
+
+    public void release(long rttNanos) {
+        int inflightAtSample = inflight.getAndDecrement();
+        if (rttNanos > 0) {
+            onSample(rttNanos, inflightAtSample);
+        }
+    }
+
+    public boolean isSaturated() {
+        return inflight.get() >= (int) limit;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inflightAtSample) {
+        samples++;
+        if (samples == 1) {
+            longRttNanos = rttNanos;
+        } else {
+            double window = Math.min(samples, LONG_WINDOW);
+            longRttNanos += (rttNanos - longRttNanos) / window;
+        }
+        // A long-term average far above the current latency means it is still carrying an old
+        // spike; pull it down so recovery isn't delayed by the whole window
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        // While the limit is far from reached latency says nothing about it; don't grow
+        if (inflightAtSample < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        double next = limit * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
@@ -0,0 +1,50 @@
+package com.PaymentService.paymentservice.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived memory of ids that were recently confirmed as unknown, so repeated lookups for the
+ * same bogus id don't reach the database or the gateway again until the entry expires.
+ */
+public class NegativeLookupCache {
+    private final ConcurrentHashMap<String, Long> expiries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public NegativeLookupCache(long ttlMillis, int maxSize) {
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxSize = maxSize;
+    }
+
+    public boolean contains(String key) {
+        Long expiry = expiries.get(key);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry - System.nanoTime() < 0) {
+            expiries.remove(key, expiry);
+            return false;
+        }
+        return true;
+    }
+
+    public void put(String key) {
+        if (expiries.size() >= maxSize) {
+            evictExpired();
+            if (expiries.size() >= maxSize) {
+                // Still full of live entries: drop everything rather than grow without bound
+                expiries.clear();
+            }
+        }
+        expiries.put(key, System.nanoTime() + ttlNanos);
+    }
+
+    public void invalidate(String key) {
+        expiries.remove(key);
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        expiries.entrySet().removeIf(entry -> entry.getValue() - now < 0);
+    }
+}
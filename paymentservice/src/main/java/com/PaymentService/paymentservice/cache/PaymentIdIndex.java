@@ -0,0 +1,207 @@
+package com.PaymentService.paymentservice.cache;
+
+import com.PaymentService.paymentservice.repositories.PaymentRepository;
+import com.PaymentService.paymentservice.sharding.ShardTopology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Membership index of every paymentId stored in the database, by any node and on any shard. A
+ * bloom filter answers "definitely unknown" without touching MySQL, so made-up ids are rejected
+ * before the shard probe, and a short-TTL negative cache absorbs repeated lookups for the same one.
+ *
+ * The filter is built from every shard at startup (and rebuilt, resized, every rebuild-interval)
+ * and then kept current by a refresh that reads the ids of rows updated since the previous one,
+ * which is how ids stored by other nodes get in. Each refresh reads from overlap-ms before the
+ * previous one started, to cover clock skew between nodes and transactions that committed late.
+ *
+ * An id missing from the filter may have been stored since the last refresh, so it is only
+ * reported unknown after a refresh that started after the miss. Misses that arrive together share
+ * one refresh, so a flood of unknown ids costs one indexed range read per shard at a time rather
+ * than a probe of every shard per id. Until the first build completes, or when that refresh cannot
+ * run within catch-up-timeout-ms, an id is treated as possibly known and looked up.
+ */
+@Component
+public class PaymentIdIndex {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentIdIndex.class);
+
+    private final PaymentRepository paymentRepository;
+    private final ShardTopology shardTopology;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double falsePositiveRate;
+    private final long expectedInsertions;
+    private final long refreshOverlapMs;
+    private final long catchUpTimeoutMs;
+    private final NegativeLookupCache negativeCache;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile PaymentIdBloomFilter filter;
+    private volatile PaymentIdBloomFilter rebuilding;
+    private volatile boolean ready;
+    private volatile long capacity;
+    // Where the last completed refresh (or the first build) started; guarded by refreshLock
+    private LocalDateTime refreshedFrom;
+    private volatile long refreshedFromNanos;
+
+    public PaymentIdIndex(PaymentRepository paymentRepository, ShardTopology shardTopology,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${payment.lookup.bloom.expected-insertions:1000000}") long expectedInsertions,
+                          @Value("${payment.lookup.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                          @Value("${payment.lookup.bloom.refresh-overlap-ms:5000}") long refreshOverlapMs,
+                          @Value("${payment.lookup.bloom.catch-up-timeout-ms:1000}") long catchUpTimeoutMs,
+                          @Value("${payment.lookup.negative-cache.ttl-ms:30000}") long negativeCacheTtlMs,
+                          @Value("${payment.lookup.negative-cache.max-size:100000}") int negativeCacheMaxSize) {
+        this.paymentRepository = paymentRepository;
+        this.shardTopology = shardTopology;
+        // Lookups may already be inside a transaction bound to another shard
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.refreshOverlapMs = refreshOverlapMs;
+        this.catchUpTimeoutMs = catchUpTimeoutMs;
+        this.negativeCache = new NegativeLookupCache(negativeCacheTtlMs, negativeCacheMaxSize);
+        this.capacity = expectedInsertions;
+        this.filter = new PaymentIdBloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${payment.lookup.bloom.rebuild-interval-ms:86400000}",
+            fixedDelayString = "${payment.lookup.bloom.rebuild-interval-ms:86400000}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        LocalDateTime readFrom = LocalDateTime.now();
+        PaymentIdBloomFilter fresh = new PaymentIdBloomFilter(capacity, falsePositiveRate);
+        rebuilding = fresh;
+        long[] count = {0};
+        try {
+            // One read-only transaction per shard, each bound to its shard before the connection is opened
+            shardTopology.forEachShard(shardId -> readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> paymentIds = paymentRepository.streamAllPaymentIds()) {
+                    paymentIds.forEach(paymentId -> {
+                        fresh.put(paymentId);
+                        count[0]++;
+                    });
+                }
+            }));
+            refreshLock.lock();
+            try {
+                filter = fresh;
+                if (!ready) {
+                    refreshedFrom = readFrom;
+                    refreshedFromNanos = start;
+                    ready = true;
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+        } finally {
+            rebuilding = null;
+        }
+        // Room to double before the next rebuild, so the false positive rate holds as payments accumulate
+        capacity = Math.max(expectedInsertions, count[0] * 2);
+        logger.info("Payment id index rebuilt with {} ids in {} ms", count[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.lookup.bloom.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        refreshLock.lock();
+        try {
+            refreshLocked();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    public void add(String paymentId) {
+        if (paymentId == null) {
+            return;
+        }
+        PaymentIdBloomFilter inProgress = rebuilding;
+        filter.put(paymentId);
+        if (inProgress != null) {
+            inProgress.put(paymentId);
+        }
+        negativeCache.invalidate(paymentId);
+    }
+
+    // True when the id is certainly not stored, as of a refresh that started after this call
+    public boolean isKnownAbsent(String paymentId) {
+        if (negativeCache.contains(paymentId)) {
+            return true;
+        }
+        if (!ready || filter.mightContain(paymentId)) {
+            return false;
+        }
+        if (!catchUp(System.nanoTime()) || filter.mightContain(paymentId)) {
+            return false;
+        }
+        negativeCache.put(paymentId);
+        return true;
+    }
+
+    // For ids that passed the filter and then missed in the database
+    public void markAbsent(String paymentId) {
+        negativeCache.put(paymentId);
+    }
+
+    private boolean catchUp(long missedAt) {
+        try {
+            if (!refreshLock.tryLock(catchUpTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        try {
+            // A refresh that started after the miss, run for another caller while this one waited, covers it too
+            if (refreshedFromNanos - missedAt < 0) {
+                refreshLocked();
+            }
+            return true;
+        } catch (DataAccessException e) {
+            logger.warn("Payment id index refresh failed, looking the id up instead: {}", e.getMessage());
+            return false;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void refreshLocked() {
+        long start = System.nanoTime();
+        LocalDateTime readFrom = LocalDateTime.now();
+        LocalDateTime since = refreshedFrom.minus(refreshOverlapMs, ChronoUnit.MILLIS);
+        long[] count = {0};
+        shardTopology.forEachShard(shardId -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<String> paymentIds = paymentRepository.streamPaymentIdsUpdatedSince(since)) {
+                paymentIds.forEach(paymentId -> {
+                    add(paymentId);
+                    count[0]++;
+                });
+            }
+        }));
+        refreshedFrom = readFrom;
+        refreshedFromNanos = start;
+        logger.debug("Payment id index refreshed with {} ids updated since {}", count[0], since);
+    }
+}
@@ -0,0 +1,53 @@
+package com.PaymentService.paymentservice.configs;
+
+import com.PaymentService.paymentservice.paymentgateway.MerchantGatewayPool;
+import com.razorpay.RazorpayClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the lazy gateway SDK clients on a background thread once the application is up, so
+ * the cost stays off the startup path and usually off the first request as well.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.gateway.background-init", havingValue = "true", matchIfMissing = true)
+public class GatewayClientInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(GatewayClientInitializer.class);
+    private static final String[] STRIPE_CLASSES = {
+            "com.stripe.model.PaymentIntent",
+            "com.stripe.model.Refund",
+            "com.stripe.param.PaymentIntentCreateParams",
+            "com.stripe.param.RefundCreateParams"
+    };
+
+    private final ObjectProvider<RazorpayClient> razorpayClientProvider;
+    private final MerchantGatewayPool merchantGatewayPool;
+
+    public GatewayClientInitializer(ObjectProvider<RazorpayClient> razorpayClientProvider,
+                                    MerchantGatewayPool merchantGatewayPool) {
+        this.razorpayClientProvider = razorpayClientProvider;
+        this.merchantGatewayPool = merchantGatewayPool;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeInBackground() {
+        Thread.ofPlatform().name("gateway-client-init").daemon().start(() -> {
+            long start = System.nanoTime();
+            try {
+                razorpayClientProvider.getObject();
+                for (String className : STRIPE_CLASSES) {
+                    Class.forName(className, true, GatewayClientInitializer.class.getClassLoader());
+                }
+                merchantGatewayPool.prewarm();
+                logger.info("Gateway clients initialized in {} ms", (System.nanoTime() - start) / 1_000_000);
+            } catch (Exception e) {
+                logger.warn("Background gateway client initialization failed, clients will be built on first use", e);
+            }
+        });
+    }
+}
@@ -7,6 +7,8 @@ import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.util.StringUtils;
 
 @Configuration
 public class PaymentGatewayConfig {
@@ -17,14 +19,22 @@ public class PaymentGatewayConfig {
 
     @Value("${stripe.key.secret}")
     private String stripeSecretKey;
+    // Optional, points the SDK at a simulator or proxy instead of api.stripe.com
+    @Value("${stripe.base-url:}")
+    private String stripeBaseUrl;
 
+    // Built on first use or by GatewayClientInitializer after startup, not during context refresh
     @Bean
-    public RazorpayClient razorpayClient() throws RazorpayException {
-        return new RazorpayClient(razorpayId, razorpaySecret);
+    @Lazy
+    public RazorpayClient razorpayClient(RazorpayClientFactory razorpayClientFactory) throws RazorpayException {
+        return razorpayClientFactory.create(razorpayId, razorpaySecret);
     }
 
     @PostConstruct
     public void initializeStripe() {
         Stripe.apiKey = stripeSecretKey;
+        if (StringUtils.hasText(stripeBaseUrl)) {
+            Stripe.overrideApiBase(stripeBaseUrl);
+        }
     }
 }
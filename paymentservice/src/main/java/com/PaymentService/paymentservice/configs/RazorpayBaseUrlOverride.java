@@ -0,0 +1,63 @@
+package com.PaymentService.paymentservice.configs;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * The Razorpay SDK hardcodes https://api.razorpay.com and keeps a single static OkHttpClient in
+ * its package-private ApiUtils. To point it at another base URL (a local simulator, a proxy) we
+ * replace that client with one carrying an interceptor that rewrites scheme, host and port.
+ * RazorpayClient construction only builds the shared client while none is set, so this is
+ * applied once at startup, before any client exists, and later constructions keep it. Applying it
+ * again would replace the client under requests in flight and drop its pooled connections.
+ */
+final class RazorpayBaseUrlOverride {
+    private static final String API_UTILS_CLASS = "com.razorpay.ApiUtils";
+    private static final String CREATE_CLIENT_METHOD = "createHttpClientInstance";
+
+    private RazorpayBaseUrlOverride() {
+        // Utility class
+    }
+
+    static void apply(String baseUrl) {
+        HttpUrl target = HttpUrl.get(baseUrl);
+        try {
+            Class<?> apiUtils = Class.forName(API_UTILS_CLASS);
+            // Let the SDK build its client first, so the wrapped one keeps its timeouts and TLS setup
+            Method createClient = apiUtils.getDeclaredMethod(CREATE_CLIENT_METHOD, boolean.class);
+            createClient.setAccessible(true);
+            createClient.invoke(null, false);
+            Field clientField = findClientField(apiUtils);
+            clientField.setAccessible(true);
+            OkHttpClient current = (OkHttpClient) clientField.get(null);
+            OkHttpClient rewriting = current.newBuilder()
+                    .addInterceptor(chain -> {
+                        Request request = chain.request();
+                        HttpUrl rewritten = request.url().newBuilder()
+                                .scheme(target.scheme())
+                                .host(target.host())
+                                .port(target.port())
+                                .build();
+                        return chain.proceed(request.newBuilder().url(rewritten).build());
+                    })
+                    .build();
+            clientField.set(null, rewriting);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to override Razorpay base URL with " + baseUrl, e);
+        }
+    }
+
+    private static Field findClientField(Class<?> apiUtils) throws NoSuchFieldException {
+        for (Field field : apiUtils.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == OkHttpClient.class) {
+                return field;
+            }
+        }
+        throw new NoSuchFieldException("No static OkHttpClient field on " + apiUtils.getName());
+    }
+}
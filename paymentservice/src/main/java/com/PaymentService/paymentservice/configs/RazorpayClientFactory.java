@@ -0,0 +1,32 @@
+package com.PaymentService.paymentservice.configs;
+
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Builds Razorpay SDK clients for the platform account and for merchants. Each client carries its
+ * own credentials and shares the SDK's static HTTP client, which construction leaves alone once it
+ * exists, so merchant builds don't disturb each other's pooled connections or requests in flight.
+ */
+@Component
+public class RazorpayClientFactory {
+    // Optional, points the SDK at a simulator or proxy instead of api.razorpay.com
+    @Value("${razorpay.base-url:}")
+    private String razorpayBaseUrl;
+
+    // Before any client is built, so the override is applied once and never swapped under traffic
+    @PostConstruct
+    public void applyBaseUrlOverride() {
+        if (StringUtils.hasText(razorpayBaseUrl)) {
+            RazorpayBaseUrlOverride.apply(razorpayBaseUrl);
+        }
+    }
+
+    public RazorpayClient create(String keyId, String keySecret) throws RazorpayException {
+        return new RazorpayClient(keyId, keySecret);
+    }
+}
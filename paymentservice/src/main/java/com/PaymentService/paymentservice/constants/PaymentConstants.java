@@ -11,6 +11,8 @@ public class PaymentConstants {
     public static final String STATUS_SUCCEEDED = "succeeded";
     public static final String STATUS_FAILED = "failed";
     public static final String STATUS_CANCELED = "canceled";
+    // Razorpay status of a captured payment that has been refunded in full
+    public static final String STATUS_REFUNDED = "refunded";
 
     // Currency
     public static final String CURRENCY_INR = "INR";
@@ -23,6 +25,9 @@ public class PaymentConstants {
     // Payment Link Expiry (7 days in seconds)
     public static final long PAYMENT_LINK_EXPIRY_SECONDS = 7 * 24 * 60 * 60;
 
+    // Cache lifetime for status responses of payments in a terminal state (1 hour in seconds)
+    public static final long TERMINAL_STATUS_MAX_AGE_SECONDS = 60 * 60;
+
     // Messages
     public static final String MESSAGE_PAYMENT_LINK_GENERATED = "Payment link generated successfully";
     public static final String MESSAGE_PAYMENT_LINK_EXISTS = "Payment link already exists";
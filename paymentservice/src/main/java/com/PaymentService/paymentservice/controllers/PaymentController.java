@@ -2,12 +2,20 @@ package com.PaymentService.paymentservice.controllers;
 
 import com.PaymentService.paymentservice.constants.PaymentConstants;
 import com.PaymentService.paymentservice.dtos.*;
+import com.PaymentService.paymentservice.repositories.PaymentVersion;
 import com.PaymentService.paymentservice.services.PaymentService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/payments")
@@ -31,7 +39,8 @@ public class PaymentController {
                 requestDto.getAmount(),
                 requestDto.getPhoneNumber(),
                 requestDto.getEmail(),
-                gatewayType
+                gatewayType,
+                requestDto.getMerchantId()
         );
         logger.info("Payment initiated successfully for orderId: {}", requestDto.getOrderId());
         return ResponseEntity.ok(response);
@@ -64,17 +73,48 @@ public class PaymentController {
     }
 
     @GetMapping("/status/{paymentId}")
-    public ResponseEntity<PaymentStatusResponseDto> getPaymentStatus(@PathVariable String paymentId) {
+    public ResponseEntity<PaymentStatusResponseDto> getPaymentStatus(@PathVariable String paymentId,
+                                                                     WebRequest webRequest) {
         logger.debug("Getting payment status for paymentId: {}", paymentId);
-        PaymentStatusResponseDto response = paymentService.getPaymentStatus(paymentId);
-        return ResponseEntity.ok(response);
+        PaymentVersion version = paymentService.getPaymentVersion(paymentId).orElse(null);
+        return conditionalStatusResponse(version, webRequest, () -> paymentService.getPaymentStatus(paymentId));
     }
 
     @GetMapping("/status/order/{orderId}")
-    public ResponseEntity<PaymentStatusResponseDto> getPaymentStatusByOrderId(@PathVariable String orderId) {
+    public ResponseEntity<PaymentStatusResponseDto> getPaymentStatusByOrderId(@PathVariable String orderId,
+                                                                              WebRequest webRequest) {
         logger.debug("Getting payment status for orderId: {}", orderId);
-        PaymentStatusResponseDto response = paymentService.getPaymentStatusByOrderId(orderId);
-        return ResponseEntity.ok(response);
+        PaymentVersion version = paymentService.getPaymentVersionByOrderId(orderId).orElse(null);
+        return conditionalStatusResponse(version, webRequest, () -> paymentService.getPaymentStatusByOrderId(orderId));
+    }
+
+    /**
+     * Answers If-None-Match / If-Modified-Since from the stored row version before the entity is
+     * loaded or the gateway is called. For /status/{paymentId} the body also carries the gateway's
+     * live status, which the validator does not cover: a gateway-side change reaches revalidating
+     * clients once verify or the bulk gateway sync writes it to the row, at most one sync interval late.
+     */
+    private ResponseEntity<PaymentStatusResponseDto> conditionalStatusResponse(
+            PaymentVersion version, WebRequest webRequest, Supplier<PaymentStatusResponseDto> loader) {
+        if (version == null || version.getUpdatedAt() == null) {
+            return ResponseEntity.ok(loader.get());
+        }
+
+        long lastModified = version.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        String eTag = "\"" + version.getStatus() + "-" + lastModified + "\"";
+        CacheControl cacheControl = version.getStatus().isTerminal()
+                ? CacheControl.maxAge(Duration.ofSeconds(PaymentConstants.TERMINAL_STATUS_MAX_AGE_SECONDS)).cachePublic()
+                : CacheControl.noCache();
+
+        if (webRequest.checkNotModified(eTag, lastModified)) {
+            // checkNotModified has already set the 304 status and the validator headers
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .cacheControl(cacheControl)
+                .body(loader.get());
     }
 
     @PostMapping("/webhook")
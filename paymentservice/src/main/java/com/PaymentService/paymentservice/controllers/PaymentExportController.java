@@ -0,0 +1,60 @@
+package com.PaymentService.paymentservice.controllers;
+
+import com.PaymentService.paymentservice.export.ExportRequest;
+import com.PaymentService.paymentservice.export.PaymentExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/payments")
+public class PaymentExportController {
+    private final PaymentExportService paymentExportService;
+
+    public PaymentExportController(PaymentExportService paymentExportService) {
+        this.paymentExportService = paymentExportService;
+    }
+
+    // GET /payments/export?from=2024-05-01&to=2024-05-02&gateway=RAZORPAY&status=SUCCESS&format=ndjson[&cursor=...]
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String gateway,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportRequest request = ExportRequest.parse(from, to, gateway, status, format, cursor);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+                paymentExportService.export(request, gzipOut);
+                gzipOut.finish();
+            } else {
+                paymentExportService.export(request, out);
+            }
+        };
+
+        String fileName = "payments-" + request.from().toLocalDate() + "-" + request.to().toLocalDate()
+                + "." + request.format().getExtension();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(request.format().getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -0,0 +1,38 @@
+package com.PaymentService.paymentservice.controllers;
+
+import com.PaymentService.paymentservice.dtos.PaymentStatsResponseDto;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.stats.PaymentStatsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@RestController
+@RequestMapping("/payments")
+public class PaymentStatsController {
+    private final PaymentStatsService paymentStatsService;
+
+    public PaymentStatsController(PaymentStatsService paymentStatsService) {
+        this.paymentStatsService = paymentStatsService;
+    }
+
+    // Served from the hourly rollup; defaults to the last 24 hours
+    @GetMapping("/stats")
+    public ResponseEntity<PaymentStatsResponseDto> getStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Payment.PaymentGatewayType gateway) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        return ResponseEntity.ok(paymentStatsService.getStats(start, end, gateway));
+    }
+}
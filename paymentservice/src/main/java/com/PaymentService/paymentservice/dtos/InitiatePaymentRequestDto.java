@@ -24,4 +24,7 @@ public class InitiatePaymentRequestDto {
 
     @Pattern(regexp = "^(RAZORPAY|STRIPE)$", message = "Gateway type must be RAZORPAY or STRIPE")
     private String gatewayType; // RAZORPAY or STRIPE
+
+    @Pattern(regexp = "^[A-Za-z0-9_-]{1,64}$", message = "Invalid merchant ID format")
+    private String merchantId; // Optional: if null, platform account
 }
@@ -0,0 +1,18 @@
+package com.PaymentService.paymentservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class PaymentStatsBucketDto {
+    private LocalDateTime hour;
+    private String gatewayType;
+    private String status;
+    private long count;
+    private long amount;
+}
@@ -0,0 +1,20 @@
+package com.PaymentService.paymentservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+public class PaymentStatsResponseDto {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long totalCount;
+    private long successCount;
+    private double successRate;
+    private long totalAmount;
+    private long successAmount;
+    private List<PaymentStatsBucketDto> buckets;
+}
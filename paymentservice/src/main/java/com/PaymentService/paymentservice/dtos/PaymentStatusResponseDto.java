@@ -12,5 +12,6 @@ public class PaymentStatusResponseDto {
     private Long amount;
     private String currency;
     private String method;
+    private Long refundedAmount;
 }
 
@@ -10,6 +10,9 @@ public class RefundPaymentResponseDto {
     private String paymentId;
     private Long amount;
     private String status;
+    private String paymentStatus;
+    private Long totalRefunded;
+    private Long remainingAmount;
     private String message;
 }
 
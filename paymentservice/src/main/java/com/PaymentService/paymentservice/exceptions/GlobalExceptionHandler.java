@@ -4,6 +4,7 @@ import com.PaymentService.paymentservice.dtos.ErrorResponseDto;
 import com.razorpay.RazorpayException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -23,7 +25,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(PaymentNotFoundException.class)
     public ResponseEntity<ErrorResponseDto> handlePaymentNotFoundException(
             PaymentNotFoundException ex, WebRequest request) {
-        logger.error("Payment not found: {}", ex.getMessage());
+        logger.debug("Payment not found: {}", ex.getMessage());
         ErrorResponseDto error = ErrorResponseDto.builder()
                 .message(ex.getMessage())
                 .errorCode("PAYMENT_NOT_FOUND")
@@ -46,6 +48,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(UnknownMerchantException.class)
+    public ResponseEntity<ErrorResponseDto> handleUnknownMerchantException(
+            UnknownMerchantException ex, WebRequest request) {
+        logger.warn("Unknown merchant: {}", ex.getMessage());
+        ErrorResponseDto error = ErrorResponseDto.builder()
+                .message(ex.getMessage())
+                .errorCode("UNKNOWN_MERCHANT")
+                .timestamp(LocalDateTime.now())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(PaymentProcessingException.class)
     public ResponseEntity<ErrorResponseDto> handlePaymentProcessingException(
             PaymentProcessingException ex, WebRequest request) {
@@ -59,6 +74,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
 
+    // A payment row changed between this request's read and its write, e.g. a refund reserved during a verify
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponseDto> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, WebRequest request) {
+        logger.warn("Concurrent payment update: {}", ex.getMessage());
+        ErrorResponseDto error = ErrorResponseDto.builder()
+                .message("The payment was updated concurrently, please retry")
+                .errorCode("CONCURRENT_UPDATE")
+                .timestamp(LocalDateTime.now())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     @ExceptionHandler(RazorpayException.class)
     public ResponseEntity<ErrorResponseDto> handleRazorpayException(
             RazorpayException ex, WebRequest request) {
@@ -98,6 +127,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponseDto> handleArgumentTypeMismatchException(
+            MethodArgumentTypeMismatchException ex, WebRequest request) {
+        logger.debug("Invalid value for parameter {}: {}", ex.getName(), ex.getValue());
+        ErrorResponseDto error = ErrorResponseDto.builder()
+                .message("Invalid value for parameter '" + ex.getName() + "'")
+                .errorCode("INVALID_ARGUMENT")
+                .timestamp(LocalDateTime.now())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponseDto> handleGenericException(
             Exception ex, WebRequest request) {
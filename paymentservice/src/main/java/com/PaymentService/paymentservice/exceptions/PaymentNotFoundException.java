@@ -4,6 +4,15 @@ public class PaymentNotFoundException extends RuntimeException {
     public PaymentNotFoundException(String message) {
         super(message);
     }
+
+    private PaymentNotFoundException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    // Cheap variant for lookups of unknown ids: no stack trace is captured
+    public static PaymentNotFoundException withoutStackTrace(String message) {
+        return new PaymentNotFoundException(message, false);
+    }
 }
 
 
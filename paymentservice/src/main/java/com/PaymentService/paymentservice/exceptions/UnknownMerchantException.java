@@ -0,0 +1,7 @@
+package com.PaymentService.paymentservice.exceptions;
+
+public class UnknownMerchantException extends RuntimeException {
+    public UnknownMerchantException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,59 @@
+package com.PaymentService.paymentservice.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+class CsvExportRowWriter implements ExportRowWriter {
+    private final Writer writer;
+
+    CsvExportRowWriter(OutputStream out) {
+        this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+        writer.write(String.join(",", PaymentExportService.COLUMNS));
+        writer.write(",cursor\n");
+    }
+
+    @Override
+    public void writeRow(ResultSet row, String cursor) throws SQLException, IOException {
+        for (int i = 1; i <= PaymentExportService.COLUMNS.length; i++) {
+            Object value = row.getObject(i);
+            if (value instanceof Timestamp timestamp) {
+                writer.write(timestamp.toLocalDateTime().toString());
+            } else if (value != null) {
+                writeEscaped(value.toString());
+            }
+            writer.write(',');
+        }
+        writer.write(cursor);
+        writer.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,32 @@
+package com.PaymentService.paymentservice.export;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of a row in an export: the shard it came from and its (createdAt, id) key on that
+ * shard. Every exported row carries its cursor, so a client can resume an interrupted export
+ * from the last row it stored.
+ */
+public record ExportCursor(String shardId, LocalDateTime createdAt, long id) {
+
+    public String encode() {
+        String raw = shardId + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ExportCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid export cursor");
+            }
+            return new ExportCursor(parts[0], LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid export cursor");
+        }
+    }
+}
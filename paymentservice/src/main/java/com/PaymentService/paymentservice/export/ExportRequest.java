@@ -0,0 +1,41 @@
+package com.PaymentService.paymentservice.export;
+
+import com.PaymentService.paymentservice.models.Payment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Validated export parameters. Built before the response starts streaming, so bad input still
+ * gets a 400 instead of a truncated body.
+ */
+public record ExportRequest(LocalDateTime from, LocalDateTime to, Payment.PaymentGatewayType gatewayType,
+                            Payment.PaymentStatus status, ExportFormat format, ExportCursor cursor) {
+
+    public static ExportRequest parse(String from, String to, String gatewayType, String status,
+                                      String format, String cursor) {
+        LocalDateTime start = parseTime("from", from);
+        LocalDateTime end = parseTime("to", to);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        return new ExportRequest(start, end,
+                gatewayType == null || gatewayType.isBlank() ? null : Payment.PaymentGatewayType.valueOf(gatewayType.trim().toUpperCase()),
+                status == null || status.isBlank() ? null : Payment.PaymentStatus.valueOf(status.trim().toUpperCase()),
+                format == null || format.isBlank() ? ExportFormat.CSV : ExportFormat.valueOf(format.trim().toUpperCase()),
+                cursor == null || cursor.isBlank() ? null : ExportCursor.decode(cursor.trim()));
+    }
+
+    // Accepts either a date (start of day) or an ISO local date-time
+    private static LocalDateTime parseTime(String name, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("'" + name + "' is required");
+        }
+        try {
+            return value.length() <= 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid '" + name + "': " + value);
+        }
+    }
+}
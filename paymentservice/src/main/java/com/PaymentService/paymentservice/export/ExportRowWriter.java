@@ -0,0 +1,18 @@
+package com.PaymentService.paymentservice.export;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes rows straight from the JDBC result set to the output, one at a time. Columns are read
+ * in {@link PaymentExportService#COLUMNS} order.
+ */
+interface ExportRowWriter {
+
+    void writeHeader() throws IOException;
+
+    void writeRow(ResultSet row, String cursor) throws SQLException, IOException;
+
+    void flush() throws IOException;
+}
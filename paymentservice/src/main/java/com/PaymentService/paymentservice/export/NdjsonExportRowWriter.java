@@ -0,0 +1,53 @@
+package com.PaymentService.paymentservice.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+class NdjsonExportRowWriter implements ExportRowWriter {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonGenerator generator;
+
+    NdjsonExportRowWriter(OutputStream out) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(out);
+        // Lines are separated explicitly below; the generator must not add its own separator
+        this.generator.setRootValueSeparator(null);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void writeHeader() {
+    }
+
+    @Override
+    public void writeRow(ResultSet row, String cursor) throws SQLException, IOException {
+        generator.writeStartObject();
+        for (int i = 1; i <= PaymentExportService.COLUMNS.length; i++) {
+            Object value = row.getObject(i);
+            String field = PaymentExportService.COLUMNS[i - 1];
+            if (value == null) {
+                generator.writeNullField(field);
+            } else if (value instanceof Number number) {
+                generator.writeNumberField(field, number.longValue());
+            } else if (value instanceof Timestamp timestamp) {
+                generator.writeStringField(field, timestamp.toLocalDateTime().toString());
+            } else {
+                generator.writeStringField(field, value.toString());
+            }
+        }
+        generator.writeStringField("cursor", cursor);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+}
@@ -0,0 +1,144 @@
+package com.PaymentService.paymentservice.export;
+
+import com.PaymentService.paymentservice.sharding.ShardTopology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams payments for settlement exports. Each shard is read in pages keyed on (created_at, id),
+ * so every query is a short index range scan rather than one long-running statement. Each page
+ * is read through a forward-only streaming result set and written row by row to the output.
+ * Memory stays at one row plus the output buffer, whatever the size of the range.
+ */
+@Service
+public class PaymentExportService {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentExportService.class);
+
+    // Customer contact fields are left out; settlement only needs the payment itself
+    static final String[] COLUMNS = {"id", "order_id", "amount", "refunded_amount", "currency", "status",
+            "gateway_type", "merchant_id", "payment_link_id", "payment_id", "failure_reason", "created_at", "updated_at"};
+    private static final int CREATED_AT_COLUMN = 12;
+
+    private final ShardTopology shardTopology;
+    private final Map<String, JdbcTemplate> jdbcTemplates = new LinkedHashMap<>();
+    private final int pageSize;
+
+    public PaymentExportService(ShardTopology shardTopology,
+                                @Value("${payment.export.page-size:5000}") int pageSize,
+                                @Value("${payment.export.fetch-size:-2147483648}") int fetchSize) {
+        this.shardTopology = shardTopology;
+        this.pageSize = pageSize;
+        for (String shardId : shardTopology.shardIds()) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shardTopology.dataSource(shardId));
+            // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the whole page
+            jdbcTemplate.setFetchSize(fetchSize);
+            jdbcTemplates.put(shardId, jdbcTemplate);
+        }
+    }
+
+    public long export(ExportRequest request, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        ExportRowWriter writer = request.format() == ExportFormat.NDJSON
+                ? new NdjsonExportRowWriter(buffered)
+                : new CsvExportRowWriter(buffered);
+        List<String> shardIds = shardTopology.shardIds();
+        int firstShard = 0;
+        if (request.cursor() != null) {
+            firstShard = shardIds.indexOf(request.cursor().shardId());
+            if (firstShard < 0) {
+                throw new IllegalArgumentException("Export cursor refers to an unknown shard");
+            }
+        }
+
+        writer.writeHeader();
+        long rows = 0;
+        try {
+            for (int i = firstShard; i < shardIds.size(); i++) {
+                String shardId = shardIds.get(i);
+                ExportCursor position = i == firstShard && request.cursor() != null
+                        ? request.cursor()
+                        : new ExportCursor(shardId, request.from(), 0);
+                rows += exportShard(request, shardId, position, writer);
+            }
+        } catch (UncheckedIOException e) {
+            // Typically the client went away; the cursor of its last stored row lets it resume
+            throw e.getCause();
+        }
+        writer.flush();
+        buffered.flush();
+        logger.info("Exported {} payments from {} to {} in {} ms", rows, request.from(), request.to(),
+                (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private long exportShard(ExportRequest request, String shardId, ExportCursor position, ExportRowWriter writer)
+            throws IOException {
+        JdbcTemplate jdbcTemplate = jdbcTemplates.get(shardId);
+        long rows = 0;
+        while (true) {
+            ExportCursor[] last = {null};
+            int[] pageRows = {0};
+            Query query = pageQuery(request, position);
+            jdbcTemplate.query(query.sql(), resultSet -> {
+                ExportCursor cursor = new ExportCursor(shardId,
+                        resultSet.getTimestamp(CREATED_AT_COLUMN).toLocalDateTime(), resultSet.getLong(1));
+                try {
+                    writer.writeRow(resultSet, cursor.encode());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                last[0] = cursor;
+                pageRows[0]++;
+            }, query.args().toArray());
+            rows += pageRows[0];
+            // Let the client see progress between pages
+            writer.flush();
+            if (pageRows[0] < pageSize) {
+                return rows;
+            }
+            position = last[0];
+        }
+    }
+
+    // Keyset page: rows strictly after (createdAt, id) in the requested window, served by the created_at indexes
+    private Query pageQuery(ExportRequest request, ExportCursor position) {
+        StringBuilder sql = new StringBuilder("select ").append(String.join(", ", COLUMNS))
+                .append(" from payments where created_at >= ? and created_at < ?");
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(request.from()));
+        args.add(Timestamp.valueOf(request.to()));
+        if (request.gatewayType() != null) {
+            sql.append(" and gateway_type = ?");
+            args.add(request.gatewayType().name());
+        }
+        if (request.status() != null) {
+            sql.append(" and status = ?");
+            args.add(request.status().name());
+        }
+        LocalDateTime createdAt = position.createdAt();
+        sql.append(" and (created_at > ? or (created_at = ? and id > ?)) order by created_at, id limit ?");
+        args.add(Timestamp.valueOf(createdAt));
+        args.add(Timestamp.valueOf(createdAt));
+        args.add(position.id());
+        args.add(pageSize);
+        return new Query(sql.toString(), args);
+    }
+
+    private record Query(String sql, List<Object> args) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.PaymentService.paymentservice.grpc;
+
+import com.PaymentService.paymentservice.dtos.InitiatePaymentResponseDto;
+import com.PaymentService.paymentservice.dtos.PaymentStatusResponseDto;
+import com.PaymentService.paymentservice.dtos.RefundPaymentResponseDto;
+import com.PaymentService.paymentservice.dtos.VerifyPaymentResponseDto;
+import com.PaymentService.paymentservice.grpc.v1.InitiatePaymentResponse;
+import com.PaymentService.paymentservice.grpc.v1.PaymentStatusResponse;
+import com.PaymentService.paymentservice.grpc.v1.RefundPaymentResponse;
+import com.PaymentService.paymentservice.grpc.v1.VerifyPaymentResponse;
+
+/**
+ * Response DTOs to protobuf messages. Protobuf setters reject null, and an unset field already
+ * reads as empty or zero, so nulls are simply skipped.
+ */
+final class GrpcMessages {
+
+    private GrpcMessages() {
+    }
+
+    static InitiatePaymentResponse toProto(InitiatePaymentResponseDto dto) {
+        InitiatePaymentResponse.Builder builder = InitiatePaymentResponse.newBuilder();
+        if (dto.getOrderId() != null) {
+            builder.setOrderId(dto.getOrderId());
+        }
+        if (dto.getPaymentLinkId() != null) {
+            builder.setPaymentLinkId(dto.getPaymentLinkId());
+        }
+        if (dto.getPaymentLinkUrl() != null) {
+            builder.setPaymentLinkUrl(dto.getPaymentLinkUrl());
+        }
+        if (dto.getMessage() != null) {
+            builder.setMessage(dto.getMessage());
+        }
+        return builder.build();
+    }
+
+    static VerifyPaymentResponse toProto(VerifyPaymentResponseDto dto) {
+        VerifyPaymentResponse.Builder builder = VerifyPaymentResponse.newBuilder();
+        if (dto.getPaymentId() != null) {
+            builder.setPaymentId(dto.getPaymentId());
+        }
+        if (dto.getOrderId() != null) {
+            builder.setOrderId(dto.getOrderId());
+        }
+        if (dto.getStatus() != null) {
+            builder.setStatus(dto.getStatus());
+        }
+        if (dto.getAmount() != null) {
+            builder.setAmount(dto.getAmount());
+        }
+        if (dto.getCurrency() != null) {
+            builder.setCurrency(dto.getCurrency());
+        }
+        if (dto.getMessage() != null) {
+            builder.setMessage(dto.getMessage());
+        }
+        return builder.build();
+    }
+
+    static RefundPaymentResponse toProto(RefundPaymentResponseDto dto) {
+        RefundPaymentResponse.Builder builder = RefundPaymentResponse.newBuilder();
+        if (dto.getRefundId() != null) {
+            builder.setRefundId(dto.getRefundId());
+        }
+        if (dto.getPaymentId() != null) {
+            builder.setPaymentId(dto.getPaymentId());
+        }
+        if (dto.getAmount() != null) {
+            builder.setAmount(dto.getAmount());
+        }
+        if (dto.getStatus() != null) {
+            builder.setStatus(dto.getStatus());
+        }
+        if (dto.getPaymentStatus() != null) {
+            builder.setPaymentStatus(dto.getPaymentStatus());
+        }
+        if (dto.getTotalRefunded() != null) {
+            builder.setTotalRefunded(dto.getTotalRefunded());
+        }
+        if (dto.getRemainingAmount() != null) {
+            builder.setRemainingAmount(dto.getRemainingAmount());
+        }
+        if (dto.getMessage() != null) {
+            builder.setMessage(dto.getMessage());
+        }
+        return builder.build();
+    }
+
+    static PaymentStatusResponse toProto(PaymentStatusResponseDto dto) {
+        PaymentStatusResponse.Builder builder = PaymentStatusResponse.newBuilder();
+        if (dto.getPaymentId() != null) {
+            builder.setPaymentId(dto.getPaymentId());
+        }
+        if (dto.getOrderId() != null) {
+            builder.setOrderId(dto.getOrderId());
+        }
+        if (dto.getStatus() != null) {
+            builder.setStatus(dto.getStatus());
+        }
+        if (dto.getAmount() != null) {
+            builder.setAmount(dto.getAmount());
+        }
+        if (dto.getCurrency() != null) {
+            builder.setCurrency(dto.getCurrency());
+        }
+        if (dto.getMethod() != null) {
+            builder.setMethod(dto.getMethod());
+        }
+        if (dto.getRefundedAmount() != null) {
+            builder.setRefundedAmount(dto.getRefundedAmount());
+        }
+        return builder.build();
+    }
+}
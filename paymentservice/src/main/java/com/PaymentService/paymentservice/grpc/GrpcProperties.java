@@ -0,0 +1,26 @@
+package com.PaymentService.paymentservice.grpc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "payment.grpc")
+public class GrpcProperties {
+    private boolean enabled = true;
+    // 0 picks a free port
+    private int port = 9090;
+    private int bossThreads = 1;
+    // 0 leaves it to Netty: twice the number of cores
+    private int workerThreads = 0;
+    // Service calls block on the database and gateways, so they run here rather than on the event loops
+    private int executorThreads = 64;
+    private int maxInboundMessageSize = 1024 * 1024;
+    private long keepAliveTimeSeconds = 60;
+    private long permitKeepAliveTimeSeconds = 30;
+    private long shutdownGraceSeconds = 10;
+    private int watchThreads = 4;
+    private long watchIntervalMs = 1000;
+    private long watchTimeoutSeconds = 600;
+    // Open WatchPaymentStatus streams; each one polls the database, so further watches are refused
+    private int maxWatches = 1000;
+}
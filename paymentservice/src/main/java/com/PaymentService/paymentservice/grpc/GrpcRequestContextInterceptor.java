@@ -0,0 +1,76 @@
+package com.PaymentService.paymentservice.grpc;
+
+import com.PaymentService.paymentservice.logging.LogContext;
+import com.PaymentService.paymentservice.logging.RequestIdFilter;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+/**
+ * gRPC counterpart of RequestIdFilter. Callbacks of one call can run on different executor
+ * threads, so the request id is bound around each callback and cleared afterwards rather than
+ * once per call, and echoed in the response headers.
+ */
+class GrpcRequestContextInterceptor implements ServerInterceptor {
+    private static final Metadata.Key<String> REQUEST_ID_KEY =
+            Metadata.Key.of(RequestIdFilter.REQUEST_ID_HEADER.toLowerCase(), Metadata.ASCII_STRING_MARSHALLER);
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String requestId = RequestIdFilter.resolveRequestId(headers.get(REQUEST_ID_KEY));
+        ServerCall<ReqT, RespT> echoing = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void sendHeaders(Metadata responseHeaders) {
+                responseHeaders.put(REQUEST_ID_KEY, requestId);
+                super.sendHeaders(responseHeaders);
+            }
+        };
+        ServerCall.Listener<ReqT> listener = withRequestId(requestId, () -> next.startCall(echoing, headers));
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                withRequestId(requestId, () -> {
+                    super.onMessage(message);
+                    return null;
+                });
+            }
+
+            @Override
+            public void onHalfClose() {
+                withRequestId(requestId, () -> {
+                    super.onHalfClose();
+                    return null;
+                });
+            }
+
+            @Override
+            public void onCancel() {
+                withRequestId(requestId, () -> {
+                    super.onCancel();
+                    return null;
+                });
+            }
+
+            @Override
+            public void onComplete() {
+                withRequestId(requestId, () -> {
+                    super.onComplete();
+                    return null;
+                });
+            }
+        };
+    }
+
+    private static <T> T withRequestId(String requestId, java.util.function.Supplier<T> work) {
+        LogContext.requestId(requestId);
+        try {
+            return work.get();
+        } finally {
+            LogContext.clear();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.PaymentService.paymentservice.grpc;
+
+import com.PaymentService.paymentservice.services.PaymentService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.NettyServerBuilder;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Netty-based gRPC server for internal callers, running next to the servlet container. Calls
+ * are decoded on the event loops and handed to a bounded executor, because every method ends in
+ * a blocking database or gateway call. Admission control is a servlet filter and does not apply
+ * here; internal callers are expected to bound their own concurrency. The port opens when the
+ * application reports ACCEPTING_TRAFFIC, after journal recovery and warm-up have run, rather than
+ * at context refresh, so gRPC callers are held off exactly as long as the HTTP readiness probe.
+ */
+@Component
+@EnableConfigurationProperties(GrpcProperties.class)
+@ConditionalOnProperty(name = "payment.grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcServer implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(GrpcServer.class);
+
+    private final GrpcProperties properties;
+    private final PaymentGrpcService paymentGrpcService;
+
+    private volatile Server server;
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
+    private ExecutorService executor;
+
+    public GrpcServer(PaymentService paymentService, GrpcProperties properties) {
+        this.properties = properties;
+        this.paymentGrpcService = new PaymentGrpcService(paymentService, properties);
+    }
+
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && !isRunning()) {
+            start();
+        }
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return false;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (server != null) {
+            return;
+        }
+        bossGroup = new NioEventLoopGroup(properties.getBossThreads(), new DefaultThreadFactory("grpc-boss", true));
+        workerGroup = new NioEventLoopGroup(properties.getWorkerThreads(), new DefaultThreadFactory("grpc-worker", true));
+        executor = Executors.newFixedThreadPool(properties.getExecutorThreads(), new DefaultThreadFactory("grpc-call", true));
+        server = NettyServerBuilder.forPort(properties.getPort())
+                .bossEventLoopGroup(bossGroup)
+                .workerEventLoopGroup(workerGroup)
+                .channelType(NioServerSocketChannel.class)
+                .executor(executor)
+                .maxInboundMessageSize(properties.getMaxInboundMessageSize())
+                .keepAliveTime(properties.getKeepAliveTimeSeconds(), TimeUnit.SECONDS)
+                .permitKeepAliveTime(properties.getPermitKeepAliveTimeSeconds(), TimeUnit.SECONDS)
+                .addService(ServerInterceptors.intercept(paymentGrpcService, new GrpcRequestContextInterceptor()))
+                .build();
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start gRPC server on port " + properties.getPort(), e);
+        }
+        logger.info("gRPC server listening on port {}", server.getPort());
+    }
+
+    @Override
+    public synchronized void stop() {
+        Server running = server;
+        if (running == null) {
+            return;
+        }
+        server = null;
+        paymentGrpcService.shutdown();
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(properties.getShutdownGraceSeconds(), TimeUnit.SECONDS)) {
+                logger.warn("gRPC calls still running after {}s, cancelling them", properties.getShutdownGraceSeconds());
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdown();
+        workerGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+        bossGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    // Bound port; differs from the configured one when that is 0
+    public int getPort() {
+        Server running = server;
+        return running != null ? running.getPort() : -1;
+    }
+}
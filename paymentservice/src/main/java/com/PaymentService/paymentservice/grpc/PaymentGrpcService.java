@@ -0,0 +1,274 @@
+package com.PaymentService.paymentservice.grpc;
+
+import com.PaymentService.paymentservice.constants.PaymentConstants;
+import com.PaymentService.paymentservice.dtos.PaymentStatusResponseDto;
+import com.PaymentService.paymentservice.exceptions.InvalidPaymentStateException;
+import com.PaymentService.paymentservice.exceptions.PaymentNotFoundException;
+import com.PaymentService.paymentservice.exceptions.PaymentProcessingException;
+import com.PaymentService.paymentservice.exceptions.UnknownMerchantException;
+import com.PaymentService.paymentservice.grpc.v1.GatewayType;
+import com.PaymentService.paymentservice.grpc.v1.InitiatePaymentRequest;
+import com.PaymentService.paymentservice.grpc.v1.InitiatePaymentResponse;
+import com.PaymentService.paymentservice.grpc.v1.PaymentApiGrpc;
+import com.PaymentService.paymentservice.grpc.v1.PaymentStatusRequest;
+import com.PaymentService.paymentservice.grpc.v1.PaymentStatusResponse;
+import com.PaymentService.paymentservice.grpc.v1.RefundPaymentRequest;
+import com.PaymentService.paymentservice.grpc.v1.RefundPaymentResponse;
+import com.PaymentService.paymentservice.grpc.v1.VerifyPaymentRequest;
+import com.PaymentService.paymentservice.grpc.v1.VerifyPaymentResponse;
+import com.PaymentService.paymentservice.logging.LogContext;
+import com.PaymentService.paymentservice.repositories.PaymentVersion;
+import com.PaymentService.paymentservice.services.PaymentService;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * gRPC binding of the payment API. Calls go straight to PaymentService, so sharding, retries and
+ * the refund ledger behave exactly as they do behind PaymentController; request validation mirrors
+ * the constraints on the REST request DTOs and exceptions map to the status codes closest to what
+ * GlobalExceptionHandler returns.
+ */
+class PaymentGrpcService extends PaymentApiGrpc.PaymentApiImplBase {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentGrpcService.class);
+    private static final Pattern PHONE_NUMBER = Pattern.compile("^[+]?[0-9]{10,15}$");
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+    private static final Pattern MERCHANT_ID = Pattern.compile("^[A-Za-z0-9_-]{1,64}$");
+
+    private final PaymentService paymentService;
+    private final ScheduledExecutorService watchScheduler;
+    private final long watchIntervalMs;
+    private final long watchTimeoutNanos;
+    private final int maxWatches;
+    private final AtomicInteger activeWatches = new AtomicInteger();
+
+    PaymentGrpcService(PaymentService paymentService, GrpcProperties properties) {
+        this.paymentService = paymentService;
+        this.watchScheduler = Executors.newScheduledThreadPool(properties.getWatchThreads(),
+                new DefaultThreadFactory("grpc-watch", true));
+        this.watchIntervalMs = properties.getWatchIntervalMs();
+        this.watchTimeoutNanos = TimeUnit.SECONDS.toNanos(properties.getWatchTimeoutSeconds());
+        this.maxWatches = properties.getMaxWatches();
+    }
+
+    @Override
+    public void initiatePayment(InitiatePaymentRequest request, StreamObserver<InitiatePaymentResponse> responseObserver) {
+        unary(responseObserver, () -> {
+            require(!request.getOrderId().isBlank(), "Order ID is required");
+            require(request.getAmount() >= 1, "Amount must be greater than 0");
+            require(PHONE_NUMBER.matcher(request.getPhoneNumber()).matches(), "Invalid phone number format");
+            require(EMAIL.matcher(request.getEmail()).matches(), "Invalid email format");
+            String merchantId = request.getMerchantId().isEmpty() ? null : request.getMerchantId();
+            require(merchantId == null || MERCHANT_ID.matcher(merchantId).matches(), "Invalid merchant ID format");
+            logger.info("Initiating payment over gRPC for orderId: {}", request.getOrderId());
+            return GrpcMessages.toProto(paymentService.initiatePayment(request.getOrderId(), request.getAmount(),
+                    request.getPhoneNumber(), request.getEmail(), gatewayType(request.getGatewayType()), merchantId));
+        });
+    }
+
+    @Override
+    public void verifyPayment(VerifyPaymentRequest request, StreamObserver<VerifyPaymentResponse> responseObserver) {
+        unary(responseObserver, () -> {
+            String paymentId = request.getPaymentId().isEmpty() ? null : request.getPaymentId();
+            String orderId = request.getOrderId().isEmpty() ? null : request.getOrderId();
+            require(paymentId != null || orderId != null, "Either paymentId or orderId must be provided");
+            return GrpcMessages.toProto(paymentService.verifyPayment(paymentId, orderId));
+        });
+    }
+
+    @Override
+    public void refundPayment(RefundPaymentRequest request, StreamObserver<RefundPaymentResponse> responseObserver) {
+        unary(responseObserver, () -> {
+            require(!request.getPaymentId().isBlank(), "Payment ID is required");
+            require(!request.hasAmount() || request.getAmount() >= 1, "Refund amount must be greater than 0");
+            Long amount = request.hasAmount() ? request.getAmount() : null;
+            logger.info("Processing refund over gRPC for paymentId: {}, amount: {}", request.getPaymentId(), amount);
+            return GrpcMessages.toProto(paymentService.refundPayment(request.getPaymentId(), amount));
+        });
+    }
+
+    @Override
+    public void getPaymentStatus(PaymentStatusRequest request, StreamObserver<PaymentStatusResponse> responseObserver) {
+        unary(responseObserver, () -> {
+            require(!request.getPaymentId().isBlank(), "Payment ID is required");
+            return GrpcMessages.toProto(paymentService.getPaymentStatus(request.getPaymentId()));
+        });
+    }
+
+    @Override
+    public void watchPaymentStatus(PaymentStatusRequest request, StreamObserver<PaymentStatusResponse> responseObserver) {
+        if (request.getPaymentId().isBlank()) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("Payment ID is required").asRuntimeException());
+            return;
+        }
+        if (activeWatches.incrementAndGet() > maxWatches) {
+            activeWatches.decrementAndGet();
+            responseObserver.onError(Status.RESOURCE_EXHAUSTED
+                    .withDescription("Too many status watches open, poll GetPaymentStatus instead").asRuntimeException());
+            return;
+        }
+        new StatusWatch(request.getPaymentId(), (ServerCallStreamObserver<PaymentStatusResponse>) responseObserver).start();
+    }
+
+    int getActiveWatches() {
+        return activeWatches.get();
+    }
+
+    void shutdown() {
+        watchScheduler.shutdownNow();
+    }
+
+    /**
+     * Polls the lightweight version projection and only loads and sends the full status when
+     * status or updatedAt moved. A change seen while the client is not ready is held back and
+     * picked up again on the next poll, so a slow consumer gets the latest state rather than a
+     * growing backlog.
+     */
+    private final class StatusWatch implements Runnable {
+        private final String paymentId;
+        private final ServerCallStreamObserver<PaymentStatusResponse> observer;
+        private final Map<String, String> logContext = MDC.getCopyOfContextMap();
+        private final long deadline = System.nanoTime() + watchTimeoutNanos;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile ScheduledFuture<?> future;
+        private PaymentVersion lastSent;
+
+        private StatusWatch(String paymentId, ServerCallStreamObserver<PaymentStatusResponse> observer) {
+            this.paymentId = paymentId;
+            this.observer = observer;
+        }
+
+        private void start() {
+            observer.setOnCancelHandler(this::stop);
+            future = watchScheduler.scheduleWithFixedDelay(this, 0, watchIntervalMs, TimeUnit.MILLISECONDS);
+            if (done.get()) {
+                future.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (done.get()) {
+                return;
+            }
+            if (logContext != null) {
+                MDC.setContextMap(logContext);
+            }
+            try {
+                poll();
+            } catch (RuntimeException e) {
+                finish(() -> observer.onError(toStatus(e)));
+            } finally {
+                LogContext.clear();
+            }
+        }
+
+        private void poll() {
+            PaymentVersion version = paymentService.getPaymentVersion(paymentId).orElse(null);
+            if (version == null) {
+                finish(() -> observer.onError(Status.NOT_FOUND
+                        .withDescription("Payment not found: " + paymentId).asRuntimeException()));
+                return;
+            }
+            if (changed(version) && observer.isReady()) {
+                PaymentStatusResponseDto status = paymentService.getStoredPaymentStatus(paymentId);
+                observer.onNext(GrpcMessages.toProto(status));
+                lastSent = version;
+            }
+            if (lastSent != null && lastSent.getStatus().isTerminal()) {
+                finish(observer::onCompleted);
+            } else if (System.nanoTime() - deadline > 0) {
+                finish(() -> observer.onError(Status.DEADLINE_EXCEEDED
+                        .withDescription("Watch timed out for payment: " + paymentId).asRuntimeException()));
+            }
+        }
+
+        private boolean changed(PaymentVersion version) {
+            if (lastSent == null) {
+                return true;
+            }
+            LocalDateTime sentAt = lastSent.getUpdatedAt();
+            return lastSent.getStatus() != version.getStatus() || !Objects.equals(sentAt, version.getUpdatedAt());
+        }
+
+        private void finish(Runnable terminal) {
+            stop();
+            terminal.run();
+        }
+
+        // Runs from both the cancel handler and finish; only the first frees the watch's slot
+        private void stop() {
+            if (done.compareAndSet(false, true)) {
+                activeWatches.decrementAndGet();
+            }
+            ScheduledFuture<?> scheduled = future;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+
+    private <T> void unary(StreamObserver<T> responseObserver, Supplier<T> call) {
+        T response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e));
+            return;
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    private static String gatewayType(GatewayType gatewayType) {
+        return gatewayType == GatewayType.STRIPE ? PaymentConstants.GATEWAY_STRIPE : PaymentConstants.GATEWAY_RAZORPAY;
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) {
+            throw Status.INVALID_ARGUMENT.withDescription(message).asRuntimeException();
+        }
+    }
+
+    private static StatusRuntimeException toStatus(RuntimeException e) {
+        if (e instanceof StatusRuntimeException statusException) {
+            return statusException;
+        }
+        Status status;
+        if (e instanceof PaymentNotFoundException) {
+            status = Status.NOT_FOUND;
+        } else if (e instanceof InvalidPaymentStateException) {
+            status = Status.FAILED_PRECONDITION;
+        } else if (e instanceof UnknownMerchantException || e instanceof IllegalArgumentException) {
+            status = Status.INVALID_ARGUMENT;
+        } else if (e instanceof OptimisticLockingFailureException) {
+            return Status.ABORTED.withDescription("The payment was updated concurrently, please retry").asRuntimeException();
+        } else if (e instanceof PaymentProcessingException) {
+            // Not UNAVAILABLE: client retry policies would replay initiate and refund calls on it
+            logger.error("Payment processing error: {}", e.getMessage(), e);
+            status = Status.INTERNAL;
+        } else {
+            logger.error("Unexpected error in gRPC call", e);
+            return Status.INTERNAL.withDescription("An unexpected error occurred").asRuntimeException();
+        }
+        return status.withDescription(e.getMessage()).asRuntimeException();
+    }
+}
@@ -0,0 +1,210 @@
+package com.PaymentService.paymentservice.journal;
+
+import com.PaymentService.paymentservice.models.Payment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journal of gateway side effects that the database doesn't know about yet. Each payment link
+ * creation writes its intent before the gateway call and each refund before its reservation,
+ * then the gateway's ids once the call returns, and a close once the result is committed or the
+ * operation failed. Whatever is still open
+ * when the process dies is handed to {@link JournalRecovery} on the next start.
+ *
+ * Journaling fails open: if the journal can't be written the payment goes ahead, the error is
+ * logged and counted, and the operation gets opId 0, which every other method ignores.
+ *
+ * A payment link intent holds the customer's phone number and email. Replaying the creation needs
+ * the original request, because Stripe rejects a reused idempotency key with different
+ * parameters, and a recovered payment row needs both. They stay in the journal's segment files,
+ * which only the service's user can read, while the operation is open and for at most
+ * max-segment-age-ms after it closes. At that point the segment is rolled, and the new one only
+ * carries the operations that are still open.
+ */
+@Component
+@EnableConfigurationProperties(JournalProperties.class)
+public class GatewayJournal {
+    private static final Logger logger = LoggerFactory.getLogger(GatewayJournal.class);
+    private static final String PAYMENT_LINK = "PAYMENT_LINK";
+    private static final String REFUND = "REFUND";
+
+    private final MappedJournal journal;
+    private final ScheduledExecutorService forceScheduler;
+    private final long maxSegmentAgeNanos;
+    private final Counter errors;
+
+    public GatewayJournal(JournalProperties properties, MeterRegistry meterRegistry) {
+        this.errors = Counter.builder("payment.journal.errors")
+                .description("Journal writes that failed; the payment went ahead unjournaled")
+                .register(meterRegistry);
+        this.maxSegmentAgeNanos = TimeUnit.MILLISECONDS.toNanos(properties.getMaxSegmentAgeMs());
+        if (!properties.isEnabled()) {
+            this.journal = null;
+            this.forceScheduler = null;
+            return;
+        }
+        this.journal = new MappedJournal(Path.of(properties.getDirectory()), properties.getSegmentSizeBytes());
+        Gauge.builder("payment.journal.open", journal, MappedJournal::openOperations)
+                .description("Gateway operations whose result is not yet committed to the database")
+                .register(meterRegistry);
+        this.forceScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("journal-force").daemon().factory());
+        forceScheduler.scheduleWithFixedDelay(this::force, properties.getForceIntervalMs(),
+                properties.getForceIntervalMs(), TimeUnit.MILLISECONDS);
+        logger.info("Payment journal opened in {} with {} operations left open by the previous run",
+                properties.getDirectory(), journal.recovered().size());
+    }
+
+    public long paymentLinkIntent(String orderId, Long amount, String phoneNumber, String email,
+                                  Payment.PaymentGatewayType gatewayType, String merchantId) {
+        return intent(PAYMENT_LINK, orderId, String.valueOf(amount), phoneNumber, email, gatewayType.name(), merchantId);
+    }
+
+    public void paymentLinkOutcome(long opId, Map<String, String> gatewayResponse) {
+        outcome(opId, gatewayResponse.get("paymentLinkId"), gatewayResponse.get("paymentLinkUrl"));
+    }
+
+    // Written before the refund is reserved, so every reservation a crash can leave behind has an open intent
+    public long refundIntent(String idempotencyKey, String paymentId) {
+        return intent(REFUND, idempotencyKey, paymentId);
+    }
+
+    public void refundOutcome(long opId, Map<String, String> gatewayResponse) {
+        outcome(opId, gatewayResponse.get("refundId"), gatewayResponse.get("status"));
+    }
+
+    public void close(long opId) {
+        if (opId == 0) {
+            return;
+        }
+        append(JournalRecord.close(opId));
+    }
+
+    // After the surrounding transaction commits; left open on rollback, so recovery can still persist the outcome
+    public void closeAfterCommit(long opId) {
+        if (opId == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    close(opId);
+                }
+            });
+        } else {
+            close(opId);
+        }
+    }
+
+    public List<PendingPaymentLink> pendingPaymentLinks() {
+        List<PendingPaymentLink> pending = new ArrayList<>();
+        if (journal == null) {
+            return pending;
+        }
+        journal.recovered().forEach((opId, records) -> {
+            List<String> intent = records.get(0).fields();
+            if (PAYMENT_LINK.equals(intent.get(0))) {
+                List<String> outcome = outcomeFields(records, 2);
+                pending.add(new PendingPaymentLink(opId, intent.get(1), Long.valueOf(intent.get(2)), intent.get(3),
+                        intent.get(4), Payment.PaymentGatewayType.valueOf(intent.get(5)), intent.get(6),
+                        outcome.get(0), outcome.get(1)));
+            }
+        });
+        return pending;
+    }
+
+    public List<PendingRefund> pendingRefunds() {
+        List<PendingRefund> pending = new ArrayList<>();
+        if (journal == null) {
+            return pending;
+        }
+        journal.recovered().forEach((opId, records) -> {
+            List<String> intent = records.get(0).fields();
+            if (REFUND.equals(intent.get(0))) {
+                List<String> outcome = outcomeFields(records, 2);
+                pending.add(new PendingRefund(opId, intent.get(1), intent.get(2), outcome.get(0), outcome.get(1)));
+            }
+        });
+        return pending;
+    }
+
+    public void force() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.rollIfOlderThan(maxSegmentAgeNanos);
+            journal.force();
+        } catch (RuntimeException e) {
+            errors.increment();
+            logger.error("Failed to force payment journal", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (journal == null) {
+            return;
+        }
+        forceScheduler.shutdown();
+        journal.close();
+    }
+
+    private long intent(String... fields) {
+        if (journal == null) {
+            return 0;
+        }
+        try {
+            long opId = journal.nextOpId();
+            journal.append(JournalRecord.intent(opId, Arrays.asList(fields)));
+            return opId;
+        } catch (RuntimeException e) {
+            errors.increment();
+            logger.error("Failed to journal {} intent", fields[0], e);
+            return 0;
+        }
+    }
+
+    private void outcome(long opId, String... fields) {
+        if (opId == 0) {
+            return;
+        }
+        append(JournalRecord.outcome(opId, Arrays.asList(fields)));
+    }
+
+    private void append(JournalRecord record) {
+        try {
+            journal.append(record);
+        } catch (RuntimeException e) {
+            errors.increment();
+            logger.error("Failed to journal {} of operation {}", record.type(), record.opId(), e);
+        }
+    }
+
+    // The outcome's fields, or nulls when the gateway call never returned
+    private static List<String> outcomeFields(List<JournalRecord> records, int count) {
+        for (JournalRecord record : records) {
+            if (record.type() == JournalRecord.Type.OUTCOME) {
+                return record.fields();
+            }
+        }
+        return Arrays.asList(new String[count]);
+    }
+}
@@ -0,0 +1,19 @@
+package com.PaymentService.paymentservice.journal;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "payment.journal")
+public class JournalProperties {
+    private boolean enabled = true;
+    // Local disk of this node; must survive restarts of the process
+    private String directory = "data/journal";
+    private int segmentSizeBytes = 16 * 1024 * 1024;
+    // A machine crash loses at most this much of the journal; a process crash loses nothing
+    private long forceIntervalMs = 50;
+    // Closed operations, with the customer contact details of payment link intents, stay on disk at most this long
+    private long maxSegmentAgeMs = 10 * 60 * 1000;
+    // Resolve operations left open by a previous run before the node reports ready
+    private boolean recoverOnStartup = true;
+}
@@ -0,0 +1,75 @@
+package com.PaymentService.paymentservice.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One journal entry: an operation's intent, the gateway's outcome, or the close once the result
+ * is safely in the database (or the operation failed and left nothing behind). Fields are
+ * strings so the layout stays readable when inspecting a segment by hand.
+ */
+public record JournalRecord(Type type, long opId, List<String> fields) {
+
+    public enum Type {
+        INTENT, OUTCOME, CLOSE
+    }
+
+    private static final Type[] TYPES = Type.values();
+
+    public static JournalRecord intent(long opId, List<String> fields) {
+        return new JournalRecord(Type.INTENT, opId, fields);
+    }
+
+    public static JournalRecord outcome(long opId, List<String> fields) {
+        return new JournalRecord(Type.OUTCOME, opId, fields);
+    }
+
+    public static JournalRecord close(long opId) {
+        return new JournalRecord(Type.CLOSE, opId, Collections.emptyList());
+    }
+
+    // type, opId, field count, then each field as a length-prefixed UTF-8 string (-1 for null)
+    byte[] encode() {
+        byte[][] encoded = new byte[fields.size()][];
+        int size = 1 + Long.BYTES + Short.BYTES;
+        for (int i = 0; i < encoded.length; i++) {
+            String field = fields.get(i);
+            encoded[i] = field != null ? field.getBytes(StandardCharsets.UTF_8) : null;
+            size += Integer.BYTES + (encoded[i] != null ? encoded[i].length : 0);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put((byte) type.ordinal());
+        buffer.putLong(opId);
+        buffer.putShort((short) encoded.length);
+        for (byte[] field : encoded) {
+            if (field == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(field.length);
+                buffer.put(field);
+            }
+        }
+        return buffer.array();
+    }
+
+    static JournalRecord decode(ByteBuffer buffer) {
+        Type type = TYPES[buffer.get()];
+        long opId = buffer.getLong();
+        int count = buffer.getShort();
+        List<String> fields = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = buffer.getInt();
+            if (length < 0) {
+                fields.add(null);
+            } else {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                fields.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+        }
+        return new JournalRecord(type, opId, fields);
+    }
+}
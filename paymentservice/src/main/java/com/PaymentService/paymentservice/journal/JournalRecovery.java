@@ -0,0 +1,69 @@
+package com.PaymentService.paymentservice.journal;
+
+import com.PaymentService.paymentservice.services.PaymentService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the gateway operations a previous run left open, before the node reports ready.
+ * Each one is checked against the database and, where needed, the gateway, then closed. One
+ * that fails stays open in the journal and is tried again on the next start.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "payment.journal.recover-on-startup", havingValue = "true", matchIfMissing = true)
+public class JournalRecovery implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(JournalRecovery.class);
+
+    private final GatewayJournal gatewayJournal;
+    private final PaymentService paymentService;
+    private final MeterRegistry meterRegistry;
+
+    public JournalRecovery(GatewayJournal gatewayJournal, PaymentService paymentService, MeterRegistry meterRegistry) {
+        this.gatewayJournal = gatewayJournal;
+        this.paymentService = paymentService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (PendingPaymentLink pending : gatewayJournal.pendingPaymentLinks()) {
+            try {
+                boolean stored = paymentService.recoverPaymentLink(pending.orderId(), pending);
+                gatewayJournal.close(pending.opId());
+                count("payment_link", stored ? "recovered" : "already_resolved");
+            } catch (RuntimeException e) {
+                count("payment_link", "failed");
+                logger.error("Could not recover payment link for orderId: {}", pending.orderId(), e);
+            }
+        }
+        for (PendingRefund pending : gatewayJournal.pendingRefunds()) {
+            try {
+                boolean settled = paymentService.recoverRefund(pending.paymentId(), pending);
+                gatewayJournal.close(pending.opId());
+                count("refund", settled ? "recovered" : "already_resolved");
+            } catch (RuntimeException e) {
+                count("refund", "failed");
+                logger.error("Could not recover refund {} of paymentId: {}", pending.idempotencyKey(), pending.paymentId(), e);
+            }
+        }
+        gatewayJournal.force();
+    }
+
+    private void count(String operation, String result) {
+        Counter.builder("payment.journal.recovered")
+                .description("Gateway operations left open by a previous run, by how they were resolved")
+                .tag("operation", operation)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
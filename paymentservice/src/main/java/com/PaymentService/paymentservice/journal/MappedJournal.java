@@ -0,0 +1,318 @@
+package com.PaymentService.paymentservice.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal in fixed-size memory-mapped segment files. An append is a copy into the
+ * mapping under a short lock; the page cache makes it survive a process crash, and force(),
+ * called periodically, makes it survive a machine crash.
+ *
+ * Records of operations that are still open are also kept in memory and copied to the front of
+ * every new segment, so the previous segment holds nothing that is still needed and is deleted
+ * as soon as the new one is forced. The journal therefore never takes more than one segment on
+ * disk, plus the one being replaced during a roll. A segment is also rolled once it is older than
+ * a maximum age, so closed records don't stay on disk indefinitely when traffic is low. Segment
+ * files are readable by their owner only.
+ *
+ * Each record is [length][crc32c][payload]. The length is written last, and a reader stops at
+ * the first zero length or bad checksum, which is where a crash cut the segment off.
+ */
+public class MappedJournal implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(MappedJournal.class);
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int MAGIC = 0x504a524e;
+    private static final int VERSION = 1;
+    private static final int SEGMENT_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MIN_SEGMENT_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Encoded intent and outcome records of every open operation, in append order
+    private final Map<Long, List<byte[]>> openRecords = new LinkedHashMap<>();
+    private final Map<Long, List<JournalRecord>> recovered;
+
+    private long nextOpId;
+    private long segmentSequence;
+    private Path segmentPath;
+    private volatile MappedByteBuffer segment;
+    private volatile int forcedPosition;
+    private long segmentOpenedNanos;
+    private boolean appendedSinceRoll;
+
+    public MappedJournal(Path directory, int segmentSize) {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Journal segments must be at least " + MIN_SEGMENT_SIZE + " bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+            List<Path> previousSegments = listSegments();
+            this.recovered = replay(previousSegments);
+            for (Map.Entry<Long, List<JournalRecord>> entry : recovered.entrySet()) {
+                List<byte[]> encoded = new ArrayList<>();
+                for (JournalRecord record : entry.getValue()) {
+                    encoded.add(record.encode());
+                }
+                openRecords.put(entry.getKey(), encoded);
+            }
+            lock.lock();
+            try {
+                roll();
+            } finally {
+                lock.unlock();
+            }
+            // roll() only removes the segment it replaces; older ones are left from the previous run
+            for (Path previous : previousSegments) {
+                Files.deleteIfExists(previous);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open payment journal in " + directory, e);
+        }
+    }
+
+    public long nextOpId() {
+        lock.lock();
+        try {
+            return nextOpId++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void append(JournalRecord record) {
+        byte[] payload = record.encode();
+        if (RECORD_HEADER_SIZE + payload.length > segmentSize - SEGMENT_HEADER_SIZE) {
+            throw new IllegalArgumentException("Journal record of " + payload.length + " bytes exceeds the segment size");
+        }
+        lock.lock();
+        try {
+            if (segment.remaining() < RECORD_HEADER_SIZE + payload.length) {
+                roll();
+                if (segment.remaining() < RECORD_HEADER_SIZE + payload.length) {
+                    throw new IOException("Open journal operations leave no room for the next record in a segment of "
+                            + segmentSize + " bytes");
+                }
+            }
+            write(payload);
+            appendedSinceRoll = true;
+            switch (record.type()) {
+                case INTENT -> openRecords.computeIfAbsent(record.opId(), id -> new ArrayList<>(2)).add(payload);
+                case OUTCOME -> {
+                    List<byte[]> records = openRecords.get(record.opId());
+                    if (records != null) {
+                        records.add(payload);
+                    }
+                }
+                case CLOSE -> openRecords.remove(record.opId());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll payment journal segment", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Rolls the segment if anything was appended to it and it is older than the given age
+    public void rollIfOlderThan(long maxAgeNanos) {
+        lock.lock();
+        try {
+            if (appendedSinceRoll && System.nanoTime() - segmentOpenedNanos >= maxAgeNanos) {
+                roll();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll payment journal segment", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Flushes what was appended since the last call to the storage device
+    public void force() {
+        MappedByteBuffer current;
+        int from;
+        int to;
+        lock.lock();
+        try {
+            current = segment;
+            from = forcedPosition;
+            to = current.position();
+        } finally {
+            lock.unlock();
+        }
+        if (to > from) {
+            current.force(from, to - from);
+            if (current == segment) {
+                forcedPosition = Math.max(forcedPosition, to);
+            }
+        }
+    }
+
+    // Records of operations that were open when the journal was opened, keyed by opId
+    public Map<Long, List<JournalRecord>> recovered() {
+        return recovered;
+    }
+
+    public int openOperations() {
+        lock.lock();
+        try {
+            return openRecords.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    private void write(byte[] payload) {
+        int position = segment.position();
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        segment.put(position + RECORD_HEADER_SIZE, payload);
+        segment.putInt(position + Integer.BYTES, (int) crc.getValue());
+        segment.putInt(position, payload.length);
+        segment.position(position + RECORD_HEADER_SIZE + payload.length);
+    }
+
+    // Starts the next segment with the open operations copied in, forces it, then drops the old one
+    private void roll() throws IOException {
+        Path previous = segmentPath;
+        segmentSequence++;
+        segmentPath = directory.resolve(SEGMENT_PREFIX + String.format("%019d", segmentSequence) + SEGMENT_SUFFIX);
+        MappedByteBuffer next;
+        try (FileChannel channel = FileChannel.open(segmentPath, Set.of(StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE), ownerOnly())) {
+            next = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        next.putInt(MAGIC);
+        next.putInt(VERSION);
+        segment = next;
+        for (List<byte[]> records : openRecords.values()) {
+            for (byte[] payload : records) {
+                if (segment.remaining() < RECORD_HEADER_SIZE + payload.length) {
+                    throw new IOException("Open journal operations no longer fit in one segment of " + segmentSize + " bytes");
+                }
+                write(payload);
+            }
+        }
+        segment.force();
+        forcedPosition = segment.position();
+        segmentOpenedNanos = System.nanoTime();
+        appendedSinceRoll = false;
+        if (previous != null) {
+            Files.deleteIfExists(previous);
+        }
+        logger.debug("Payment journal rolled to {} with {} open operations", segmentPath, openRecords.size());
+    }
+
+    private Map<Long, List<JournalRecord>> replay(List<Path> segments) throws IOException {
+        Map<Long, List<JournalRecord>> open = new LinkedHashMap<>();
+        long maxOpId = 0;
+        for (Path path : segments) {
+            segmentSequence = Math.max(segmentSequence, sequenceOf(path));
+            ByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (buffer.remaining() < SEGMENT_HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                logger.warn("Skipping unreadable payment journal segment {}", path);
+                continue;
+            }
+            int records = 0;
+            while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+                int position = buffer.position();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(position + RECORD_HEADER_SIZE, length);
+                CRC32C crc = new CRC32C();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    logger.warn("Payment journal segment {} ends in a torn record at offset {}", path, position);
+                    break;
+                }
+                JournalRecord record;
+                try {
+                    record = JournalRecord.decode(payload);
+                } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                    logger.warn("Payment journal segment {} has an undecodable record at offset {}", path, position);
+                    break;
+                }
+                buffer.position(position + RECORD_HEADER_SIZE + length);
+                maxOpId = Math.max(maxOpId, record.opId());
+                switch (record.type()) {
+                    // A crash during a roll leaves both segments; the newer one starts again from the copied intent
+                    case INTENT -> {
+                        List<JournalRecord> operation = new ArrayList<>(2);
+                        operation.add(record);
+                        open.put(record.opId(), operation);
+                    }
+                    case OUTCOME -> {
+                        List<JournalRecord> operation = open.get(record.opId());
+                        if (operation != null) {
+                            operation.add(record);
+                        }
+                    }
+                    case CLOSE -> open.remove(record.opId());
+                }
+                records++;
+            }
+            logger.debug("Replayed {} records from payment journal segment {}", records, path);
+        }
+        nextOpId = maxOpId + 1;
+        return open;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private FileAttribute<?>[] ownerOnly() {
+        if (!directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return new FileAttribute<?>[0];
+        }
+        return new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"))};
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
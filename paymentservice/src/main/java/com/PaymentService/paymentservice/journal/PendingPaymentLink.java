@@ -0,0 +1,13 @@
+package com.PaymentService.paymentservice.journal;
+
+import com.PaymentService.paymentservice.models.Payment;
+
+// A payment link creation left open by a previous run; link id and url are null without an outcome
+public record PendingPaymentLink(long opId, String orderId, Long amount, String phoneNumber, String email,
+                                 Payment.PaymentGatewayType gatewayType, String merchantId,
+                                 String paymentLinkId, String paymentLinkUrl) {
+
+    public boolean hasOutcome() {
+        return paymentLinkId != null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.PaymentService.paymentservice.journal;
+
+// A refund left open by a previous run, found by the idempotency key its reservation was made with;
+// the gateway fields are null without an outcome
+public record PendingRefund(long opId, String idempotencyKey, String paymentId,
+                            String gatewayRefundId, String gatewayStatus) {
+
+    public boolean hasOutcome() {
+        return gatewayRefundId != null;
+    }
+}
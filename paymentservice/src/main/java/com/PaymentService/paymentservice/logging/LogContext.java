@@ -0,0 +1,54 @@
+package com.PaymentService.paymentservice.logging;
+
+import com.PaymentService.paymentservice.models.Payment;
+import org.slf4j.MDC;
+
+/**
+ * MDC keys carried by every log line of a request. The request id is bound by
+ * {@link RequestIdFilter} (or the gRPC interceptor); the payment fields are added by the service
+ * once they are known and cleared by whichever bound the request id when the request ends.
+ */
+public final class LogContext {
+    public static final String REQUEST_ID = "requestId";
+    public static final String ORDER_ID = "orderId";
+    public static final String GATEWAY = "gateway";
+    public static final String MERCHANT_ID = "merchantId";
+
+    private LogContext() {
+    }
+
+    public static void requestId(String requestId) {
+        MDC.put(REQUEST_ID, requestId);
+    }
+
+    public static void orderId(String orderId) {
+        if (orderId != null) {
+            MDC.put(ORDER_ID, orderId);
+        }
+    }
+
+    public static void gateway(Object gateway) {
+        if (gateway != null) {
+            MDC.put(GATEWAY, gateway.toString().toUpperCase());
+        }
+    }
+
+    public static void merchantId(String merchantId) {
+        if (merchantId != null) {
+            MDC.put(MERCHANT_ID, merchantId);
+        }
+    }
+
+    public static void payment(Payment payment) {
+        orderId(payment.getOrderId());
+        gateway(payment.getGatewayType());
+        merchantId(payment.getMerchantId());
+    }
+
+    public static void clear() {
+        MDC.remove(REQUEST_ID);
+        MDC.remove(ORDER_ID);
+        MDC.remove(GATEWAY);
+        MDC.remove(MERCHANT_ID);
+    }
+}
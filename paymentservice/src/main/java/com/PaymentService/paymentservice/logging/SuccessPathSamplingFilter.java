@@ -0,0 +1,55 @@
+package com.PaymentService.paymentservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logback turbo filter that keeps only a fraction of INFO events from the configured logger
+ * prefixes. WARN and ERROR, and anything logged with a throwable, always pass. The decision is
+ * derived from the request id, so a sampled request keeps all of its lines and a dropped one
+ * loses all of them. Configured in logback-spring.xml.
+ */
+public class SuccessPathSamplingFilter extends TurboFilter {
+    private String[] loggerPrefixes = new String[0];
+    private int threshold = 1 << 24;
+
+    public void setLoggerPrefixes(String loggerPrefixes) {
+        this.loggerPrefixes = loggerPrefixes.trim().split("\\s*,\\s*");
+    }
+
+    public void setRate(double rate) {
+        this.threshold = (int) Math.round(Math.max(0.0, Math.min(1.0, rate)) * (1 << 24));
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level != Level.INFO || t != null || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return sample() < threshold ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean matches(String loggerName) {
+        for (String prefix : loggerPrefixes) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Uniform value in [0, 2^24)
+    private static int sample() {
+        String requestId = MDC.get(LogContext.REQUEST_ID);
+        if (requestId == null) {
+            return ThreadLocalRandom.current().nextInt(1 << 24);
+        }
+        return (requestId.hashCode() * 0x9E3779B9) >>> 8;
+    }
+}
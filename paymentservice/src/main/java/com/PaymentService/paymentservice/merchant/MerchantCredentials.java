@@ -0,0 +1,21 @@
+package com.PaymentService.paymentservice.merchant;
+
+import org.springframework.util.StringUtils;
+
+public record MerchantCredentials(String merchantId, String razorpayKeyId, String razorpayKeySecret,
+                                  String stripeSecretKey) {
+
+    public boolean hasRazorpay() {
+        return StringUtils.hasText(razorpayKeyId) && StringUtils.hasText(razorpayKeySecret);
+    }
+
+    public boolean hasStripe() {
+        return StringUtils.hasText(stripeSecretKey);
+    }
+
+    // Keeps secrets out of logs and exception messages
+    @Override
+    public String toString() {
+        return "MerchantCredentials[merchantId=" + merchantId + "]";
+    }
+}
@@ -0,0 +1,35 @@
+package com.PaymentService.paymentservice.merchant;
+
+import com.PaymentService.paymentservice.exceptions.UnknownMerchantException;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Looks up the gateway credentials of a marketplace merchant. A merchant without an account is
+ * rejected rather than served with the platform credentials.
+ */
+@Component
+@EnableConfigurationProperties(MerchantProperties.class)
+public class MerchantCredentialsResolver {
+    private final MerchantProperties properties;
+
+    public MerchantCredentialsResolver(MerchantProperties properties) {
+        this.properties = properties;
+    }
+
+    public MerchantCredentials resolve(String merchantId) {
+        MerchantProperties.Account account = properties.getAccounts().get(merchantId);
+        if (account == null) {
+            throw new UnknownMerchantException("Unknown merchant: " + merchantId);
+        }
+        return new MerchantCredentials(merchantId, account.getRazorpayKeyId(), account.getRazorpayKeySecret(),
+                account.getStripeSecretKey());
+    }
+
+    public Collection<String> merchantIds() {
+        return List.copyOf(properties.getAccounts().keySet());
+    }
+}
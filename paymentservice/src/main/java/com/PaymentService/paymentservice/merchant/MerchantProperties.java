@@ -0,0 +1,24 @@
+package com.PaymentService.paymentservice.merchant;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "payment.merchants")
+public class MerchantProperties {
+    // Upper bound on merchants with live gateway clients; the least recently used are dropped
+    private int clientCacheSize = 1000;
+    // Build clients for the configured merchants after startup, up to the cache size
+    private boolean prewarm = true;
+    private Map<String, Account> accounts = new LinkedHashMap<>();
+
+    @Data
+    public static class Account {
+        private String razorpayKeyId;
+        private String razorpayKeySecret;
+        private String stripeSecretKey;
+    }
+}
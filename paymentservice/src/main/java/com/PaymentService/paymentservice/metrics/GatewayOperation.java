@@ -0,0 +1,19 @@
+package com.PaymentService.paymentservice.metrics;
+
+public enum GatewayOperation {
+    GENERATE_PAYMENT_LINK("generate_payment_link"),
+    VERIFY_PAYMENT("verify_payment"),
+    REFUND_PAYMENT("refund_payment"),
+    GET_PAYMENT_STATUS("get_payment_status"),
+    LIST_PAYMENTS("list_payments");
+
+    private final String tagValue;
+
+    GatewayOperation(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    public String getTagValue() {
+        return tagValue;
+    }
+}
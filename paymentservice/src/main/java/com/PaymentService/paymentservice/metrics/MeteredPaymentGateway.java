@@ -0,0 +1,151 @@
+package com.PaymentService.paymentservice.metrics;
+
+import com.PaymentService.paymentservice.paymentgateway.GatewayPaymentPage;
+import com.PaymentService.paymentservice.paymentgateway.PaymentGateway;
+import com.PaymentService.paymentservice.timing.RequestPhase;
+import com.PaymentService.paymentservice.timing.RequestTimings;
+import com.razorpay.RazorpayException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorates a {@link PaymentGateway} with a latency timer per operation and outcome, and attributes
+ * the call to the gateway phase of the current request. Timers are resolved once up front so the
+ * hot path only pays for the nanoTime calls.
+ */
+public class MeteredPaymentGateway implements PaymentGateway {
+    static final String TIMER_NAME = "payment.gateway.requests";
+
+    private final PaymentGateway delegate;
+    private final Timer[] successTimers;
+    private final Timer[] errorTimers;
+
+    public MeteredPaymentGateway(PaymentGateway delegate, String gatewayName, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        GatewayOperation[] operations = GatewayOperation.values();
+        this.successTimers = new Timer[operations.length];
+        this.errorTimers = new Timer[operations.length];
+        for (GatewayOperation operation : operations) {
+            successTimers[operation.ordinal()] = timer(meterRegistry, gatewayName, operation, "success");
+            errorTimers[operation.ordinal()] = timer(meterRegistry, gatewayName, operation, "error");
+        }
+    }
+
+    @Override
+    public Map<String, String> generatePaymentLink(String orderId, Long amount, String phoneNumber, String email) throws RazorpayException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Map<String, String> response = delegate.generatePaymentLink(orderId, amount, phoneNumber, email);
+            success = true;
+            return response;
+        } finally {
+            record(GatewayOperation.GENERATE_PAYMENT_LINK, start, success);
+        }
+    }
+
+    @Override
+    public Map<String, String> generatePaymentLink(String orderId, Long amount, String phoneNumber, String email,
+                                                   String idempotencyKey) throws RazorpayException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Map<String, String> response = delegate.generatePaymentLink(orderId, amount, phoneNumber, email, idempotencyKey);
+            success = true;
+            return response;
+        } finally {
+            record(GatewayOperation.GENERATE_PAYMENT_LINK, start, success);
+        }
+    }
+
+    @Override
+    public Map<String, String> verifyPayment(String paymentId) throws RazorpayException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Map<String, String> response = delegate.verifyPayment(paymentId);
+            success = true;
+            return response;
+        } finally {
+            record(GatewayOperation.VERIFY_PAYMENT, start, success);
+        }
+    }
+
+    @Override
+    public Map<String, String> refundPayment(String paymentId, Long amount) throws RazorpayException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Map<String, String> response = delegate.refundPayment(paymentId, amount);
+            success = true;
+            return response;
+        } finally {
+            record(GatewayOperation.REFUND_PAYMENT, start, success);
+        }
+    }
+
+    @Override
+    public Map<String, String> refundPayment(String paymentId, Long amount, String idempotencyKey) throws RazorpayException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Map<String, String> response = delegate.refundPayment(paymentId, amount, idempotencyKey);
+            success = true;
+            return response;
+        } finally {
+            record(GatewayOperation.REFUND_PAYMENT, start, success);
+        }
+    }
+
+    @Override
+    public Map<String, String> getPaymentStatus(String paymentId) throws RazorpayException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Map<String, String> response = delegate.getPaymentStatus(paymentId);
+            success = true;
+            return response;
+        } finally {
+            record(GatewayOperation.GET_PAYMENT_STATUS, start, success);
+        }
+    }
+
+    @Override
+    public GatewayPaymentPage listPayments(Instant from, Instant to, String pageToken, int pageSize) throws RazorpayException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            GatewayPaymentPage page = delegate.listPayments(from, to, pageToken, pageSize);
+            success = true;
+            return page;
+        } finally {
+            record(GatewayOperation.LIST_PAYMENTS, start, success);
+        }
+    }
+
+    @Override
+    public boolean supportsIdempotencyKeys() {
+        return delegate.supportsIdempotencyKeys();
+    }
+
+    private void record(GatewayOperation operation, long start, boolean success) {
+        long elapsed = System.nanoTime() - start;
+        Timer timer = success ? successTimers[operation.ordinal()] : errorTimers[operation.ordinal()];
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+        RequestTimings.record(RequestPhase.GATEWAY, elapsed);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String gatewayName, GatewayOperation operation, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .description("Latency of payment gateway API calls")
+                .tag("gateway", gatewayName)
+                .tag("operation", operation.getTagValue())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,15 @@
+package com.PaymentService.paymentservice.metrics;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Safety net against unbounded cardinality: identifiers must never become tag values
+    @Bean
+    public MeterFilter identifierTagFilter() {
+        return MeterFilter.ignoreTags("paymentId", "orderId", "paymentLinkId", "refundId");
+    }
+}
@@ -0,0 +1,57 @@
+package com.PaymentService.paymentservice.metrics;
+
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.paymentgateway.PaymentGateway;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Entry point for the service's own meters. Tags are limited to enum values (gateway, operation,
+ * outcome, status) so ids never end up as tags.
+ */
+@Component
+public class PaymentMetrics {
+    private static final String NO_STATUS = "NONE";
+
+    private final MeterRegistry meterRegistry;
+
+    public PaymentMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public PaymentGateway instrument(Payment.PaymentGatewayType gatewayType, PaymentGateway gateway) {
+        return new MeteredPaymentGateway(gateway, gatewayType.name().toLowerCase(), meterRegistry);
+    }
+
+    // Counted once the surrounding transaction commits, so rolled back changes are not reported
+    public void recordStatusTransition(Payment.PaymentGatewayType gatewayType,
+                                       Payment.PaymentStatus from, Payment.PaymentStatus to) {
+        if (from == to) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    incrementTransition(gatewayType, from, to);
+                }
+            });
+        } else {
+            incrementTransition(gatewayType, from, to);
+        }
+    }
+
+    private void incrementTransition(Payment.PaymentGatewayType gatewayType,
+                                     Payment.PaymentStatus from, Payment.PaymentStatus to) {
+        Counter.builder("payment.status.transitions")
+                .description("Payment status changes persisted by the service")
+                .tag("gateway", gatewayType != null ? gatewayType.name() : "UNKNOWN")
+                .tag("from", from != null ? from.name() : NO_STATUS)
+                .tag("to", to.name())
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -6,7 +6,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 
@@ -27,21 +29,33 @@ public class Payment {
     @Column(nullable = false)
     private Long amount;
 
+    // Sum of refunds reserved or completed; only changed through the guarded updates in PaymentRepository,
+    // never written back from an entity that may have been read before a reservation
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private Long refundedAmount = 0L;
+
     @Column(nullable = false)
     private String currency;
 
+    // Marketplace seller whose gateway account the payment was taken on; null for the platform account
+    @Column(length = 64)
+    private String merchantId;
+
     @Column(nullable = false)
     private String phoneNumber;
 
     @Column(nullable = false)
     private String email;
 
-    @Column(nullable = false)
+    @Column(nullable = false, length = 32)
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     private PaymentStatus status;
 
-    @Column(nullable = false)
+    @Column(nullable = false, length = 32)
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     private PaymentGatewayType gatewayType;
 
     @Column(unique = true)
@@ -62,8 +76,23 @@ public class Payment {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    // Also bumped by the guarded refund updates, so a save of a row read before them fails instead of
+    // overwriting the status they imply
+    @Version
+    private Long version;
+
     public enum PaymentStatus {
-        PENDING, SUCCESS, FAILED, REFUNDED, CANCELLED
+        PENDING, SUCCESS, PARTIALLY_REFUNDED, FAILED, REFUNDED, CANCELLED;
+
+        // States a payment can no longer leave, so their representation never changes. FAILED is not one:
+        // a later successful attempt on the same link moves it to SUCCESS
+        public boolean isTerminal() {
+            return this == REFUNDED || this == CANCELLED;
+        }
+
+        public boolean isRefundable() {
+            return this == SUCCESS || this == PARTIALLY_REFUNDED;
+        }
     }
 
     public enum PaymentGatewayType {
@@ -0,0 +1,53 @@
+package com.PaymentService.paymentservice.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Hourly rollup row maintained by PaymentStatsService. Written with upserts through JDBC; mapped
+ * here so schema validation covers the table.
+ */
+@Entity
+@Table(name = "payment_stats_hourly")
+@IdClass(PaymentStatsHourly.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentStatsHourly {
+    @Id
+    private LocalDateTime bucketHour;
+
+    @Id
+    @Column(length = 32)
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private Payment.PaymentGatewayType gatewayType;
+
+    @Id
+    @Column(length = 32)
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private Payment.PaymentStatus status;
+
+    @Column(nullable = false)
+    private Long paymentCount;
+
+    @Column(nullable = false)
+    private Long amountSum;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDateTime bucketHour;
+        private Payment.PaymentGatewayType gatewayType;
+        private Payment.PaymentStatus status;
+    }
+}
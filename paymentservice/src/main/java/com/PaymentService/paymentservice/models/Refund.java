@@ -0,0 +1,66 @@
+package com.PaymentService.paymentservice.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "refunds")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Refund {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "payment_id", nullable = false)
+    @ToString.Exclude
+    private Payment payment;
+
+    @Column(nullable = false)
+    private Long amount;
+
+    // Sent to the gateway with every attempt of this refund. Refund ids repeat across shards, so a
+    // key built from them could collide with another payment's refund on the same gateway account
+    @Column(nullable = false, unique = true, updatable = false, length = 64)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private RefundStatus status;
+
+    @Column(unique = true)
+    private String gatewayRefundId;
+
+    @Column
+    private String gatewayStatus;
+
+    @Column
+    private String failureReason;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    public enum RefundStatus {
+        // Amount is reserved on the payment and the gateway call is in flight
+        PENDING,
+        SUCCEEDED,
+        FAILED
+    }
+}
@@ -0,0 +1,11 @@
+package com.PaymentService.paymentservice.paymentgateway;
+
+import java.util.List;
+
+// A page of listPayments; nextPageToken is null on the last page
+public record GatewayPaymentPage(List<GatewayPaymentRecord> records, String nextPageToken) {
+
+    public boolean hasMore() {
+        return nextPageToken != null;
+    }
+}
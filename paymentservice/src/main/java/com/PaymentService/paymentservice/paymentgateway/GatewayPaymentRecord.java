@@ -0,0 +1,10 @@
+package com.PaymentService.paymentservice.paymentgateway;
+
+/**
+ * One payment as reported by a gateway's list API. paymentLinkId is set where the gateway's own id
+ * is what this service stored at initiation (Stripe payment intents); orderId comes from the
+ * order_id note or metadata written at that time. Either may be null.
+ */
+public record GatewayPaymentRecord(String paymentId, String paymentLinkId, String orderId, String status,
+                                   long amountRefunded) {
+}
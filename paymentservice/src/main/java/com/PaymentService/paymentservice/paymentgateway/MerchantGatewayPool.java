@@ -0,0 +1,162 @@
+package com.PaymentService.paymentservice.paymentgateway;
+
+import com.PaymentService.paymentservice.configs.RazorpayClientFactory;
+import com.PaymentService.paymentservice.exceptions.UnknownMerchantException;
+import com.PaymentService.paymentservice.merchant.MerchantCredentials;
+import com.PaymentService.paymentservice.merchant.MerchantCredentialsResolver;
+import com.PaymentService.paymentservice.merchant.MerchantProperties;
+import com.PaymentService.paymentservice.metrics.PaymentMetrics;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.retry.GatewayRetries;
+import com.razorpay.RazorpayException;
+import com.stripe.net.RequestOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU of gateways bound to a merchant's own credentials: a RazorpayClient and Stripe
+ * RequestOptions built once per merchant instead of on every call. Entries are keyed by merchantId
+ * and only ever hold that merchant's credentials, so one merchant's traffic can't reach another's
+ * account or fall back to the platform account.
+ */
+@Component
+public class MerchantGatewayPool {
+    private static final Logger logger = LoggerFactory.getLogger(MerchantGatewayPool.class);
+    private static final String METRIC_NAME = "payment.merchant.gateway.cache";
+
+    private final MerchantCredentialsResolver credentialsResolver;
+    private final RazorpayClientFactory razorpayClientFactory;
+    private final PaymentMetrics paymentMetrics;
+    private final GatewayRetries gatewayRetries;
+    private final int maxSize;
+    private final boolean prewarm;
+    private final Map<String, MerchantGateways> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public MerchantGatewayPool(MerchantCredentialsResolver credentialsResolver, RazorpayClientFactory razorpayClientFactory,
+                               PaymentMetrics paymentMetrics, GatewayRetries gatewayRetries, MeterRegistry meterRegistry,
+                               MerchantProperties properties) {
+        this.credentialsResolver = credentialsResolver;
+        this.razorpayClientFactory = razorpayClientFactory;
+        this.paymentMetrics = paymentMetrics;
+        this.gatewayRetries = gatewayRetries;
+        this.maxSize = Math.max(1, properties.getClientCacheSize());
+        this.prewarm = properties.isPrewarm();
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.evictions = Counter.builder(METRIC_NAME + ".evictions")
+                .description("Merchant gateway clients dropped to stay within the cache size")
+                .register(meterRegistry);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MerchantGateways> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        Gauge.builder(METRIC_NAME + ".size", this, MerchantGatewayPool::size)
+                .description("Merchants with live gateway clients")
+                .register(meterRegistry);
+    }
+
+    public PaymentGateway getGateway(String merchantId, Payment.PaymentGatewayType gatewayType) {
+        MerchantGateways gateways;
+        synchronized (entries) {
+            gateways = entries.get(merchantId);
+        }
+        if (gateways != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            gateways = load(merchantId);
+        }
+        PaymentGateway gateway = gatewayType == Payment.PaymentGatewayType.STRIPE ? gateways.stripe() : gateways.razorpay();
+        if (gateway == null) {
+            throw new UnknownMerchantException("Merchant " + merchantId + " has no " + gatewayType + " account");
+        }
+        return gateway;
+    }
+
+    // Builds clients for the configured merchants, stopping once the cache is full
+    public void prewarm() {
+        if (!prewarm) {
+            return;
+        }
+        int warmed = 0;
+        for (String merchantId : credentialsResolver.merchantIds()) {
+            if (warmed >= maxSize) {
+                break;
+            }
+            try {
+                load(merchantId);
+                warmed++;
+            } catch (RuntimeException e) {
+                logger.warn("Failed to prewarm gateway clients for merchant {}", merchantId, e);
+            }
+        }
+        logger.info("Prewarmed gateway clients for {} merchants", warmed);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // Client construction stays outside the lock; if two threads race, the first entry stored wins
+    private MerchantGateways load(String merchantId) {
+        MerchantCredentials credentials = credentialsResolver.resolve(merchantId);
+        MerchantGateways built = build(credentials);
+        synchronized (entries) {
+            MerchantGateways existing = entries.putIfAbsent(merchantId, built);
+            return existing != null ? existing : built;
+        }
+    }
+
+    private MerchantGateways build(MerchantCredentials credentials) {
+        PaymentGateway razorpay = null;
+        if (credentials.hasRazorpay()) {
+            try {
+                razorpay = instrument(Payment.PaymentGatewayType.RAZORPAY, RazorpaymentGateway.forMerchant(
+                        razorpayClientFactory.create(credentials.razorpayKeyId(), credentials.razorpayKeySecret())));
+            } catch (RazorpayException e) {
+                throw new IllegalStateException("Unable to build Razorpay client for merchant " + credentials.merchantId(), e);
+            }
+        }
+        PaymentGateway stripe = null;
+        if (credentials.hasStripe()) {
+            RequestOptions requestOptions = RequestOptions.builder()
+                    .setApiKey(credentials.stripeSecretKey())
+                    .build();
+            stripe = instrument(Payment.PaymentGatewayType.STRIPE, StripePaymentGateway.forMerchant(requestOptions));
+        }
+        return new MerchantGateways(razorpay, stripe);
+    }
+
+    // Same decorator chain as the platform gateways in PaymentGatewayFactory
+    private PaymentGateway instrument(Payment.PaymentGatewayType gatewayType, PaymentGateway gateway) {
+        return gatewayRetries.wrap(gatewayType, paymentMetrics.instrument(gatewayType, gateway));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(METRIC_NAME + ".requests")
+                .description("Merchant gateway lookups by whether the merchant's clients were already built")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record MerchantGateways(PaymentGateway razorpay, PaymentGateway stripe) {
+    }
+}
@@ -1,15 +1,40 @@
-package com.PaymentService.paymentservice.paymentgateway;
-
-import com.razorpay.RazorpayException;
-
-import java.util.Map;
-
-public interface PaymentGateway {
-    Map<String, String> generatePaymentLink(String orderId, Long amount, String phoneNumber, String email) throws RazorpayException;
-    
-    Map<String, String> verifyPayment(String paymentId) throws RazorpayException;
-    
-    Map<String, String> refundPayment(String paymentId, Long amount) throws RazorpayException;
-    
-    Map<String, String> getPaymentStatus(String paymentId) throws RazorpayException;
-}
+package com.PaymentService.paymentservice.paymentgateway;
+
+import com.razorpay.RazorpayException;
+
+import java.time.Instant;
+import java.util.Map;
+
+public interface PaymentGateway {
+    Map<String, String> generatePaymentLink(String orderId, Long amount, String phoneNumber, String email) throws RazorpayException;
+    
+    Map<String, String> verifyPayment(String paymentId) throws RazorpayException;
+    
+    Map<String, String> refundPayment(String paymentId, Long amount) throws RazorpayException;
+    
+    Map<String, String> getPaymentStatus(String paymentId) throws RazorpayException;
+
+    /*
+     * Variants of the non-idempotent calls that pass a key the gateway uses to deduplicate
+     * repeated requests. Gateways without idempotency keys ignore it, and report that through
+     * supportsIdempotencyKeys() so these calls are never retried against them.
+     */
+    default Map<String, String> generatePaymentLink(String orderId, Long amount, String phoneNumber, String email,
+                                                    String idempotencyKey) throws RazorpayException {
+        return generatePaymentLink(orderId, amount, phoneNumber, email);
+    }
+
+    default Map<String, String> refundPayment(String paymentId, Long amount, String idempotencyKey) throws RazorpayException {
+        return refundPayment(paymentId, amount);
+    }
+
+    default boolean supportsIdempotencyKeys() {
+        return false;
+    }
+
+    /*
+     * Payments created in [from, to), one page at a time. Pass the previous page's nextPageToken
+     * to continue. Used by the bulk sync instead of one status fetch per payment.
+     */
+    GatewayPaymentPage listPayments(Instant from, Instant to, String pageToken, int pageSize) throws RazorpayException;
+}
@@ -1,19 +1,28 @@
 package com.PaymentService.paymentservice.paymentgateway;
 
+import com.PaymentService.paymentservice.metrics.PaymentMetrics;
 import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.retry.GatewayRetries;
 import org.springframework.stereotype.Component;
 
 @Component
 public class PaymentGatewayFactory {
     
-    private final RazorpaymentGateway razorpaymentGateway;
-    private final StripePaymentGateway stripePaymentGateway;
+    private final PaymentGateway razorpaymentGateway;
+    private final PaymentGateway stripePaymentGateway;
+    private final MerchantGatewayPool merchantGatewayPool;
 
     public PaymentGatewayFactory(
             RazorpaymentGateway razorpaymentGateway,
-            StripePaymentGateway stripePaymentGateway) {
-        this.razorpaymentGateway = razorpaymentGateway;
-        this.stripePaymentGateway = stripePaymentGateway;
+            StripePaymentGateway stripePaymentGateway,
+            PaymentMetrics paymentMetrics,
+            GatewayRetries gatewayRetries,
+            MerchantGatewayPool merchantGatewayPool) {
+        this.razorpaymentGateway = gatewayRetries.wrap(Payment.PaymentGatewayType.RAZORPAY,
+                paymentMetrics.instrument(Payment.PaymentGatewayType.RAZORPAY, razorpaymentGateway));
+        this.stripePaymentGateway = gatewayRetries.wrap(Payment.PaymentGatewayType.STRIPE,
+                paymentMetrics.instrument(Payment.PaymentGatewayType.STRIPE, stripePaymentGateway));
+        this.merchantGatewayPool = merchantGatewayPool;
     }
 
     public PaymentGateway getGateway(String gatewayType) {
@@ -47,5 +56,13 @@ public class PaymentGatewayFactory {
                 return razorpaymentGateway;
         }
     }
-}
 
+    // Payments without a merchant use the platform account
+    public PaymentGateway getGateway(Payment.PaymentGatewayType gatewayType, String merchantId) {
+        if (merchantId == null || merchantId.isEmpty()) {
+            return getGateway(gatewayType);
+        }
+        return merchantGatewayPool.getGateway(merchantId,
+                gatewayType != null ? gatewayType : Payment.PaymentGatewayType.RAZORPAY);
+    }
+}
@@ -9,19 +9,38 @@ import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class RazorpaymentGateway implements PaymentGateway {
     private static final Logger logger = LoggerFactory.getLogger(RazorpaymentGateway.class);
-    private final RazorpayClient razorpayClient;
+    private static final int MAX_LIST_PAGE_SIZE = 100;
+    // Resolved on first use so the SDK client isn't built during context startup
+    private final ObjectProvider<RazorpayClient> razorpayClientProvider;
+    // Set for merchant gateways, which always call with the merchant's own client
+    private final RazorpayClient merchantClient;
 
-    public RazorpaymentGateway(RazorpayClient razorpayClient) {
-        this.razorpayClient = razorpayClient;
+    @Autowired
+    public RazorpaymentGateway(ObjectProvider<RazorpayClient> razorpayClientProvider) {
+        this.razorpayClientProvider = razorpayClientProvider;
+        this.merchantClient = null;
+    }
+
+    private RazorpaymentGateway(RazorpayClient merchantClient) {
+        this.razorpayClientProvider = null;
+        this.merchantClient = merchantClient;
+    }
+
+    static RazorpaymentGateway forMerchant(RazorpayClient merchantClient) {
+        return new RazorpaymentGateway(merchantClient);
     }
 
     @Override
@@ -55,7 +74,7 @@ public class RazorpaymentGateway implements PaymentGateway {
         notes.put("order_id", orderId);
         paymentLinkRequest.put("notes", notes);
 
-        PaymentLink paymentLink = razorpayClient.paymentLink.create(paymentLinkRequest);
+        PaymentLink paymentLink = razorpayClient().paymentLink.create(paymentLinkRequest);
         logger.info("Razorpay payment link created successfully - orderId: {}, paymentLinkId: {}", 
                 orderId, paymentLink.get("id"));
         
@@ -69,7 +88,7 @@ public class RazorpaymentGateway implements PaymentGateway {
 
     @Override
     public Map<String, String> verifyPayment(String paymentId) throws RazorpayException {
-        Payment payment = razorpayClient.payments.fetch(paymentId);
+        Payment payment = razorpayClient().payments.fetch(paymentId);
         
         Map<String, String> response = new HashMap<>();
         response.put("paymentId", payment.get("id"));
@@ -88,7 +107,7 @@ public class RazorpaymentGateway implements PaymentGateway {
             refundRequest.put("amount", amount);
         }
         
-        Refund refund = razorpayClient.payments.refund(paymentId, refundRequest);
+        Refund refund = razorpayClient().payments.refund(paymentId, refundRequest);
         
         Map<String, String> response = new HashMap<>();
         response.put("refundId", refund.get("id"));
@@ -101,7 +120,7 @@ public class RazorpaymentGateway implements PaymentGateway {
 
     @Override
     public Map<String, String> getPaymentStatus(String paymentId) throws RazorpayException {
-        Payment payment = razorpayClient.payments.fetch(paymentId);
+        Payment payment = razorpayClient().payments.fetch(paymentId);
         
         Map<String, String> response = new HashMap<>();
         response.put("paymentId", payment.get("id"));
@@ -113,4 +132,36 @@ public class RazorpaymentGateway implements PaymentGateway {
         
         return response;
     }
+
+    @Override
+    public GatewayPaymentPage listPayments(Instant from, Instant to, String pageToken, int pageSize) throws RazorpayException {
+        // Razorpay pages by offset within the range, and both ends of the range are inclusive
+        int skip = pageToken != null ? Integer.parseInt(pageToken) : 0;
+        int count = Math.min(pageSize, MAX_LIST_PAGE_SIZE);
+        JSONObject listRequest = new JSONObject();
+        listRequest.put("from", from.getEpochSecond());
+        listRequest.put("to", to.getEpochSecond() - 1);
+        listRequest.put("count", count);
+        listRequest.put("skip", skip);
+
+        List<Payment> payments = razorpayClient().payments.fetchAll(listRequest);
+        List<GatewayPaymentRecord> records = new ArrayList<>(payments.size());
+        for (Payment payment : payments) {
+            Object refunded = payment.get("amount_refunded");
+            records.add(new GatewayPaymentRecord(payment.get("id"), null, noteOrderId(payment), payment.get("status"),
+                    refunded instanceof Number number ? number.longValue() : 0L));
+        }
+        String next = payments.size() < count ? null : String.valueOf(skip + payments.size());
+        return new GatewayPaymentPage(records, next);
+    }
+
+    // Payments made through a link carry the link's notes; Razorpay returns an empty array when there are none
+    private static String noteOrderId(Payment payment) {
+        Object notes = payment.get("notes");
+        return notes instanceof JSONObject json ? json.optString("order_id", null) : null;
+    }
+
+    private RazorpayClient razorpayClient() {
+        return merchantClient != null ? merchantClient : razorpayClientProvider.getObject();
+    }
 }
@@ -3,24 +3,52 @@ package com.PaymentService.paymentservice.paymentgateway;
 import com.PaymentService.paymentservice.constants.PaymentConstants;
 import com.razorpay.RazorpayException;
 import com.stripe.exception.StripeException;
+import com.stripe.model.Charge;
 import com.stripe.model.PaymentIntent;
+import com.stripe.model.PaymentIntentCollection;
 import com.stripe.model.Refund;
+import com.stripe.net.RequestOptions;
 import com.stripe.param.PaymentIntentCreateParams;
+import com.stripe.param.PaymentIntentListParams;
 import com.stripe.param.PaymentIntentRetrieveParams;
 import com.stripe.param.RefundCreateParams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class StripePaymentGateway implements PaymentGateway {
     private static final Logger logger = LoggerFactory.getLogger(StripePaymentGateway.class);
+    private static final long MAX_LIST_PAGE_SIZE = 100;
+    // Null for the platform account, which uses the global Stripe.apiKey
+    private final RequestOptions requestOptions;
+
+    public StripePaymentGateway() {
+        this.requestOptions = null;
+    }
+
+    private StripePaymentGateway(RequestOptions requestOptions) {
+        this.requestOptions = requestOptions;
+    }
+
+    static StripePaymentGateway forMerchant(RequestOptions requestOptions) {
+        return new StripePaymentGateway(requestOptions);
+    }
 
     @Override
     public Map<String, String> generatePaymentLink(String orderId, Long amount, String phoneNumber, String email) throws RazorpayException {
+        return generatePaymentLink(orderId, amount, phoneNumber, email, null);
+    }
+
+    @Override
+    public Map<String, String> generatePaymentLink(String orderId, Long amount, String phoneNumber, String email,
+                                                   String idempotencyKey) throws RazorpayException {
         try {
             logger.debug("Generating Stripe payment intent for orderId: {}", orderId);
             // Stripe amounts are in smallest currency unit (cents for USD, paise for INR)
@@ -40,7 +68,8 @@ public class StripePaymentGateway implements PaymentGateway {
                                             .setEnabled(true)
                                             .build()
                             )
-                            .build()
+                            .build(),
+                    requestOptions(idempotencyKey)
             );
             
             logger.info("Stripe payment intent created successfully - orderId: {}, paymentIntentId: {}", 
@@ -67,7 +96,7 @@ public class StripePaymentGateway implements PaymentGateway {
                     .addExpand("charges")
                     .build();
 
-            PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentId, params, null);
+            PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentId, params, requestOptions);
 
             Map<String, String> response = new HashMap<>();
             response.put("paymentId", paymentIntent.getId());
@@ -87,10 +116,15 @@ public class StripePaymentGateway implements PaymentGateway {
 
     @Override
     public Map<String, String> refundPayment(String paymentId, Long amount) throws RazorpayException {
+        return refundPayment(paymentId, amount, null);
+    }
+
+    @Override
+    public Map<String, String> refundPayment(String paymentId, Long amount, String idempotencyKey) throws RazorpayException {
         try {
             logger.debug("Processing refund for paymentId: {}", paymentId);
             // First get the payment intent to find the charge
-            PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentId);
+            PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentId, requestOptions);
             
             RefundCreateParams.Builder refundParamsBuilder = RefundCreateParams.builder();
             
@@ -113,7 +147,7 @@ public class StripePaymentGateway implements PaymentGateway {
                 refundParamsBuilder.setAmount(amount);
             }
 
-            Refund refund = Refund.create(refundParamsBuilder.build());
+            Refund refund = Refund.create(refundParamsBuilder.build(), requestOptions(idempotencyKey));
             logger.info("Refund processed successfully - paymentId: {}, refundId: {}", paymentId, refund.getId());
 
             Map<String, String> response = new HashMap<>();
@@ -132,7 +166,7 @@ public class StripePaymentGateway implements PaymentGateway {
     @Override
     public Map<String, String> getPaymentStatus(String paymentId) throws RazorpayException {
         try {
-            PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentId);
+            PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentId, requestOptions);
 
             Map<String, String> response = new HashMap<>();
             response.put("paymentId", paymentIntent.getId());
@@ -151,4 +185,54 @@ public class StripePaymentGateway implements PaymentGateway {
             throw new RuntimeException("Stripe payment status retrieval failed: " + e.getMessage(), e);
         }
     }
+
+    @Override
+    public GatewayPaymentPage listPayments(Instant from, Instant to, String pageToken, int pageSize) throws RazorpayException {
+        try {
+            PaymentIntentListParams.Builder params = PaymentIntentListParams.builder()
+                    .setCreated(PaymentIntentListParams.Created.builder()
+                            .setGte(from.getEpochSecond())
+                            .setLt(to.getEpochSecond())
+                            .build())
+                    .setLimit(Math.min(pageSize, MAX_LIST_PAGE_SIZE))
+                    // The charge carries the refunded total, so refunds come back in the same call
+                    .addExpand("data.latest_charge");
+            if (pageToken != null) {
+                params.setStartingAfter(pageToken);
+            }
+            PaymentIntentCollection page = PaymentIntent.list(params.build(), requestOptions);
+
+            List<GatewayPaymentRecord> records = new ArrayList<>(page.getData().size());
+            for (PaymentIntent paymentIntent : page.getData()) {
+                Charge charge = paymentIntent.getLatestChargeObject();
+                long refunded = charge != null && charge.getAmountRefunded() != null ? charge.getAmountRefunded() : 0L;
+                String orderId = paymentIntent.getMetadata() != null ? paymentIntent.getMetadata().get("order_id") : null;
+                // The payment intent id is what initiation stored as paymentLinkId
+                records.add(new GatewayPaymentRecord(paymentIntent.getId(), paymentIntent.getId(), orderId,
+                        paymentIntent.getStatus(), refunded));
+            }
+            String next = Boolean.TRUE.equals(page.getHasMore()) && !records.isEmpty()
+                    ? records.get(records.size() - 1).paymentId()
+                    : null;
+            return new GatewayPaymentPage(records, next);
+        } catch (StripeException e) {
+            throw new RuntimeException("Stripe payment listing failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean supportsIdempotencyKeys() {
+        return true;
+    }
+
+    // Stripe replays the stored response for a repeated key instead of creating a second object
+    private RequestOptions requestOptions(String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return requestOptions;
+        }
+        return RequestOptions.builder()
+                .setApiKey(requestOptions != null ? requestOptions.getApiKey() : null)
+                .setIdempotencyKey(idempotencyKey)
+                .build();
+    }
 }
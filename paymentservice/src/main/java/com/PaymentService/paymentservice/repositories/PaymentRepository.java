@@ -2,14 +2,57 @@ package com.PaymentService.paymentservice.repositories;
 
 import com.PaymentService.paymentservice.models.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByOrderId(String orderId);
     Optional<Payment> findByPaymentLinkId(String paymentLinkId);
     Optional<Payment> findByPaymentId(String paymentId);
-}
+    List<Payment> findByPaymentLinkIdIn(Collection<String> paymentLinkIds);
+    List<Payment> findByOrderIdIn(Collection<String> orderIds);
+
+    @Query("select p.paymentId from Payment p where p.paymentId is not null")
+    Stream<String> streamAllPaymentIds();
+
+    // Served by idx_payments_updated_at; a row's updatedAt moves whenever its paymentId is set
+    @Query("select p.paymentId from Payment p where p.paymentId is not null and p.updatedAt >= :since")
+    Stream<String> streamPaymentIdsUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("select p.status as status, p.updatedAt as updatedAt from Payment p where p.paymentId = :paymentId")
+    Optional<PaymentVersion> findVersionByPaymentId(@Param("paymentId") String paymentId);
 
+    @Query("select p.status as status, p.updatedAt as updatedAt from Payment p where p.orderId = :orderId")
+    Optional<PaymentVersion> findVersionByOrderId(@Param("orderId") String orderId);
+
+    // Reserves a refund amount only if it still fits in the payment; returns 0 when it does not
+    @Modifying
+    @Query("update Payment p set p.refundedAmount = p.refundedAmount + :amount, p.version = p.version + 1, " +
+            "p.updatedAt = local datetime " +
+            "where p.id = :id and p.status in :statuses and p.refundedAmount + :amount <= p.amount")
+    int reserveRefund(@Param("id") Long id, @Param("amount") Long amount,
+                      @Param("statuses") Collection<Payment.PaymentStatus> statuses);
+
+    // Raises the refunded total to what the gateway reports, only if it is still the total the caller read;
+    // returns 0 when another node booked or reserved a refund in between
+    @Modifying
+    @Query("update Payment p set p.refundedAmount = :total, p.version = p.version + 1, p.updatedAt = local datetime " +
+            "where p.id = :id and p.status in :statuses and p.refundedAmount = :seen and :total <= p.amount")
+    int bookRefundIfUnchanged(@Param("id") Long id, @Param("seen") Long seen, @Param("total") Long total,
+                              @Param("statuses") Collection<Payment.PaymentStatus> statuses);
+
+    @Modifying
+    @Query("update Payment p set p.refundedAmount = p.refundedAmount - :amount, p.version = p.version + 1, " +
+            "p.updatedAt = local datetime " +
+            "where p.id = :id and p.refundedAmount >= :amount")
+    int releaseRefund(@Param("id") Long id, @Param("amount") Long amount);
+}
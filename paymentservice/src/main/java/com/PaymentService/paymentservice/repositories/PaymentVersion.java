@@ -0,0 +1,12 @@
+package com.PaymentService.paymentservice.repositories;
+
+import com.PaymentService.paymentservice.models.Payment;
+
+import java.time.LocalDateTime;
+
+// Lightweight projection used for conditional GETs, avoids loading the full entity
+public interface PaymentVersion {
+    Payment.PaymentStatus getStatus();
+
+    LocalDateTime getUpdatedAt();
+}
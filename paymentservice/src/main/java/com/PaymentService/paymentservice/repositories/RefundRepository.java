@@ -0,0 +1,15 @@
+package com.PaymentService.paymentservice.repositories;
+
+import com.PaymentService.paymentservice.models.Refund;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefundRepository extends JpaRepository<Refund, Long> {
+    List<Refund> findByPaymentIdOrderByCreatedAtAsc(Long paymentId);
+
+    Optional<Refund> findByIdempotencyKey(String idempotencyKey);
+}
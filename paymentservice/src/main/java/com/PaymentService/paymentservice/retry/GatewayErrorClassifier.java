@@ -0,0 +1,86 @@
+package com.PaymentService.paymentservice.retry;
+
+import com.PaymentService.paymentservice.models.Payment;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Decides whether a failed gateway call may succeed if repeated: transport failures, throttling
+ * and server-side errors are retryable; validation, authentication and card errors are not.
+ */
+final class GatewayErrorClassifier {
+    // The Razorpay SDK rethrows transport failures as a plain RazorpayException carrying only the message
+    private static final String[] RAZORPAY_TRANSIENT_MESSAGES = {
+            "timeout", "timed out", "connection reset", "failed to connect", "unexpected end of stream",
+            "too many requests"
+    };
+
+    private static final String[] RAZORPAY_TRANSIENT_CODES = {"SERVER_ERROR:", "GATEWAY_ERROR:"};
+    private static final String RAZORPAY_STATUS_PREFIX = "Status Code:";
+
+    private GatewayErrorClassifier() {
+    }
+
+    static boolean isRetryable(Payment.PaymentGatewayType gatewayType, Throwable error) {
+        if (hasCause(error, IOException.class)) {
+            return true;
+        }
+        return gatewayType == Payment.PaymentGatewayType.STRIPE ? isRetryableStripe(error) : isRetryableRazorpay(error);
+    }
+
+    // StripePaymentGateway wraps the StripeException in a RuntimeException
+    private static boolean isRetryableStripe(Throwable error) {
+        StripeException stripeException = findCause(error, StripeException.class);
+        if (stripeException == null) {
+            return false;
+        }
+        if (stripeException instanceof ApiConnectionException || stripeException instanceof RateLimitException) {
+            return true;
+        }
+        // 409 is a request with the same idempotency key still being processed
+        Integer statusCode = stripeException.getStatusCode();
+        return statusCode != null && (statusCode >= 500 || statusCode == 409);
+    }
+
+    // The SDK has no exception subclasses: error bodies become "<code>:<description>" messages and 5xx
+    // answers without a body become "Status Code: <n>" messages
+    private static boolean isRetryableRazorpay(Throwable error) {
+        String message = error.getMessage();
+        if (message == null) {
+            return false;
+        }
+        for (String code : RAZORPAY_TRANSIENT_CODES) {
+            if (message.startsWith(code)) {
+                return true;
+            }
+        }
+        if (message.startsWith(RAZORPAY_STATUS_PREFIX)) {
+            String status = message.substring(RAZORPAY_STATUS_PREFIX.length()).trim();
+            return status.startsWith("5") || status.startsWith("429");
+        }
+        String normalized = message.toLowerCase(Locale.ROOT);
+        for (String transientMessage : RAZORPAY_TRANSIENT_MESSAGES) {
+            if (normalized.contains(transientMessage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasCause(Throwable error, Class<? extends Throwable> type) {
+        return findCause(error, type) != null;
+    }
+
+    private static <T extends Throwable> T findCause(Throwable error, Class<T> type) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (type.isInstance(current)) {
+                return type.cast(current);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.PaymentService.paymentservice.retry;
+
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.paymentgateway.PaymentGateway;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Applies the retry policy to gateways. There is one budget per gateway, shared by the platform
+ * and every merchant account, since an outage affects all of them alike.
+ */
+@Component
+public class GatewayRetries {
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final Map<Payment.PaymentGatewayType, RetryBudget> budgets = new EnumMap<>(Payment.PaymentGatewayType.class);
+
+    public GatewayRetries(MeterRegistry meterRegistry,
+                          @Value("${payment.gateway.retry.enabled:true}") boolean enabled,
+                          @Value("${payment.gateway.retry.max-attempts:3}") int maxAttempts,
+                          @Value("${payment.gateway.retry.base-delay-ms:50}") long baseDelayMs,
+                          @Value("${payment.gateway.retry.max-delay-ms:1000}") long maxDelayMs,
+                          @Value("${payment.gateway.retry.budget.ratio:0.1}") double budgetRatio,
+                          @Value("${payment.gateway.retry.budget.max-tokens:20}") int budgetMaxTokens) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        for (Payment.PaymentGatewayType gatewayType : Payment.PaymentGatewayType.values()) {
+            RetryBudget budget = new RetryBudget(budgetRatio, budgetMaxTokens);
+            budgets.put(gatewayType, budget);
+            Gauge.builder("payment.gateway.retry.budget", budget, RetryBudget::available)
+                    .description("Retries currently available to the gateway")
+                    .tag("gateway", gatewayType.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    public PaymentGateway wrap(Payment.PaymentGatewayType gatewayType, PaymentGateway gateway) {
+        if (!enabled) {
+            return gateway;
+        }
+        return new RetryingPaymentGateway(gateway, gatewayType, maxAttempts, baseDelayMs, maxDelayMs,
+                budgets.get(gatewayType), meterRegistry);
+    }
+}
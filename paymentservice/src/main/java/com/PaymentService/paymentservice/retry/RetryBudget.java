@@ -0,0 +1,42 @@
+package com.PaymentService.paymentservice.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket shared by every call to one gateway. Each call deposits a fraction of a token and
+ * each retry withdraws a whole one, so retries stay a bounded share of traffic and stop almost
+ * at once when every call is failing, instead of multiplying load on a gateway that is down.
+ */
+public class RetryBudget {
+    private static final long SCALE = 1000;
+
+    // Milli-tokens, so fractional deposits stay integral
+    private final AtomicLong balance;
+    private final long depositPerCall;
+    private final long maxBalance;
+
+    public RetryBudget(double retryRatio, int maxTokens) {
+        this.depositPerCall = Math.max(1, Math.round(retryRatio * SCALE));
+        this.maxBalance = Math.max(1, maxTokens) * SCALE;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    public void deposit() {
+        balance.getAndUpdate(current -> Math.min(maxBalance, current + depositPerCall));
+    }
+
+    public boolean tryWithdraw() {
+        long current = balance.get();
+        while (current >= SCALE) {
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+            current = balance.get();
+        }
+        return false;
+    }
+
+    public double available() {
+        return (double) balance.get() / SCALE;
+    }
+}
@@ -0,0 +1,144 @@
+package com.PaymentService.paymentservice.retry;
+
+import com.PaymentService.paymentservice.metrics.GatewayOperation;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.paymentgateway.GatewayPaymentPage;
+import com.PaymentService.paymentservice.paymentgateway.PaymentGateway;
+import com.razorpay.RazorpayException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries transient gateway failures with exponential backoff and full jitter, within a shared
+ * {@link RetryBudget}. Reads are always safe to repeat; creating a payment link or a refund is
+ * only repeated when the gateway deduplicates by idempotency key, and every attempt of one call
+ * carries the same key. Wraps the metered gateway, so each attempt is timed on its own.
+ */
+public class RetryingPaymentGateway implements PaymentGateway {
+    private static final Logger logger = LoggerFactory.getLogger(RetryingPaymentGateway.class);
+
+    private final PaymentGateway delegate;
+    private final Payment.PaymentGatewayType gatewayType;
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final RetryBudget budget;
+    private final Counter[] retries;
+    private final Counter budgetExhausted;
+
+    public RetryingPaymentGateway(PaymentGateway delegate, Payment.PaymentGatewayType gatewayType, int maxAttempts,
+                                  long baseDelayMs, long maxDelayMs, RetryBudget budget, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.gatewayType = gatewayType;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.budget = budget;
+        String gatewayName = gatewayType.name().toLowerCase();
+        GatewayOperation[] operations = GatewayOperation.values();
+        this.retries = new Counter[operations.length];
+        for (GatewayOperation operation : operations) {
+            retries[operation.ordinal()] = Counter.builder("payment.gateway.retries")
+                    .description("Gateway calls repeated after a transient failure")
+                    .tag("gateway", gatewayName)
+                    .tag("operation", operation.getTagValue())
+                    .register(meterRegistry);
+        }
+        this.budgetExhausted = Counter.builder("payment.gateway.retry.budget.exhausted")
+                .description("Retryable gateway failures returned without a retry because the budget was empty")
+                .tag("gateway", gatewayName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Map<String, String> generatePaymentLink(String orderId, Long amount, String phoneNumber, String email) throws RazorpayException {
+        return generatePaymentLink(orderId, amount, phoneNumber, email, UUID.randomUUID().toString());
+    }
+
+    @Override
+    public Map<String, String> generatePaymentLink(String orderId, Long amount, String phoneNumber, String email,
+                                                   String idempotencyKey) throws RazorpayException {
+        return execute(GatewayOperation.GENERATE_PAYMENT_LINK, delegate.supportsIdempotencyKeys(),
+                () -> delegate.generatePaymentLink(orderId, amount, phoneNumber, email, idempotencyKey));
+    }
+
+    @Override
+    public Map<String, String> verifyPayment(String paymentId) throws RazorpayException {
+        return execute(GatewayOperation.VERIFY_PAYMENT, true, () -> delegate.verifyPayment(paymentId));
+    }
+
+    @Override
+    public Map<String, String> refundPayment(String paymentId, Long amount) throws RazorpayException {
+        return refundPayment(paymentId, amount, UUID.randomUUID().toString());
+    }
+
+    @Override
+    public Map<String, String> refundPayment(String paymentId, Long amount, String idempotencyKey) throws RazorpayException {
+        return execute(GatewayOperation.REFUND_PAYMENT, delegate.supportsIdempotencyKeys(),
+                () -> delegate.refundPayment(paymentId, amount, idempotencyKey));
+    }
+
+    @Override
+    public Map<String, String> getPaymentStatus(String paymentId) throws RazorpayException {
+        return execute(GatewayOperation.GET_PAYMENT_STATUS, true, () -> delegate.getPaymentStatus(paymentId));
+    }
+
+    @Override
+    public GatewayPaymentPage listPayments(Instant from, Instant to, String pageToken, int pageSize) throws RazorpayException {
+        return execute(GatewayOperation.LIST_PAYMENTS, true, () -> delegate.listPayments(from, to, pageToken, pageSize));
+    }
+
+    @Override
+    public boolean supportsIdempotencyKeys() {
+        return delegate.supportsIdempotencyKeys();
+    }
+
+    private <T> T execute(GatewayOperation operation, boolean safeToRepeat, GatewayCall<T> call) throws RazorpayException {
+        budget.deposit();
+        int attempt = 1;
+        while (true) {
+            try {
+                return call.execute();
+            } catch (RazorpayException | RuntimeException e) {
+                if (!safeToRepeat || attempt >= maxAttempts || !GatewayErrorClassifier.isRetryable(gatewayType, e)) {
+                    throw e;
+                }
+                if (!budget.tryWithdraw()) {
+                    budgetExhausted.increment();
+                    logger.warn("Retry budget for {} exhausted, failing {} after attempt {}: {}",
+                            gatewayType, operation.getTagValue(), attempt, e.getMessage());
+                    throw e;
+                }
+                long delayMs = backoff(attempt);
+                logger.warn("Retrying {} on {} in {} ms after attempt {} failed: {}",
+                        operation.getTagValue(), gatewayType, delayMs, attempt, e.getMessage());
+                retries[operation.ordinal()].increment();
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                attempt++;
+            }
+        }
+    }
+
+    // Full jitter: uniform over [0, min(max, base * 2^(attempt - 1))]
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs * (1L << Math.min(attempt - 1, 30)));
+        return ThreadLocalRandom.current().nextLong(Math.max(0, ceiling) + 1);
+    }
+
+    @FunctionalInterface
+    private interface GatewayCall<T> {
+        T execute() throws RazorpayException;
+    }
+}
@@ -0,0 +1,74 @@
+package com.PaymentService.paymentservice.services;
+
+import com.PaymentService.paymentservice.constants.PaymentConstants;
+import com.PaymentService.paymentservice.dtos.InitiatePaymentResponseDto;
+import com.PaymentService.paymentservice.dtos.PaymentStatusResponseDto;
+import com.PaymentService.paymentservice.dtos.RefundPaymentResponseDto;
+import com.PaymentService.paymentservice.dtos.VerifyPaymentResponseDto;
+import com.PaymentService.paymentservice.models.Payment;
+
+import java.util.Map;
+
+// Maps stored payments and raw gateway responses to the API response DTOs
+public final class PaymentResponseMapper {
+    private PaymentResponseMapper() {
+        // Utility class
+    }
+
+    public static InitiatePaymentResponseDto toInitiateResponse(Payment payment, String message) {
+        InitiatePaymentResponseDto response = new InitiatePaymentResponseDto();
+        response.setOrderId(payment.getOrderId());
+        response.setPaymentLinkId(payment.getPaymentLinkId());
+        response.setPaymentLinkUrl(payment.getPaymentLinkUrl());
+        response.setMessage(message);
+        return response;
+    }
+
+    public static VerifyPaymentResponseDto toVerifyResponse(Payment payment, Map<String, String> gatewayResponse) {
+        VerifyPaymentResponseDto response = new VerifyPaymentResponseDto();
+        response.setPaymentId(payment.getPaymentId());
+        response.setOrderId(payment.getOrderId());
+        response.setStatus(payment.getStatus().toString());
+        response.setAmount(Long.parseLong(gatewayResponse.get("amount")));
+        response.setCurrency(gatewayResponse.get("currency"));
+        response.setMessage(PaymentConstants.MESSAGE_PAYMENT_VERIFIED);
+        return response;
+    }
+
+    public static RefundPaymentResponseDto toRefundResponse(Payment payment, Map<String, String> gatewayResponse) {
+        RefundPaymentResponseDto response = new RefundPaymentResponseDto();
+        response.setRefundId(gatewayResponse.get("refundId"));
+        response.setPaymentId(payment.getPaymentId());
+        response.setAmount(Long.parseLong(gatewayResponse.get("amount")));
+        response.setStatus(gatewayResponse.get("status"));
+        response.setPaymentStatus(payment.getStatus().toString());
+        response.setTotalRefunded(payment.getRefundedAmount());
+        response.setRemainingAmount(payment.getAmount() - payment.getRefundedAmount());
+        response.setMessage(PaymentConstants.MESSAGE_REFUND_PROCESSED);
+        return response;
+    }
+
+    // Stored payment with its live status from the gateway
+    public static PaymentStatusResponseDto toStatusResponse(Payment payment, Map<String, String> gatewayResponse) {
+        PaymentStatusResponseDto response = new PaymentStatusResponseDto();
+        response.setPaymentId(payment.getPaymentId());
+        response.setOrderId(payment.getOrderId());
+        response.setStatus(gatewayResponse.get("status"));
+        response.setAmount(Long.parseLong(gatewayResponse.get("amount")));
+        response.setCurrency(gatewayResponse.get("currency"));
+        response.setMethod(gatewayResponse.get("method"));
+        response.setRefundedAmount(payment.getRefundedAmount());
+        return response;
+    }
+
+    public static PaymentStatusResponseDto toStatusResponse(Payment payment) {
+        PaymentStatusResponseDto response = new PaymentStatusResponseDto();
+        response.setPaymentId(payment.getPaymentId());
+        response.setOrderId(payment.getOrderId());
+        response.setStatus(payment.getStatus().toString());
+        response.setAmount(payment.getAmount());
+        response.setCurrency(payment.getCurrency());
+        response.setRefundedAmount(payment.getRefundedAmount());
+        return response;
+    }
+}
@@ -1,5 +1,6 @@
 package com.PaymentService.paymentservice.services;
 
+import com.PaymentService.paymentservice.cache.PaymentIdIndex;
 import com.PaymentService.paymentservice.constants.PaymentConstants;
 import com.PaymentService.paymentservice.dtos.InitiatePaymentResponseDto;
 import com.PaymentService.paymentservice.dtos.PaymentStatusResponseDto;
@@ -8,71 +9,123 @@ import com.PaymentService.paymentservice.dtos.VerifyPaymentResponseDto;
 import com.PaymentService.paymentservice.exceptions.InvalidPaymentStateException;
 import com.PaymentService.paymentservice.exceptions.PaymentNotFoundException;
 import com.PaymentService.paymentservice.exceptions.PaymentProcessingException;
+import com.PaymentService.paymentservice.journal.GatewayJournal;
+import com.PaymentService.paymentservice.journal.PendingPaymentLink;
+import com.PaymentService.paymentservice.journal.PendingRefund;
+import com.PaymentService.paymentservice.logging.LogContext;
+import com.PaymentService.paymentservice.metrics.PaymentMetrics;
 import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.models.Refund;
+import com.PaymentService.paymentservice.paymentgateway.GatewayPaymentRecord;
 import com.PaymentService.paymentservice.paymentgateway.PaymentGateway;
 import com.PaymentService.paymentservice.paymentgateway.PaymentGatewayFactory;
 import com.PaymentService.paymentservice.repositories.PaymentRepository;
+import com.PaymentService.paymentservice.repositories.PaymentVersion;
+import com.PaymentService.paymentservice.repositories.RefundRepository;
+import com.PaymentService.paymentservice.sharding.ShardKey;
+import com.PaymentService.paymentservice.sharding.ShardLocator;
+import com.PaymentService.paymentservice.stats.PaymentStatsService;
 import com.razorpay.RazorpayException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class PaymentService {
     private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
+    private static final String PAYMENT_LINK_KEY_PREFIX = "payment-link-";
+    private static final String SYNCED_REFUND_STATUS = "synced";
+    private static final Set<Payment.PaymentStatus> REFUNDABLE_STATUSES =
+            EnumSet.of(Payment.PaymentStatus.SUCCESS, Payment.PaymentStatus.PARTIALLY_REFUNDED);
     private final PaymentGatewayFactory paymentGatewayFactory;
     private final PaymentRepository paymentRepository;
+    private final PaymentIdIndex paymentIdIndex;
+    private final PaymentMetrics paymentMetrics;
+    private final ShardLocator shardLocator;
+    private final PaymentStatsService paymentStatsService;
+    private final RefundRepository refundRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StripedLocks refundLocks;
+    private final long refundLockTimeoutMs;
+    private final GatewayJournal gatewayJournal;
 
-    public PaymentService(PaymentGatewayFactory paymentGatewayFactory, PaymentRepository paymentRepository) {
+    public PaymentService(PaymentGatewayFactory paymentGatewayFactory, PaymentRepository paymentRepository,
+                          PaymentIdIndex paymentIdIndex, PaymentMetrics paymentMetrics, ShardLocator shardLocator,
+                          PaymentStatsService paymentStatsService, RefundRepository refundRepository,
+                          PlatformTransactionManager transactionManager, GatewayJournal gatewayJournal,
+                          @Value("${payment.refund.lock-stripes:256}") int refundLockStripes,
+                          @Value("${payment.refund.lock-timeout-ms:10000}") long refundLockTimeoutMs) {
         this.paymentGatewayFactory = paymentGatewayFactory;
         this.paymentRepository = paymentRepository;
+        this.paymentIdIndex = paymentIdIndex;
+        this.paymentMetrics = paymentMetrics;
+        this.shardLocator = shardLocator;
+        this.paymentStatsService = paymentStatsService;
+        this.refundRepository = refundRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.refundLocks = new StripedLocks(refundLockStripes);
+        this.refundLockTimeoutMs = refundLockTimeoutMs;
+        this.gatewayJournal = gatewayJournal;
     }
 
-    @Transactional
-    public InitiatePaymentResponseDto initiatePayment(String orderId, Long amount, String phoneNumber, String email, String gatewayType) {
+    /**
+     * Not one transaction: the gateway call, with its retries and backoff, runs without a database
+     * connection, and only the save of its result is transactional.
+     */
+    public InitiatePaymentResponseDto initiatePayment(@ShardKey(ShardKey.Type.ORDER_ID) String orderId, Long amount, String phoneNumber, String email, String gatewayType,
+                                                      String merchantId) {
+        LogContext.orderId(orderId);
+        LogContext.gateway(gatewayType);
+        LogContext.merchantId(merchantId);
         // Check if payment already exists for this order
         Payment existingPayment = paymentRepository.findByOrderId(orderId)
                 .orElse(null);
 
         if (existingPayment != null && existingPayment.getStatus() == Payment.PaymentStatus.PENDING) {
             logger.info("Existing pending payment found for orderId: {}", orderId);
-            InitiatePaymentResponseDto response = new InitiatePaymentResponseDto();
-            response.setOrderId(existingPayment.getOrderId());
-            response.setPaymentLinkId(existingPayment.getPaymentLinkId());
-            response.setPaymentLinkUrl(existingPayment.getPaymentLinkUrl());
-            response.setMessage(PaymentConstants.MESSAGE_PAYMENT_LINK_EXISTS);
-            return response;
+            return PaymentResponseMapper.toInitiateResponse(existingPayment, PaymentConstants.MESSAGE_PAYMENT_LINK_EXISTS);
         }
 
         try {
-            PaymentGateway gateway = paymentGatewayFactory.getGateway(gatewayType);
-            Map<String, String> gatewayResponse = gateway.generatePaymentLink(orderId, amount, phoneNumber, email);
-
-            Payment payment = Payment.builder()
-                    .orderId(orderId)
-                    .amount(amount)
-                    .currency(PaymentConstants.CURRENCY_INR)
-                    .phoneNumber(phoneNumber)
-                    .email(email)
-                    .status(Payment.PaymentStatus.PENDING)
-                    .gatewayType(Payment.PaymentGatewayType.valueOf(gatewayType.toUpperCase()))
-                    .paymentLinkId(gatewayResponse.get("paymentLinkId"))
-                    .paymentLinkUrl(gatewayResponse.get("paymentLinkUrl"))
-                    .build();
-
-            payment = paymentRepository.save(payment);
+            Payment.PaymentGatewayType type = Payment.PaymentGatewayType.valueOf(gatewayType.toUpperCase());
+            PaymentGateway gateway = paymentGatewayFactory.getGateway(type, merchantId);
+            long journalOp = gatewayJournal.paymentLinkIntent(orderId, amount, phoneNumber, email, type, merchantId);
+            Map<String, String> gatewayResponse;
+            try {
+                // Keyed by order, so a retried or repeated initiate can't open a second payment at the gateway
+                gatewayResponse = gateway.generatePaymentLink(orderId, amount, phoneNumber, email,
+                        PAYMENT_LINK_KEY_PREFIX + orderId);
+            } catch (RazorpayException | RuntimeException e) {
+                gatewayJournal.close(journalOp);
+                throw e;
+            }
+            gatewayJournal.paymentLinkOutcome(journalOp, gatewayResponse);
+
+            Map<String, String> created = gatewayResponse;
+            Payment payment = transactionTemplate.execute(status -> {
+                Payment saved = savePaymentLink(orderId, amount, phoneNumber, email, type, merchantId, created);
+                gatewayJournal.closeAfterCommit(journalOp);
+                return saved;
+            });
             logger.info("Payment link created successfully for orderId: {}, paymentLinkId: {}", 
                     orderId, payment.getPaymentLinkId());
 
-            InitiatePaymentResponseDto response = new InitiatePaymentResponseDto();
-            response.setOrderId(payment.getOrderId());
-            response.setPaymentLinkId(payment.getPaymentLinkId());
-            response.setPaymentLinkUrl(payment.getPaymentLinkUrl());
-            response.setMessage(PaymentConstants.MESSAGE_PAYMENT_LINK_GENERATED);
-            return response;
+            return PaymentResponseMapper.toInitiateResponse(payment, PaymentConstants.MESSAGE_PAYMENT_LINK_GENERATED);
         } catch (RazorpayException e) {
             logger.error("Gateway error while creating payment link for orderId: {}", orderId, e);
             throw new PaymentProcessingException("Failed to generate payment link: " + e.getMessage(), e);
@@ -82,8 +135,69 @@ public class PaymentService {
         }
     }
 
-    @Transactional
-    public VerifyPaymentResponseDto verifyPayment(String paymentId, String orderId) {
+    private Payment savePaymentLink(String orderId, Long amount, String phoneNumber, String email,
+                                    Payment.PaymentGatewayType type, String merchantId, Map<String, String> gatewayResponse) {
+        Payment payment = Payment.builder()
+                .orderId(orderId)
+                .amount(amount)
+                .currency(PaymentConstants.CURRENCY_INR)
+                .phoneNumber(phoneNumber)
+                .email(email)
+                .status(Payment.PaymentStatus.PENDING)
+                .gatewayType(type)
+                .merchantId(merchantId)
+                .paymentLinkId(gatewayResponse.get("paymentLinkId"))
+                .paymentLinkUrl(gatewayResponse.get("paymentLinkUrl"))
+                .build();
+
+        payment = paymentRepository.save(payment);
+        shardLocator.remember(payment);
+        paymentMetrics.recordStatusTransition(payment.getGatewayType(), null, payment.getStatus());
+        paymentStatsService.recordTransition(payment, null, payment.getStatus());
+        return payment;
+    }
+
+    /**
+     * Stores a payment link created by a previous run that died before saving it. Without a
+     * journaled outcome the call is repeated with the same idempotency key where the gateway
+     * deduplicates, which returns the original link; otherwise it is unknown whether a link
+     * exists, and the order is left to be initiated again. Returns whether a payment was stored.
+     */
+    public boolean recoverPaymentLink(@ShardKey(ShardKey.Type.ORDER_ID) String orderId, PendingPaymentLink pending) {
+        if (paymentRepository.findByOrderId(orderId).isPresent()) {
+            return false;
+        }
+        Map<String, String> gatewayResponse;
+        if (pending.hasOutcome()) {
+            gatewayResponse = Map.of("paymentLinkId", pending.paymentLinkId(), "paymentLinkUrl",
+                    pending.paymentLinkUrl() != null ? pending.paymentLinkUrl() : "");
+        } else {
+            PaymentGateway gateway = paymentGatewayFactory.getGateway(pending.gatewayType(), pending.merchantId());
+            if (!gateway.supportsIdempotencyKeys()) {
+                logger.warn("Payment link creation for orderId {} was interrupted before {} answered; not recoverable",
+                        orderId, pending.gatewayType());
+                return false;
+            }
+            try {
+                gatewayResponse = gateway.generatePaymentLink(orderId, pending.amount(), pending.phoneNumber(),
+                        pending.email(), PAYMENT_LINK_KEY_PREFIX + orderId);
+            } catch (RazorpayException e) {
+                throw new PaymentProcessingException("Failed to recover payment link: " + e.getMessage(), e);
+            }
+        }
+        Map<String, String> created = gatewayResponse;
+        Payment payment = transactionTemplate.execute(status -> savePaymentLink(orderId, pending.amount(),
+                pending.phoneNumber(), pending.email(), pending.gatewayType(), pending.merchantId(), created));
+        logger.info("Recovered payment link for orderId: {}, paymentLinkId: {}", orderId, payment.getPaymentLinkId());
+        return true;
+    }
+
+    /**
+     * The gateway is asked without a transaction open; its answer is then applied to a fresh read
+     * of the row, so a refund reserved during the call is not overwritten.
+     */
+    public VerifyPaymentResponseDto verifyPayment(@ShardKey(ShardKey.Type.PAYMENT_ID) String paymentId,
+                                                  @ShardKey(ShardKey.Type.ORDER_ID) String orderId) {
         Payment payment = null;
         
         if (paymentId != null && !paymentId.isEmpty()) {
@@ -96,145 +210,444 @@ public class PaymentService {
             logger.warn("Payment not found - paymentId: {}, orderId: {}", paymentId, orderId);
             throw new PaymentNotFoundException("Payment not found");
         }
+        LogContext.payment(payment);
 
         try {
-            PaymentGateway gateway = paymentGatewayFactory.getGateway(payment.getGatewayType());
+            PaymentGateway gateway = paymentGatewayFactory.getGateway(payment.getGatewayType(), payment.getMerchantId());
             String paymentIdToVerify = payment.getPaymentId() != null ? payment.getPaymentId() : paymentId;
             Map<String, String> gatewayResponse = gateway.verifyPayment(paymentIdToVerify);
 
-            // Update payment status
-            String status = gatewayResponse.get("status");
-            if (PaymentConstants.STATUS_CAPTURED.equals(status) || 
-                PaymentConstants.STATUS_PAID.equals(status) || 
-                PaymentConstants.STATUS_SUCCEEDED.equals(status)) {
-                payment.setStatus(Payment.PaymentStatus.SUCCESS);
-                if (payment.getPaymentId() == null) {
-                    payment.setPaymentId(gatewayResponse.get("paymentId"));
-                }
-            } else if (PaymentConstants.STATUS_FAILED.equals(status) || 
-                       PaymentConstants.STATUS_CANCELED.equals(status)) {
-                payment.setStatus(Payment.PaymentStatus.FAILED);
-            }
-
-            payment = paymentRepository.save(payment);
+            Long rowId = payment.getId();
+            payment = transactionTemplate.execute(status -> applyVerification(rowId, gatewayResponse));
+            shardLocator.remember(payment);
             logger.info("Payment verified - paymentId: {}, status: {}", payment.getPaymentId(), payment.getStatus());
 
-            VerifyPaymentResponseDto response = new VerifyPaymentResponseDto();
-            response.setPaymentId(payment.getPaymentId());
-            response.setOrderId(payment.getOrderId());
-            response.setStatus(payment.getStatus().toString());
-            response.setAmount(Long.parseLong(gatewayResponse.get("amount")));
-            response.setCurrency(gatewayResponse.get("currency"));
-            response.setMessage(PaymentConstants.MESSAGE_PAYMENT_VERIFIED);
-            return response;
+            return PaymentResponseMapper.toVerifyResponse(payment, gatewayResponse);
         } catch (RazorpayException e) {
             logger.error("Gateway error while verifying payment: {}", paymentId, e);
             throw new PaymentProcessingException("Failed to verify payment: " + e.getMessage(), e);
         }
     }
 
-    @Transactional
-    public RefundPaymentResponseDto refundPayment(String paymentId, Long amount) {
-        Payment payment = paymentRepository.findByPaymentId(paymentId)
-                .orElseThrow(() -> {
-                    logger.warn("Payment not found for refund: {}", paymentId);
-                    return new PaymentNotFoundException("Payment not found");
-                });
-
-        if (payment.getStatus() != Payment.PaymentStatus.SUCCESS) {
-            logger.warn("Invalid payment state for refund - paymentId: {}, status: {}", 
-                    paymentId, payment.getStatus());
-            throw new InvalidPaymentStateException("Only successful payments can be refunded");
+    private Payment applyVerification(Long rowId, Map<String, String> gatewayResponse) {
+        Payment payment = paymentRepository.findById(rowId)
+                .orElseThrow(() -> new PaymentNotFoundException("Payment not found"));
+        // Update payment status
+        String status = gatewayResponse.get("status");
+        if (PaymentConstants.STATUS_CAPTURED.equals(status) || 
+            PaymentConstants.STATUS_PAID.equals(status) || 
+            PaymentConstants.STATUS_SUCCEEDED.equals(status)) {
+            // Once refunds exist the refund ledger owns the status; the gateway still reports the capture
+            if (payment.getRefundedAmount() == 0) {
+                updateStatus(payment, Payment.PaymentStatus.SUCCESS);
+            }
+            if (payment.getPaymentId() == null) {
+                payment.setPaymentId(gatewayResponse.get("paymentId"));
+                paymentIdIndex.add(payment.getPaymentId());
+            }
+        } else if (PaymentConstants.STATUS_FAILED.equals(status) || 
+                   PaymentConstants.STATUS_CANCELED.equals(status)) {
+            updateStatus(payment, Payment.PaymentStatus.FAILED);
         }
+        return paymentRepository.save(payment);
+    }
 
+    /**
+     * Refunds are serialized per payment: a striped lock orders refunds on this node, and a
+     * guarded update reserves the amount against Payment.amount, so refunds from other nodes
+     * can never over-refund. The reservation commits before the gateway call, so no database
+     * connection is held while the gateway is called. A failed call releases the reservation.
+     * The intent is journaled under the refund's idempotency key before the reservation, so a
+     * crash at any later point leaves an open operation that recovery settles or releases.
+     */
+    public RefundPaymentResponseDto refundPayment(@ShardKey(ShardKey.Type.PAYMENT_ID) String paymentId, Long amount) {
+        ReentrantLock lock = refundLocks.get(paymentId);
+        if (!tryLock(lock)) {
+            logger.warn("Refund already in progress for paymentId: {}", paymentId);
+            throw new InvalidPaymentStateException("Another refund for this payment is in progress");
+        }
         try {
-            PaymentGateway gateway = paymentGatewayFactory.getGateway(payment.getGatewayType());
-            Map<String, String> gatewayResponse = gateway.refundPayment(paymentId, amount);
-
-            payment.setStatus(Payment.PaymentStatus.REFUNDED);
-            payment = paymentRepository.save(payment);
-            logger.info("Refund processed successfully - paymentId: {}, refundId: {}", 
-                    paymentId, gatewayResponse.get("refundId"));
-
-            RefundPaymentResponseDto response = new RefundPaymentResponseDto();
-            response.setRefundId(gatewayResponse.get("refundId"));
-            response.setPaymentId(paymentId);
-            response.setAmount(Long.parseLong(gatewayResponse.get("amount")));
-            response.setStatus(gatewayResponse.get("status"));
-            response.setMessage(PaymentConstants.MESSAGE_REFUND_PROCESSED);
+            String idempotencyKey = UUID.randomUUID().toString();
+            long journalOp = gatewayJournal.refundIntent(idempotencyKey, paymentId);
+            RefundReservation reservation;
+            try {
+                reservation = transactionTemplate.execute(status -> reserveRefund(paymentId, amount, idempotencyKey));
+            } catch (PaymentNotFoundException | InvalidPaymentStateException e) {
+                // Rejected before anything was reserved. Other failures leave the intent open, since the
+                // reservation may have committed; recovery looks the key up and settles or releases it
+                gatewayJournal.close(journalOp);
+                throw e;
+            }
+            Map<String, String> gatewayResponse;
+            try {
+                PaymentGateway gateway = paymentGatewayFactory.getGateway(reservation.gatewayType(), reservation.merchantId());
+                gatewayResponse = gateway.refundPayment(paymentId, reservation.amount(), reservation.idempotencyKey());
+            } catch (RazorpayException | RuntimeException e) {
+                logger.error("Gateway error while processing refund: {}", paymentId, e);
+                transactionTemplate.executeWithoutResult(status -> releaseRefund(reservation, e.getMessage()));
+                gatewayJournal.close(journalOp);
+                throw new PaymentProcessingException("Failed to process refund: " + e.getMessage(), e);
+            }
+            gatewayJournal.refundOutcome(journalOp, gatewayResponse);
+            RefundPaymentResponseDto response = transactionTemplate.execute(status -> completeRefund(reservation, gatewayResponse));
+            gatewayJournal.close(journalOp);
             return response;
-        } catch (RazorpayException e) {
-            logger.error("Gateway error while processing refund: {}", paymentId, e);
-            throw new PaymentProcessingException("Failed to process refund: " + e.getMessage(), e);
+        } finally {
+            lock.unlock();
         }
     }
 
-    public PaymentStatusResponseDto getPaymentStatus(String paymentId) {
-        Payment payment = paymentRepository.findByPaymentId(paymentId)
-                .orElse(null);
-
-        if (payment == null) {
-            logger.warn("Payment not found in database, attempting to fetch from gateway: {}", paymentId);
-            // Try to get status from gateway directly (default to Razorpay)
-            try {
-                PaymentGateway gateway = paymentGatewayFactory.getGateway(PaymentConstants.GATEWAY_RAZORPAY);
-                Map<String, String> gatewayResponse = gateway.getPaymentStatus(paymentId);
-                PaymentStatusResponseDto response = new PaymentStatusResponseDto();
-                response.setPaymentId(gatewayResponse.get("paymentId"));
-                response.setOrderId(gatewayResponse.get("orderId"));
-                response.setStatus(gatewayResponse.get("status"));
-                response.setAmount(Long.parseLong(gatewayResponse.get("amount")));
-                response.setCurrency(gatewayResponse.get("currency"));
-                response.setMethod(gatewayResponse.get("method"));
-                return response;
-            } catch (RazorpayException e) {
-                logger.error("Failed to fetch payment status from gateway: {}", paymentId, e);
-                throw new PaymentNotFoundException("Payment not found: " + paymentId);
+    /**
+     * Settles a refund whose reservation a previous run committed but never completed. A journaled
+     * outcome completes it. Without one, gateways that deduplicate get the call again under the
+     * same key; for the others the reservation is released, and the bulk sync books the refund
+     * if it did reach the gateway. No refund under the journaled key means the run stopped before
+     * its reservation committed. Returns whether the refund was still pending.
+     */
+    public boolean recoverRefund(@ShardKey(ShardKey.Type.PAYMENT_ID) String paymentId, PendingRefund pending) {
+        ReentrantLock lock = refundLocks.get(paymentId);
+        lock.lock();
+        try {
+            RefundReservation reservation = transactionTemplate.execute(status -> refundRepository
+                    .findByIdempotencyKey(pending.idempotencyKey())
+                    .filter(refund -> refund.getStatus() == Refund.RefundStatus.PENDING)
+                    .map(refund -> new RefundReservation(refund.getId(), refund.getPayment().getId(), refund.getAmount(),
+                            refund.getIdempotencyKey(), refund.getPayment().getGatewayType(),
+                            refund.getPayment().getMerchantId()))
+                    .orElse(null));
+            if (reservation == null) {
+                return false;
+            }
+            Map<String, String> gatewayResponse;
+            if (pending.hasOutcome()) {
+                gatewayResponse = Map.of("refundId", pending.gatewayRefundId(),
+                        "status", pending.gatewayStatus() != null ? pending.gatewayStatus() : "",
+                        "amount", String.valueOf(reservation.amount()));
+            } else {
+                PaymentGateway gateway = paymentGatewayFactory.getGateway(reservation.gatewayType(), reservation.merchantId());
+                if (!gateway.supportsIdempotencyKeys()) {
+                    transactionTemplate.executeWithoutResult(status -> releaseRefund(reservation,
+                            "Interrupted before the gateway answered"));
+                    logger.warn("Released refund {} of paymentId {} interrupted before {} answered",
+                            reservation.refundId(), paymentId, reservation.gatewayType());
+                    return true;
+                }
+                try {
+                    gatewayResponse = gateway.refundPayment(paymentId, reservation.amount(),
+                            reservation.idempotencyKey());
+                } catch (RazorpayException | RuntimeException e) {
+                    transactionTemplate.executeWithoutResult(status -> releaseRefund(reservation, e.getMessage()));
+                    logger.warn("Released refund {} of paymentId {} after the recovery call failed: {}",
+                            reservation.refundId(), paymentId, e.getMessage());
+                    return true;
+                }
             }
+            transactionTemplate.execute(status -> completeRefund(reservation, gatewayResponse));
+            logger.info("Recovered refund {} of paymentId {}", reservation.refundId(), paymentId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public PaymentStatusResponseDto getPaymentStatus(@ShardKey(ShardKey.Type.PAYMENT_ID) String paymentId) {
+        if (paymentIdIndex.isKnownAbsent(paymentId)) {
+            logger.debug("Rejecting lookup for unknown paymentId: {}", paymentId);
+            throw PaymentNotFoundException.withoutStackTrace("Payment not found: " + paymentId);
         }
 
+        // Only ids stored here are asked about at the gateway, so an unknown id can't cost a gateway call
+        Payment payment = paymentRepository.findByPaymentId(paymentId)
+                .orElseThrow(() -> {
+                    logger.debug("Payment not found for paymentId: {}", paymentId);
+                    paymentIdIndex.markAbsent(paymentId);
+                    return PaymentNotFoundException.withoutStackTrace("Payment not found: " + paymentId);
+                });
+
+        LogContext.payment(payment);
+
         // Get latest status from gateway
         if (payment.getPaymentId() != null) {
             try {
-                PaymentGateway gateway = paymentGatewayFactory.getGateway(payment.getGatewayType());
+                PaymentGateway gateway = paymentGatewayFactory.getGateway(payment.getGatewayType(), payment.getMerchantId());
                 Map<String, String> gatewayResponse = gateway.getPaymentStatus(payment.getPaymentId());
-                
-                PaymentStatusResponseDto response = new PaymentStatusResponseDto();
-                response.setPaymentId(payment.getPaymentId());
-                response.setOrderId(payment.getOrderId());
-                response.setStatus(gatewayResponse.get("status"));
-                response.setAmount(Long.parseLong(gatewayResponse.get("amount")));
-                response.setCurrency(gatewayResponse.get("currency"));
-                response.setMethod(gatewayResponse.get("method"));
-                return response;
+                return PaymentResponseMapper.toStatusResponse(payment, gatewayResponse);
             } catch (RazorpayException e) {
                 logger.error("Failed to fetch payment status from gateway: {}", payment.getPaymentId(), e);
                 // Fall back to database status
             }
         }
 
-        PaymentStatusResponseDto response = new PaymentStatusResponseDto();
-        response.setPaymentId(payment.getPaymentId());
-        response.setOrderId(payment.getOrderId());
-        response.setStatus(payment.getStatus().toString());
-        response.setAmount(payment.getAmount());
-        response.setCurrency(payment.getCurrency());
-        return response;
+        return PaymentResponseMapper.toStatusResponse(payment);
+    }
+
+    // Stored status only, without asking the gateway; for callers that poll
+    public PaymentStatusResponseDto getStoredPaymentStatus(@ShardKey(ShardKey.Type.PAYMENT_ID) String paymentId) {
+        if (paymentIdIndex.isKnownAbsent(paymentId)) {
+            throw PaymentNotFoundException.withoutStackTrace("Payment not found: " + paymentId);
+        }
+        Payment payment = paymentRepository.findByPaymentId(paymentId)
+                .orElseThrow(() -> PaymentNotFoundException.withoutStackTrace("Payment not found: " + paymentId));
+        return PaymentResponseMapper.toStatusResponse(payment);
+    }
+
+    public Optional<PaymentVersion> getPaymentVersion(@ShardKey(ShardKey.Type.PAYMENT_ID) String paymentId) {
+        if (paymentIdIndex.isKnownAbsent(paymentId)) {
+            return Optional.empty();
+        }
+        return paymentRepository.findVersionByPaymentId(paymentId);
+    }
+
+    public Optional<PaymentVersion> getPaymentVersionByOrderId(@ShardKey(ShardKey.Type.ORDER_ID) String orderId) {
+        return paymentRepository.findVersionByOrderId(orderId);
     }
 
-    public PaymentStatusResponseDto getPaymentStatusByOrderId(String orderId) {
+    public PaymentStatusResponseDto getPaymentStatusByOrderId(@ShardKey(ShardKey.Type.ORDER_ID) String orderId) {
         Payment payment = paymentRepository.findByOrderId(orderId)
                 .orElseThrow(() -> {
                     logger.warn("Payment not found for orderId: {}", orderId);
                     return new PaymentNotFoundException("Payment not found for order: " + orderId);
                 });
 
-        PaymentStatusResponseDto response = new PaymentStatusResponseDto();
-        response.setPaymentId(payment.getPaymentId());
-        response.setOrderId(payment.getOrderId());
-        response.setStatus(payment.getStatus().toString());
-        response.setAmount(payment.getAmount());
-        response.setCurrency(payment.getCurrency());
-        return response;
+        return PaymentResponseMapper.toStatusResponse(payment);
+    }
+
+    /**
+     * Applies a page of gateway list records to the payments of the shard the caller has bound, in
+     * one transaction whose updates are flushed as a JDBC batch. Follows the verify rules: a
+     * successful record settles a pending or failed payment, a failed one only a pending payment.
+     * Refunds the gateway reports beyond the local ledger were made outside this service, or
+     * their completion was lost; each is booked afterwards under the payment's refund lock.
+     * Returns the number of payments changed.
+     */
+    public int applyGatewayRecords(Payment.PaymentGatewayType gatewayType, String merchantId,
+                                   List<GatewayPaymentRecord> records) {
+        List<GatewayRefundDrift> refundDrifts = new ArrayList<>();
+        Integer updated = transactionTemplate.execute(
+                status -> applyGatewayStatuses(gatewayType, merchantId, records, refundDrifts));
+        int booked = 0;
+        for (GatewayRefundDrift drift : refundDrifts) {
+            if (bookGatewayRefund(drift)) {
+                booked++;
+            }
+        }
+        return (updated != null ? updated : 0) + booked;
+    }
+
+    private int applyGatewayStatuses(Payment.PaymentGatewayType gatewayType, String merchantId,
+                                     List<GatewayPaymentRecord> records, List<GatewayRefundDrift> refundDrifts) {
+        Map<String, GatewayPaymentRecord> byLinkId = new HashMap<>();
+        Map<String, GatewayPaymentRecord> byOrderId = new HashMap<>();
+        for (GatewayPaymentRecord record : records) {
+            // A link can have several attempts; a successful one decides the outcome
+            if (record.paymentLinkId() != null) {
+                byLinkId.merge(record.paymentLinkId(), record, PaymentService::preferSettled);
+            } else if (record.orderId() != null) {
+                byOrderId.merge(record.orderId(), record, PaymentService::preferSettled);
+            }
+        }
+        Map<Long, Payment> payments = new HashMap<>();
+        if (!byLinkId.isEmpty()) {
+            paymentRepository.findByPaymentLinkIdIn(byLinkId.keySet()).forEach(payment -> payments.put(payment.getId(), payment));
+        }
+        if (!byOrderId.isEmpty()) {
+            paymentRepository.findByOrderIdIn(byOrderId.keySet()).forEach(payment -> payments.put(payment.getId(), payment));
+        }
+
+        List<Payment> changed = new ArrayList<>();
+        for (Payment payment : payments.values()) {
+            if (payment.getGatewayType() != gatewayType || !Objects.equals(payment.getMerchantId(), merchantId)) {
+                continue;
+            }
+            GatewayPaymentRecord record = payment.getPaymentLinkId() != null ? byLinkId.get(payment.getPaymentLinkId()) : null;
+            if (record == null) {
+                record = byOrderId.get(payment.getOrderId());
+            }
+            if (record != null && applyGatewayRecord(payment, record, refundDrifts)) {
+                changed.add(payment);
+            }
+        }
+        paymentRepository.saveAll(changed);
+        for (Payment payment : changed) {
+            paymentIdIndex.add(payment.getPaymentId());
+            shardLocator.remember(payment);
+        }
+        return changed.size();
+    }
+
+    private boolean applyGatewayRecord(Payment payment, GatewayPaymentRecord record, List<GatewayRefundDrift> refundDrifts) {
+        Payment.PaymentStatus current = payment.getStatus();
+        if (isSettled(record.status())) {
+            boolean changed = false;
+            // FAILED is not terminal (see PaymentStatus.isTerminal): a later attempt on the link can still succeed
+            if (current == Payment.PaymentStatus.PENDING || current == Payment.PaymentStatus.FAILED) {
+                if (payment.getRefundedAmount() == 0) {
+                    updateStatus(payment, Payment.PaymentStatus.SUCCESS);
+                }
+                // A failed attempt may have left its id behind; the successful attempt replaces it
+                payment.setPaymentId(record.paymentId());
+                changed = true;
+            } else if (payment.getPaymentId() == null) {
+                payment.setPaymentId(record.paymentId());
+                changed = true;
+            }
+            if (record.amountRefunded() > payment.getRefundedAmount()) {
+                refundDrifts.add(new GatewayRefundDrift(payment.getId(), record.paymentId(), record.amountRefunded()));
+            }
+            return changed;
+        }
+        if (isFailed(record.status()) && current == Payment.PaymentStatus.PENDING) {
+            updateStatus(payment, Payment.PaymentStatus.FAILED);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean bookGatewayRefund(GatewayRefundDrift drift) {
+        ReentrantLock lock = refundLocks.get(drift.paymentId());
+        // A refund in flight on this node is changing the ledger; the next sync looks again
+        if (!lock.tryLock()) {
+            return false;
+        }
+        try {
+            // Same two steps as a refund made here: the guarded update, then the status from a fresh read. The
+            // guard is the total read here, so nodes syncing the same drift book it once between them
+            Long booked = transactionTemplate.execute(status -> {
+                Payment payment = paymentRepository.findById(drift.paymentRowId()).orElse(null);
+                if (payment == null || !payment.getStatus().isRefundable()) {
+                    return null;
+                }
+                long seen = payment.getRefundedAmount();
+                long amount = drift.gatewayRefunded() - seen;
+                if (amount <= 0 || paymentRepository.bookRefundIfUnchanged(payment.getId(), seen, drift.gatewayRefunded(),
+                        REFUNDABLE_STATUSES) == 0) {
+                    return null;
+                }
+                refundRepository.save(Refund.builder()
+                        .payment(payment)
+                        .amount(amount)
+                        .idempotencyKey(UUID.randomUUID().toString())
+                        .status(Refund.RefundStatus.SUCCEEDED)
+                        .gatewayStatus(SYNCED_REFUND_STATUS)
+                        .build());
+                return amount;
+            });
+            if (booked == null) {
+                return false;
+            }
+            transactionTemplate.executeWithoutResult(status -> paymentRepository.findById(drift.paymentRowId())
+                    .ifPresent(payment -> updateStatus(payment, refundStatus(payment))));
+            logger.warn("Booked refund of {} reported by the gateway but missing from the ledger - paymentId: {}",
+                    booked, drift.paymentId());
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static GatewayPaymentRecord preferSettled(GatewayPaymentRecord existing, GatewayPaymentRecord candidate) {
+        return isSettled(existing.status()) ? existing : candidate;
+    }
+
+    private static boolean isSettled(String gatewayStatus) {
+        return PaymentConstants.STATUS_CAPTURED.equals(gatewayStatus)
+                || PaymentConstants.STATUS_PAID.equals(gatewayStatus)
+                || PaymentConstants.STATUS_SUCCEEDED.equals(gatewayStatus)
+                || PaymentConstants.STATUS_REFUNDED.equals(gatewayStatus);
+    }
+
+    private static boolean isFailed(String gatewayStatus) {
+        return PaymentConstants.STATUS_FAILED.equals(gatewayStatus)
+                || PaymentConstants.STATUS_CANCELED.equals(gatewayStatus);
+    }
+
+    private RefundReservation reserveRefund(String paymentId, Long requestedAmount, String idempotencyKey) {
+        Payment payment = paymentRepository.findByPaymentId(paymentId)
+                .orElseThrow(() -> {
+                    logger.warn("Payment not found for refund: {}", paymentId);
+                    return new PaymentNotFoundException("Payment not found");
+                });
+        LogContext.payment(payment);
+
+        if (!payment.getStatus().isRefundable()) {
+            logger.warn("Invalid payment state for refund - paymentId: {}, status: {}",
+                    paymentId, payment.getStatus());
+            throw new InvalidPaymentStateException("Only successful payments can be refunded");
+        }
+
+        long remaining = payment.getAmount() - payment.getRefundedAmount();
+        long amount = requestedAmount != null ? requestedAmount : remaining;
+        // Re-checked by the guarded update, since another node may have reserved since the row was read
+        if (amount <= 0 || amount > remaining
+                || paymentRepository.reserveRefund(payment.getId(), amount, REFUNDABLE_STATUSES) == 0) {
+            logger.warn("Refund exceeds refundable amount - paymentId: {}, requested: {}, remaining: {}",
+                    paymentId, amount, remaining);
+            throw new InvalidPaymentStateException("Refund amount exceeds the refundable amount of " + remaining);
+        }
+
+        Refund refund = refundRepository.save(Refund.builder()
+                .payment(payment)
+                .amount(amount)
+                .idempotencyKey(idempotencyKey)
+                .status(Refund.RefundStatus.PENDING)
+                .build());
+        return new RefundReservation(refund.getId(), payment.getId(), amount, idempotencyKey,
+                payment.getGatewayType(), payment.getMerchantId());
+    }
+
+    private RefundPaymentResponseDto completeRefund(RefundReservation reservation, Map<String, String> gatewayResponse) {
+        Refund refund = refundRepository.findById(reservation.refundId()).orElseThrow();
+        refund.setStatus(Refund.RefundStatus.SUCCEEDED);
+        refund.setGatewayRefundId(gatewayResponse.get("refundId"));
+        refund.setGatewayStatus(gatewayResponse.get("status"));
+
+        Payment payment = paymentRepository.findById(reservation.paymentId()).orElseThrow();
+        updateStatus(payment, refundStatus(payment));
+        payment = paymentRepository.save(payment);
+        logger.info("Refund processed successfully - paymentId: {}, refundId: {}, refunded: {} of {}",
+                payment.getPaymentId(), refund.getGatewayRefundId(), payment.getRefundedAmount(), payment.getAmount());
+        return PaymentResponseMapper.toRefundResponse(payment, gatewayResponse);
+    }
+
+    private void releaseRefund(RefundReservation reservation, String reason) {
+        paymentRepository.releaseRefund(reservation.paymentId(), reservation.amount());
+        refundRepository.findById(reservation.refundId()).ifPresent(refund -> {
+            refund.setStatus(Refund.RefundStatus.FAILED);
+            refund.setFailureReason(reason != null && reason.length() > 255 ? reason.substring(0, 255) : reason);
+        });
+        paymentRepository.findById(reservation.paymentId()).ifPresent(payment -> updateStatus(payment, refundStatus(payment)));
+    }
+
+    private boolean tryLock(ReentrantLock lock) {
+        try {
+            return lock.tryLock(refundLockTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Status implied by the refunded total of a payment that was successful
+    private static Payment.PaymentStatus refundStatus(Payment payment) {
+        if (payment.getRefundedAmount() <= 0) {
+            return Payment.PaymentStatus.SUCCESS;
+        }
+        return payment.getRefundedAmount() >= payment.getAmount()
+                ? Payment.PaymentStatus.REFUNDED
+                : Payment.PaymentStatus.PARTIALLY_REFUNDED;
+    }
+
+    private void updateStatus(Payment payment, Payment.PaymentStatus status) {
+        Payment.PaymentStatus previous = payment.getStatus();
+        payment.setStatus(status);
+        paymentMetrics.recordStatusTransition(payment.getGatewayType(), previous, status);
+        paymentStatsService.recordTransition(payment, previous, status);
+    }
+
+    private record RefundReservation(Long refundId, Long paymentId, long amount, String idempotencyKey,
+                                     Payment.PaymentGatewayType gatewayType, String merchantId) {
+    }
+
+    private record GatewayRefundDrift(Long paymentRowId, String paymentId, long gatewayRefunded) {
     }
 }
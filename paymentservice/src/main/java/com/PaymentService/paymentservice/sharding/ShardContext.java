@@ -0,0 +1,48 @@
+package com.PaymentService.paymentservice.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard the current thread's database work is routed to. Read by {@link ShardRoutingDataSource}
+ * when a connection is opened, so it must be set before a transaction begins.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T callOn(String shardId, Supplier<T> work) {
+        String previous = bind(shardId);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void runOn(String shardId, Runnable work) {
+        callOn(shardId, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    static String bind(String shardId) {
+        String previous = CURRENT.get();
+        CURRENT.set(shardId);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
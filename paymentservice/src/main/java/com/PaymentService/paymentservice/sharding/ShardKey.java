@@ -0,0 +1,32 @@
+package com.PaymentService.paymentservice.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the service method parameter that decides which shard the call runs on. When several
+ * parameters are marked, the first one with a non-empty value wins.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+    Type value();
+
+    enum Type {
+        ORDER_ID("order_id"),
+        PAYMENT_ID("payment_id"),
+        PAYMENT_LINK_ID("payment_link_id");
+
+        private final String column;
+
+        Type(String column) {
+            this.column = column;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.PaymentService.paymentservice.sharding;
+
+import com.PaymentService.paymentservice.cache.PaymentIdIndex;
+import com.PaymentService.paymentservice.models.Payment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves which shard holds a payment. Orders are placed by the hash ring, so an orderId maps
+ * straight to its shard. Gateway-issued payment and link ids carry no shard information. They are
+ * resolved through a bounded in-memory locator, filled when this node writes them. On a miss the
+ * locator probes every shard.
+ */
+@Component
+public class ShardLocator {
+    private static final Logger logger = LoggerFactory.getLogger(ShardLocator.class);
+
+    private final ShardTopology topology;
+    private final PaymentIdIndex paymentIdIndex;
+    private final Map<String, JdbcTemplate> jdbcTemplates = new LinkedHashMap<>();
+    private final ConcurrentHashMap<String, String> locations = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public ShardLocator(ShardTopology topology, PaymentIdIndex paymentIdIndex, ShardingProperties properties) {
+        this.topology = topology;
+        this.paymentIdIndex = paymentIdIndex;
+        this.maxSize = properties.getLocatorCacheSize();
+        for (String shardId : topology.shardIds()) {
+            jdbcTemplates.put(shardId, new JdbcTemplate(topology.dataSource(shardId)));
+        }
+    }
+
+    public String locate(ShardKey.Type type, String key) {
+        if (!topology.isSharded()) {
+            return topology.shardIds().get(0);
+        }
+        String owner = type == ShardKey.Type.ORDER_ID ? topology.ownerOf(key) : null;
+        if (!topology.isRebalancing()) {
+            if (owner != null) {
+                return owner;
+            }
+            if (type == ShardKey.Type.PAYMENT_ID && paymentIdIndex.isKnownAbsent(key)) {
+                return topology.shardIds().get(0);
+            }
+            String cached = locations.get(cacheKey(type, key));
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Rows may sit on a shard other than the ring owner while a rebalance is moving them
+        String found = owner != null && exists(owner, type, key) ? owner : probe(type, key, owner);
+        if (found == null) {
+            return owner != null ? owner : topology.shardIds().get(0);
+        }
+        if (!topology.isRebalancing() && owner == null) {
+            put(cacheKey(type, key), found);
+        }
+        return found;
+    }
+
+    // Records where this node just stored a payment's gateway ids
+    public void remember(Payment payment) {
+        if (!topology.isSharded()) {
+            return;
+        }
+        String shardId = ShardContext.current() != null ? ShardContext.current() : topology.ownerOf(payment.getOrderId());
+        if (payment.getPaymentLinkId() != null) {
+            put(cacheKey(ShardKey.Type.PAYMENT_LINK_ID, payment.getPaymentLinkId()), shardId);
+        }
+        if (payment.getPaymentId() != null) {
+            put(cacheKey(ShardKey.Type.PAYMENT_ID, payment.getPaymentId()), shardId);
+        }
+    }
+
+    public void forget(ShardKey.Type type, String key) {
+        if (key != null) {
+            locations.remove(cacheKey(type, key));
+        }
+    }
+
+    private String probe(ShardKey.Type type, String key, String skip) {
+        for (String shardId : topology.shardIds()) {
+            if (!shardId.equals(skip) && exists(shardId, type, key)) {
+                return shardId;
+            }
+        }
+        logger.debug("No shard holds {} {}", type, key);
+        return null;
+    }
+
+    private boolean exists(String shardId, ShardKey.Type type, String key) {
+        return !jdbcTemplates.get(shardId)
+                .queryForList("select 1 from payments where " + type.getColumn() + " = ? limit 1", Integer.class, key)
+                .isEmpty();
+    }
+
+    private void put(String cacheKey, String shardId) {
+        if (locations.size() >= maxSize) {
+            // Entries are cheap to rebuild by probing, so a full locator just starts over
+            locations.clear();
+        }
+        locations.put(cacheKey, shardId);
+    }
+
+    private static String cacheKey(ShardKey.Type type, String key) {
+        return type.ordinal() + ":" + key;
+    }
+}
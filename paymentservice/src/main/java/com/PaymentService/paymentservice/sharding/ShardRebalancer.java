@@ -0,0 +1,273 @@
+package com.PaymentService.paymentservice.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Moves payment rows to the shard the ring now assigns them to, while the service keeps running.
+ * Each row moves in three steps under a lock on the source row: copy it and its refunds to the
+ * target and commit there, read the copy back and check it matches, then delete the source rows.
+ * The copy is keyed by order_id and each refund's idempotency key, so re-running after a crash
+ * between the steps completes the move instead of duplicating it. A copy that does not match is
+ * left on both shards and counted as a conflict for an operator. Payments with a refund still
+ * PENDING are skipped, since its completion is written to the shard it was reserved on.
+ * Nodes must run with payment.sharding.rebalancing=true until the move completes, so that order
+ * lookups probe every shard.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.sharding.enabled", havingValue = "true")
+public class ShardRebalancer {
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalancer.class);
+    private static final String PENDING_REFUND = "PENDING";
+
+    private final ShardTopology topology;
+    private final ShardLocator shardLocator;
+    private final Map<String, JdbcTemplate> jdbcTemplates = new LinkedHashMap<>();
+    private final Map<String, TransactionTemplate> transactionTemplates = new LinkedHashMap<>();
+    private final AtomicReference<Progress> progress = new AtomicReference<>();
+
+    public ShardRebalancer(ShardTopology topology, ShardLocator shardLocator) {
+        this.topology = topology;
+        this.shardLocator = shardLocator;
+        for (String shardId : topology.shardIds()) {
+            jdbcTemplates.put(shardId, new JdbcTemplate(topology.dataSource(shardId)));
+            transactionTemplates.put(shardId, new TransactionTemplate(new DataSourceTransactionManager(topology.dataSource(shardId))));
+        }
+    }
+
+    public Progress getProgress() {
+        return progress.get();
+    }
+
+    public Map<String, Long> rowCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplates.forEach((shardId, jdbcTemplate) ->
+                counts.put(shardId, jdbcTemplate.queryForObject("select count(*) from payments", Long.class)));
+        return counts;
+    }
+
+    /**
+     * Starts a rebalance on a background thread. Returns false if one is already running.
+     */
+    public boolean start(int batchSize) {
+        Progress current = progress.get();
+        if (current != null && current.isRunning()) {
+            return false;
+        }
+        Progress fresh = new Progress();
+        if (!progress.compareAndSet(current, fresh)) {
+            return false;
+        }
+        Thread thread = new Thread(() -> run(fresh, batchSize), "shard-rebalancer");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    private void run(Progress progress, int batchSize) {
+        long start = System.nanoTime();
+        try {
+            for (String sourceShard : topology.shardIds()) {
+                rebalanceShard(sourceShard, batchSize, progress);
+            }
+            logger.info("Shard rebalance finished - scanned: {}, moved: {}, skipped: {}, conflicts: {}, in {} ms",
+                    progress.scanned.get(), progress.moved.get(), progress.skipped.get(), progress.conflicts.get(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            progress.failure = e.getMessage();
+            logger.error("Shard rebalance failed after moving {} rows", progress.moved.get(), e);
+        } finally {
+            progress.running = false;
+        }
+    }
+
+    private void rebalanceShard(String sourceShard, int batchSize, Progress progress) {
+        JdbcTemplate source = jdbcTemplates.get(sourceShard);
+        long lastId = 0;
+        while (true) {
+            List<Map<String, Object>> batch = source.queryForList(
+                    "select id, order_id from payments where id > ? order by id limit ?", lastId, batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            for (Map<String, Object> row : batch) {
+                long id = ((Number) row.get("id")).longValue();
+                String targetShard = topology.ownerOf((String) row.get("order_id"));
+                if (!targetShard.equals(sourceShard)) {
+                    switch (moveRow(sourceShard, targetShard, id)) {
+                        case MOVED -> progress.moved.incrementAndGet();
+                        case SKIPPED -> progress.skipped.incrementAndGet();
+                        case CONFLICT -> progress.conflicts.incrementAndGet();
+                        case GONE -> {
+                        }
+                    }
+                }
+                lastId = id;
+            }
+            progress.scanned.addAndGet(batch.size());
+        }
+    }
+
+    private MoveOutcome moveRow(String sourceShard, String targetShard, long id) {
+        JdbcTemplate source = jdbcTemplates.get(sourceShard);
+        JdbcTemplate target = jdbcTemplates.get(targetShard);
+        // The source lock is held while the target commits, so the row cannot change between copy and delete
+        Map<String, Object> moved = new LinkedHashMap<>();
+        MoveOutcome outcome = transactionTemplates.get(sourceShard).execute(status -> {
+            List<Map<String, Object>> rows = source.queryForList("select * from payments where id = ? for update", id);
+            if (rows.isEmpty()) {
+                return MoveOutcome.GONE;
+            }
+            Map<String, Object> row = rows.get(0);
+            List<Map<String, Object>> refunds = source.queryForList("select * from refunds where payment_id = ? for update", id);
+            if (refunds.stream().anyMatch(refund -> PENDING_REFUND.equals(refund.get("status")))) {
+                logger.info("Skipping payment {} on {}: a refund is still pending", row.get("order_id"), sourceShard);
+                return MoveOutcome.SKIPPED;
+            }
+
+            transactionTemplates.get(targetShard).executeWithoutResult(targetStatus -> copy(target, row, refunds));
+            String mismatch = verifyCopy(target, row, refunds);
+            if (mismatch != null) {
+                logger.error("Not moving payment {} from {} to {}: the copy differs in {}; both rows are kept",
+                        row.get("order_id"), sourceShard, targetShard, mismatch);
+                return MoveOutcome.CONFLICT;
+            }
+
+            source.update("delete from refunds where payment_id = ?", id);
+            source.update("delete from payments where id = ?", id);
+            moved.putAll(row);
+            return MoveOutcome.MOVED;
+        });
+        if (outcome == MoveOutcome.MOVED) {
+            shardLocator.forget(ShardKey.Type.PAYMENT_ID, (String) moved.get("payment_id"));
+            shardLocator.forget(ShardKey.Type.PAYMENT_LINK_ID, (String) moved.get("payment_link_id"));
+        }
+        return outcome;
+    }
+
+    // Inserts whatever an earlier, interrupted move has not already copied
+    private static void copy(JdbcTemplate target, Map<String, Object> row, List<Map<String, Object>> refunds) {
+        Long targetId = targetPaymentId(target, row);
+        if (targetId == null) {
+            insertWithoutId(target, "payments", row);
+            targetId = targetPaymentId(target, row);
+        }
+        // The refund ledger follows its payment, re-pointed at the id the target assigned
+        for (Map<String, Object> refund : refunds) {
+            Integer copied = target.queryForObject("select count(*) from refunds where idempotency_key = ?",
+                    Integer.class, refund.get("idempotency_key"));
+            if (copied == 0) {
+                Map<String, Object> copy = new LinkedHashMap<>(refund);
+                copy.put("payment_id", targetId);
+                insertWithoutId(target, "refunds", copy);
+            }
+        }
+    }
+
+    // Returns what differs between the source rows and the target's committed copy, or null if nothing does
+    private static String verifyCopy(JdbcTemplate target, Map<String, Object> row, List<Map<String, Object>> refunds) {
+        List<Map<String, Object>> copies = target.queryForList("select * from payments where order_id = ?", row.get("order_id"));
+        if (copies.isEmpty()) {
+            return "payment";
+        }
+        Map<String, Object> copy = copies.get(0);
+        String column = firstDifference(row, copy, "id");
+        if (column != null) {
+            return "payments." + column;
+        }
+        Map<Object, Map<String, Object>> refundCopies = new HashMap<>();
+        for (Map<String, Object> refundCopy : target.queryForList("select * from refunds where payment_id = ?", copy.get("id"))) {
+            refundCopies.put(refundCopy.get("idempotency_key"), refundCopy);
+        }
+        for (Map<String, Object> refund : refunds) {
+            Map<String, Object> refundCopy = refundCopies.get(refund.get("idempotency_key"));
+            if (refundCopy == null) {
+                return "refund " + refund.get("idempotency_key");
+            }
+            column = firstDifference(refund, refundCopy, "id", "payment_id");
+            if (column != null) {
+                return "refunds." + column + " of refund " + refund.get("idempotency_key");
+            }
+        }
+        return null;
+    }
+
+    private static String firstDifference(Map<String, Object> expected, Map<String, Object> actual, String... ignored) {
+        Set<String> skip = Set.of(ignored);
+        for (Map.Entry<String, Object> entry : expected.entrySet()) {
+            if (!skip.contains(entry.getKey().toLowerCase(Locale.ROOT)) && !Objects.equals(entry.getValue(), actual.get(entry.getKey()))) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private static Long targetPaymentId(JdbcTemplate target, Map<String, Object> row) {
+        List<Long> ids = target.queryForList("select id from payments where order_id = ?", Long.class, row.get("order_id"));
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    // Ids are per-shard auto-increment values; the target assigns its own
+    private static void insertWithoutId(JdbcTemplate target, String table, Map<String, Object> row) {
+        List<String> columns = new ArrayList<>(row.keySet());
+        columns.removeIf(column -> column.equalsIgnoreCase("id"));
+        List<Object> values = columns.stream().map(row::get).collect(Collectors.toList());
+        target.update("insert into " + table + " (" + String.join(", ", columns) + ") values ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")", values.toArray());
+    }
+
+    private enum MoveOutcome {
+        MOVED, SKIPPED, CONFLICT, GONE
+    }
+
+    public static class Progress {
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong moved = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong conflicts = new AtomicLong();
+        private volatile boolean running = true;
+        private volatile String failure;
+
+        public long getScanned() {
+            return scanned.get();
+        }
+
+        public long getMoved() {
+            return moved.get();
+        }
+
+        public long getSkipped() {
+            return skipped.get();
+        }
+
+        public long getConflicts() {
+            return conflicts.get();
+        }
+
+        public boolean isRunning() {
+            return running;
+        }
+
+        public String getFailure() {
+            return failure;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.PaymentService.paymentservice.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Consistent hash ring over shard ids. Each shard owns {@code virtualNodes} points; a key belongs
+ * to the first point at or after its hash. Adding a shard only moves the keys that land on the
+ * new shard's points. Immutable.
+ */
+public final class ShardRing {
+    private final long[] points;
+    private final String[] owners;
+
+    public ShardRing(List<String> shardIds, int virtualNodes) {
+        if (shardIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        int size = shardIds.size() * virtualNodes;
+        long[][] entries = new long[size][2];
+        int n = 0;
+        for (int shard = 0; shard < shardIds.size(); shard++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                entries[n][0] = hash(shardIds.get(shard) + "#" + v);
+                entries[n][1] = shard;
+                n++;
+            }
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = entries[i][0];
+            owners[i] = shardIds.get((int) entries[i][1]);
+        }
+    }
+
+    public String shardFor(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    // 64-bit FNV-1a over UTF-8 bytes followed by a SplitMix64 finalizer to spread short keys
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,15 @@
+package com.PaymentService.paymentservice.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections from the shard bound in {@link ShardContext}. Work with no shard bound
+ * (Hibernate bootstrap, schema validation, health checks) goes to the first shard.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
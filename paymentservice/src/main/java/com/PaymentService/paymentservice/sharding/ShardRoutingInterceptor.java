@@ -0,0 +1,68 @@
+package com.PaymentService.paymentservice.sharding;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binds the shard chosen from a method's {@link ShardKey} argument for the duration of the call.
+ * Ordered ahead of the transaction interceptor so the transaction's connection comes from that
+ * shard. Nested calls keep the shard their caller already bound.
+ */
+class ShardRoutingInterceptor implements MethodInterceptor {
+    private static final ShardKey[] NONE = new ShardKey[0];
+
+    private final ObjectProvider<ShardLocator> shardLocator;
+    private final ConcurrentHashMap<Method, ShardKey[]> shardKeys = new ConcurrentHashMap<>();
+
+    ShardRoutingInterceptor(ObjectProvider<ShardLocator> shardLocator) {
+        this.shardLocator = shardLocator;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (ShardContext.current() != null) {
+            return invocation.proceed();
+        }
+        String shardId = resolveShard(invocation);
+        if (shardId == null) {
+            return invocation.proceed();
+        }
+        String previous = ShardContext.bind(shardId);
+        try {
+            return invocation.proceed();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    private String resolveShard(MethodInvocation invocation) {
+        ShardKey[] keys = shardKeys.computeIfAbsent(invocation.getMethod(), ShardRoutingInterceptor::shardKeys);
+        Object[] arguments = invocation.getArguments();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && arguments[i] instanceof String key && !key.isEmpty()) {
+                return shardLocator.getObject().locate(keys[i].value(), key);
+            }
+        }
+        return null;
+    }
+
+    static ShardKey[] shardKeys(Method method) {
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        ShardKey[] keys = new ShardKey[parameterAnnotations.length];
+        boolean any = false;
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof ShardKey shardKey) {
+                    keys[i] = shardKey;
+                    any = true;
+                }
+            }
+        }
+        return any ? keys : NONE;
+    }
+}
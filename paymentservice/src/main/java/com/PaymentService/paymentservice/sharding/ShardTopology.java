@@ -0,0 +1,77 @@
+package com.PaymentService.paymentservice.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The set of payment shards, their data sources and the ring that assigns orders to them. Without
+ * sharding it holds the application's single data source under {@link #SINGLE_SHARD_ID}, so code
+ * that walks every shard works unchanged.
+ */
+public class ShardTopology {
+    public static final String SINGLE_SHARD_ID = "default";
+
+    private final Map<String, DataSource> dataSources;
+    private final List<String> shardIds;
+    private final ShardRing ring;
+    private final boolean sharded;
+    private final boolean rebalancing;
+
+    public ShardTopology(Map<String, DataSource> dataSources, int virtualNodes, boolean rebalancing) {
+        this.dataSources = Collections.unmodifiableMap(new LinkedHashMap<>(dataSources));
+        this.shardIds = List.copyOf(new ArrayList<>(dataSources.keySet()));
+        this.ring = new ShardRing(shardIds, virtualNodes);
+        this.sharded = dataSources.size() > 1;
+        this.rebalancing = rebalancing;
+    }
+
+    public static ShardTopology single(DataSource dataSource) {
+        return new ShardTopology(Map.of(SINGLE_SHARD_ID, dataSource), 1, false);
+    }
+
+    public List<String> shardIds() {
+        return shardIds;
+    }
+
+    public DataSource dataSource(String shardId) {
+        DataSource dataSource = dataSources.get(shardId);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard: " + shardId);
+        }
+        return dataSource;
+    }
+
+    public String ownerOf(String orderId) {
+        return sharded ? ring.shardFor(orderId) : shardIds.get(0);
+    }
+
+    public boolean isSharded() {
+        return sharded;
+    }
+
+    public boolean isRebalancing() {
+        return rebalancing;
+    }
+
+    // Runs the work once per shard with that shard bound to the current thread
+    public void forEachShard(Consumer<String> work) {
+        for (String shardId : shardIds) {
+            ShardContext.runOn(shardId, () -> work.accept(shardId));
+        }
+    }
+
+    void close() {
+        for (DataSource dataSource : dataSources.values()) {
+            if (dataSource instanceof HikariDataSource hikariDataSource) {
+                hikariDataSource.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.PaymentService.paymentservice.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "payment.sharding.enabled", havingValue = "false", matchIfMissing = true)
+    static class SingleDatabaseConfig {
+
+        // The data source belongs to Boot's auto-configuration, so the topology must not close it
+        @Bean(destroyMethod = "")
+        public ShardTopology shardTopology(DataSource dataSource) {
+            return ShardTopology.single(dataSource);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "payment.sharding.enabled", havingValue = "true")
+    static class ShardedDatabaseConfig {
+
+        @Bean(destroyMethod = "close")
+        public ShardTopology shardTopology(ShardingProperties properties) {
+            if (properties.getShards().isEmpty()) {
+                throw new IllegalStateException("payment.sharding.enabled is set but no payment.sharding.shards are configured");
+            }
+            Map<String, DataSource> dataSources = new LinkedHashMap<>();
+            for (ShardingProperties.Shard shard : properties.getShards()) {
+                HikariDataSource dataSource = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(shard.getUrl())
+                        .username(shard.getUsername())
+                        .password(shard.getPassword())
+                        .driverClassName(shard.getDriverClassName())
+                        .build();
+                dataSource.setPoolName("shard-" + shard.getId());
+                dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+                dataSources.put(shard.getId(), dataSource);
+            }
+            return new ShardTopology(dataSources, properties.getVirtualNodes(), properties.isRebalancing());
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(ShardTopology topology) {
+            ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource();
+            Map<Object, Object> targets = new LinkedHashMap<>();
+            topology.shardIds().forEach(shardId -> targets.put(shardId, topology.dataSource(shardId)));
+            routingDataSource.setTargetDataSources(targets);
+            routingDataSource.setDefaultTargetDataSource(topology.dataSource(topology.shardIds().get(0)));
+            routingDataSource.afterPropertiesSet();
+            return routingDataSource;
+        }
+
+        // Every shard carries the full schema; the auto-configured Flyway settings are reused for each one
+        @Bean
+        public FlywayMigrationStrategy shardedFlywayMigrationStrategy(ShardTopology topology) {
+            return flyway -> {
+                for (String shardId : topology.shardIds()) {
+                    Flyway.configure()
+                            .configuration(flyway.getConfiguration())
+                            .dataSource(topology.dataSource(shardId))
+                            .load()
+                            .migrate();
+                }
+            };
+        }
+
+        @Bean
+        @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+        public static Advisor shardRoutingAdvisor(ObjectProvider<ShardLocator> shardLocator) {
+            StaticMethodMatcherPointcutAdvisor advisor = new StaticMethodMatcherPointcutAdvisor(
+                    new ShardRoutingInterceptor(shardLocator)) {
+                @Override
+                public boolean matches(Method method, Class<?> targetClass) {
+                    Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+                    return ShardRoutingInterceptor.shardKeys(specificMethod).length > 0;
+                }
+            };
+            // Must wrap the @Transactional interceptor, which runs at LOWEST_PRECEDENCE
+            advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return advisor;
+        }
+    }
+}
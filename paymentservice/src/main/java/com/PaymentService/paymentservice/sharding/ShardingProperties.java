@@ -0,0 +1,29 @@
+package com.PaymentService.paymentservice.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "payment.sharding")
+public class ShardingProperties {
+    private boolean enabled = false;
+    // Points per shard on the hash ring; more points give a more even split
+    private int virtualNodes = 128;
+    // While rows are being moved, order lookups probe every shard and the id locator cache is bypassed
+    private boolean rebalancing = false;
+    private int locatorCacheSize = 100_000;
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String id;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,52 @@
+package com.PaymentService.paymentservice.sharding;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the shard layout: GET /actuator/shards shows rows per shard and the
+ * progress of the last rebalance, POST /actuator/shards starts a rebalance. It has no
+ * authentication of its own and is not exposed over HTTP by default; see application.properties.
+ */
+@Component
+@Endpoint(id = "shards")
+@ConditionalOnProperty(name = "payment.sharding.enabled", havingValue = "true")
+public class ShardsEndpoint {
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final ShardTopology topology;
+    private final ShardRebalancer shardRebalancer;
+
+    public ShardsEndpoint(ShardTopology topology, ShardRebalancer shardRebalancer) {
+        this.topology = topology;
+        this.shardRebalancer = shardRebalancer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> shards() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("shards", topology.shardIds());
+        result.put("rebalancing", topology.isRebalancing());
+        result.put("rows", shardRebalancer.rowCounts());
+        result.put("lastRebalance", shardRebalancer.getProgress());
+        return result;
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebalance(@Nullable Integer batchSize) {
+        boolean started = shardRebalancer.start(batchSize != null && batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("started", started);
+        if (!topology.isRebalancing()) {
+            result.put("warning", "payment.sharding.rebalancing is off; order lookups may miss rows until the move completes");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,65 @@
+package com.PaymentService.paymentservice.stats;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pending count and amount deltas per rollup key, striped by thread so concurrent transitions
+ * rarely contend on the same lock. Draining swaps out every stripe's map, so a delta is either
+ * in the drained snapshot or stays for the next one, never lost or counted twice.
+ */
+class PaymentStatsAccumulator<K> {
+    private final Stripe<K>[] stripes;
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    PaymentStatsAccumulator(int stripeCount) {
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = (Stripe<K>[]) new Stripe[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe<>();
+        }
+    }
+
+    void add(K key, long count, long amount) {
+        Stripe<K> stripe = stripes[(int) Thread.currentThread().threadId() & mask];
+        synchronized (stripe) {
+            long[] delta = stripe.deltas.computeIfAbsent(key, k -> new long[2]);
+            delta[0] += count;
+            delta[1] += amount;
+        }
+    }
+
+    Map<K, long[]> drain() {
+        Map<K, long[]> merged = new HashMap<>();
+        for (Stripe<K> stripe : stripes) {
+            Map<K, long[]> deltas;
+            synchronized (stripe) {
+                if (stripe.deltas.isEmpty()) {
+                    continue;
+                }
+                deltas = stripe.deltas;
+                stripe.deltas = new HashMap<>();
+            }
+            deltas.forEach((key, delta) -> merge(merged, key, delta));
+        }
+        merged.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0);
+        return merged;
+    }
+
+    // Puts back a drained snapshot whose flush failed
+    void restore(Map<K, long[]> deltas) {
+        deltas.forEach((key, delta) -> add(key, delta[0], delta[1]));
+    }
+
+    private static <K> void merge(Map<K, long[]> target, K key, long[] delta) {
+        long[] total = target.computeIfAbsent(key, k -> new long[2]);
+        total[0] += delta[0];
+        total[1] += delta[1];
+    }
+
+    private static final class Stripe<K> {
+        private Map<K, long[]> deltas = new HashMap<>();
+    }
+}
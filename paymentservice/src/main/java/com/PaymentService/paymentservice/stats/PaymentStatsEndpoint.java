@@ -0,0 +1,56 @@
+package com.PaymentService.paymentservice.stats;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * POST /actuator/paymentstats starts rebuilding the hourly rollup from the payments tables in the
+ * background. Without a body it rebuilds everything from the first payment to now; from/to (dates
+ * or date-times) limit it to a backfill window. GET /actuator/paymentstats shows the progress of
+ * the last rebuild. It has no authentication of its own and is not exposed over HTTP by default;
+ * see application.properties.
+ */
+@Component
+@Endpoint(id = "paymentstats")
+public class PaymentStatsEndpoint {
+    private final PaymentStatsService paymentStatsService;
+
+    public PaymentStatsEndpoint(PaymentStatsService paymentStatsService) {
+        this.paymentStatsService = paymentStatsService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> lastRebuild() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("lastRebuild", paymentStatsService.getLastRebuild());
+        return result;
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild(@Nullable String from, @Nullable String to) {
+        LocalDateTime end = to != null ? parse(to) : LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        LocalDateTime start = from != null ? parse(from) : paymentStatsService.earliestCreatedAt();
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (start == null || !start.isBefore(end)) {
+            result.put("started", false);
+            return result;
+        }
+        result.put("started", paymentStatsService.startRebuild(start, end));
+        result.put("from", start);
+        result.put("to", end);
+        return result;
+    }
+
+    private static LocalDateTime parse(String value) {
+        return value.length() <= 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+    }
+}
@@ -0,0 +1,399 @@
+package com.PaymentService.paymentservice.stats;
+
+import com.PaymentService.paymentservice.dtos.PaymentStatsBucketDto;
+import com.PaymentService.paymentservice.dtos.PaymentStatsResponseDto;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.sharding.ShardTopology;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the payment_stats_hourly rollup current from status transitions instead of GROUP BY scans
+ * over payments. Each transition moves a payment's count and amount from its old status bucket to
+ * its new one, keyed by the hour the payment was created. Deltas collect in memory and are
+ * flushed as additive upserts, so every node can flush independently. The rollup lives on the
+ * first shard.
+ *
+ * A rebuild, started on any node, is recorded in payment_stats_rebuilds, and every node's flush
+ * reads that table (see {@link RebuildFences}). Flushes and the start and end of a rebuild are
+ * serialized through a lock row, so no flush can miss a rebuild that has started. Deltas are
+ * tagged with the second they were recorded in and compared with the database time the rebuild's
+ * snapshot was taken, so node clocks are assumed to be NTP-synchronised with the database.
+ */
+@Service
+public class PaymentStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentStatsService.class);
+    private static final String UPSERT_SQL = "insert into payment_stats_hourly "
+            + "(bucket_hour, gateway_type, status, payment_count, amount_sum) values (?, ?, ?, ?, ?) "
+            + "on duplicate key update payment_count = payment_count + values(payment_count), "
+            + "amount_sum = amount_sum + values(amount_sum)";
+    // Finished rebuilds stay readable this long, for deltas a node could not flush before they started
+    private static final long REBUILD_RETENTION_MICROS = 24L * 60 * 60 * 1_000_000;
+
+    private final ShardTopology shardTopology;
+    private final JdbcTemplate statsJdbcTemplate;
+    private final TransactionTemplate statsTransaction;
+    private final PaymentStatsAccumulator<PendingKey> accumulator;
+    private final Map<String, TransactionTemplate> snapshotTransactions = new LinkedHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicReference<RebuildProgress> lastRebuild = new AtomicReference<>();
+    private final boolean enabled;
+    private final int rebuildFetchSize;
+    private final long rebuildMaxDurationMicros;
+
+    public PaymentStatsService(ShardTopology shardTopology,
+                               @Value("${payment.stats.enabled:true}") boolean enabled,
+                               @Value("${payment.stats.stripes:16}") int stripes,
+                               @Value("${payment.stats.rebuild.fetch-size:-2147483648}") int rebuildFetchSize,
+                               @Value("${payment.stats.rebuild.max-duration-ms:3600000}") long rebuildMaxDurationMs) {
+        this.shardTopology = shardTopology;
+        this.enabled = enabled;
+        this.rebuildFetchSize = rebuildFetchSize;
+        this.rebuildMaxDurationMicros = rebuildMaxDurationMs * 1000;
+        this.accumulator = new PaymentStatsAccumulator<>(stripes);
+        String statsShard = shardTopology.shardIds().get(0);
+        this.statsJdbcTemplate = new JdbcTemplate(shardTopology.dataSource(statsShard));
+        this.statsTransaction = new TransactionTemplate(new DataSourceTransactionManager(shardTopology.dataSource(statsShard)));
+        for (String shardId : shardTopology.shardIds()) {
+            TransactionTemplate snapshot = new TransactionTemplate(new DataSourceTransactionManager(shardTopology.dataSource(shardId)));
+            snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            snapshot.setReadOnly(true);
+            snapshotTransactions.put(shardId, snapshot);
+        }
+    }
+
+    // Applied once the surrounding transaction commits, like the status transition metric
+    public void recordTransition(Payment payment, Payment.PaymentStatus from, Payment.PaymentStatus to) {
+        if (!enabled || from == to || payment.getGatewayType() == null) {
+            return;
+        }
+        LocalDateTime createdAt = payment.getCreatedAt() != null ? payment.getCreatedAt() : LocalDateTime.now();
+        LocalDateTime hour = createdAt.truncatedTo(ChronoUnit.HOURS);
+        Payment.PaymentGatewayType gatewayType = payment.getGatewayType();
+        long amount = payment.getAmount() != null ? payment.getAmount() : 0L;
+        Runnable apply = () -> {
+            long recordedSecond = System.currentTimeMillis() / 1000;
+            if (from != null) {
+                accumulator.add(new PendingKey(new StatsKey(hour, gatewayType, from), recordedSecond), -1, -amount);
+            }
+            accumulator.add(new PendingKey(new StatsKey(hour, gatewayType, to), recordedSecond), 1, amount);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.stats.flush-interval-ms:5000}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public PaymentStatsResponseDto getStats(LocalDateTime from, LocalDateTime to, Payment.PaymentGatewayType gatewayType) {
+        StringBuilder sql = new StringBuilder("select bucket_hour, gateway_type, status, payment_count, amount_sum "
+                + "from payment_stats_hourly where bucket_hour >= ? and bucket_hour < ?");
+        List<Object> args = new ArrayList<>(List.of(Timestamp.valueOf(from), Timestamp.valueOf(to)));
+        if (gatewayType != null) {
+            sql.append(" and gateway_type = ?");
+            args.add(gatewayType.name());
+        }
+        sql.append(" order by bucket_hour, gateway_type, status");
+
+        List<PaymentStatsBucketDto> buckets = statsJdbcTemplate.query(sql.toString(), (rs, rowNum) ->
+                new PaymentStatsBucketDto(rs.getTimestamp(1).toLocalDateTime(), rs.getString(2), rs.getString(3),
+                        rs.getLong(4), rs.getLong(5)), args.toArray());
+
+        PaymentStatsResponseDto response = new PaymentStatsResponseDto();
+        response.setFrom(from);
+        response.setTo(to);
+        response.setBuckets(buckets);
+        for (PaymentStatsBucketDto bucket : buckets) {
+            response.setTotalCount(response.getTotalCount() + bucket.getCount());
+            response.setTotalAmount(response.getTotalAmount() + bucket.getAmount());
+            if (Payment.PaymentStatus.SUCCESS.name().equals(bucket.getStatus())) {
+                response.setSuccessCount(response.getSuccessCount() + bucket.getCount());
+                response.setSuccessAmount(response.getSuccessAmount() + bucket.getAmount());
+            }
+        }
+        response.setSuccessRate(response.getTotalCount() == 0 ? 0.0
+                : (double) response.getSuccessCount() / response.getTotalCount());
+        return response;
+    }
+
+    /**
+     * Starts recomputing the rollup rows for payments created in [from, to) on a background
+     * thread. Returns false if a rebuild is already running here or on another node.
+     */
+    public boolean startRebuild(LocalDateTime from, LocalDateTime to) {
+        RebuildProgress current = lastRebuild.get();
+        if (current != null && current.isRunning()) {
+            return false;
+        }
+        LocalDateTime start = from.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = to.truncatedTo(ChronoUnit.HOURS).equals(to) ? to : to.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        RebuildProgress fresh = new RebuildProgress(start, end);
+        if (!lastRebuild.compareAndSet(current, fresh)) {
+            return false;
+        }
+        try {
+            fresh.rebuildId = openRebuild(start, end);
+        } catch (RuntimeException e) {
+            fresh.failure = e.getMessage();
+            fresh.running = false;
+            throw e;
+        }
+        if (fresh.rebuildId == null) {
+            fresh.failure = "Another node is rebuilding payment stats";
+            fresh.running = false;
+            return false;
+        }
+        Thread thread = new Thread(() -> rebuild(fresh), "payment-stats-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    public RebuildProgress getLastRebuild() {
+        return lastRebuild.get();
+    }
+
+    /*
+     * Replaces the rollup rows of the range with totals read from a consistent snapshot of every
+     * shard, taken after the rebuild was recorded. Until it finishes, every node holds back its
+     * deltas for the range; afterwards they drop the ones recorded before the rebuild started and
+     * flush the rest on top of the new rows. A transition committing within about a second of the
+     * start can still be counted twice or missed.
+     */
+    private void rebuild(RebuildProgress progress) {
+        long began = System.nanoTime();
+        try {
+            Map<StatsKey, long[]> totals = new HashMap<>();
+            scanInSnapshots(0, progress, totals);
+            statsTransaction.executeWithoutResult(status -> {
+                lockRebuilds(true);
+                // Flushes stop holding back a rebuild's range once it outlives the maximum duration
+                int finished = statsJdbcTemplate.update("update payment_stats_rebuilds set state = 'DONE', updated_at = now(6) "
+                        + "where id = ? and state = 'RUNNING' and snapshot_at >= now(6) - interval ? microsecond",
+                        progress.rebuildId, rebuildMaxDurationMicros);
+                if (finished == 0) {
+                    throw new IllegalStateException("Rebuild ran past payment.stats.rebuild.max-duration-ms");
+                }
+                statsJdbcTemplate.update("delete from payment_stats_hourly where bucket_hour >= ? and bucket_hour < ?",
+                        Timestamp.valueOf(progress.from), Timestamp.valueOf(progress.to));
+                statsJdbcTemplate.batchUpdate(UPSERT_SQL, toBatchArgs(totals));
+            });
+            logger.info("Payment stats rebuilt for {} to {} from {} payments in {} ms", progress.from, progress.to,
+                    progress.scanned.get(), (System.nanoTime() - began) / 1_000_000);
+        } catch (RuntimeException e) {
+            progress.failure = e.getMessage();
+            logger.error("Payment stats rebuild for {} to {} failed", progress.from, progress.to, e);
+            abandonRebuild(progress.rebuildId);
+        } finally {
+            progress.running = false;
+        }
+    }
+
+    // Records the rebuild, unless one is running anywhere; its snapshot time is the database time of the insert
+    private Long openRebuild(LocalDateTime from, LocalDateTime to) {
+        return statsTransaction.execute(status -> {
+            lockRebuilds(true);
+            Integer running = statsJdbcTemplate.queryForObject("select count(*) from payment_stats_rebuilds "
+                    + "where state = 'RUNNING' and snapshot_at >= now(6) - interval ? microsecond",
+                    Integer.class, rebuildMaxDurationMicros);
+            if (running != null && running > 0) {
+                return null;
+            }
+            statsJdbcTemplate.update("delete from payment_stats_rebuilds where updated_at < now(6) - interval ? microsecond",
+                    REBUILD_RETENTION_MICROS);
+            statsJdbcTemplate.update("insert into payment_stats_rebuilds (bucket_from, bucket_to, snapshot_at, state, updated_at) "
+                    + "values (?, ?, now(6), 'RUNNING', now(6))", Timestamp.valueOf(from), Timestamp.valueOf(to));
+            return statsJdbcTemplate.queryForObject("select last_insert_id()", Long.class);
+        });
+    }
+
+    private void abandonRebuild(Long rebuildId) {
+        try {
+            statsTransaction.executeWithoutResult(status -> statsJdbcTemplate.update(
+                    "update payment_stats_rebuilds set state = 'FAILED', updated_at = now(6) where id = ? and state = 'RUNNING'",
+                    rebuildId));
+        } catch (RuntimeException e) {
+            // Flushes stop holding its range back once it passes the maximum duration
+            logger.warn("Could not mark payment stats rebuild {} as failed - {}", rebuildId, e.getMessage());
+        }
+    }
+
+    // Newest first; failed rebuilds and running ones past the maximum duration no longer fence anything
+    private RebuildFences readRebuilds() {
+        return new RebuildFences(statsJdbcTemplate.query("select bucket_from, bucket_to, "
+                + "floor(unix_timestamp(snapshot_at)), state = 'RUNNING' from payment_stats_rebuilds "
+                + "where state = 'DONE' or (state = 'RUNNING' and snapshot_at >= now(6) - interval ? microsecond) "
+                + "order by snapshot_at desc", (rs, rowNum) -> new RebuildFences.Fence(rs.getTimestamp(1).toLocalDateTime(),
+                rs.getTimestamp(2).toLocalDateTime(), rs.getLong(3), rs.getBoolean(4)), rebuildMaxDurationMicros));
+    }
+
+    // Flushes take the lock row shared, so they run side by side but never across the start or end of a rebuild
+    private void lockRebuilds(boolean exclusive) {
+        statsJdbcTemplate.queryForList("select id from payment_stats_lock where id = 1 " + (exclusive ? "for update" : "for share"));
+    }
+
+    // Opens a read-only snapshot on each shard in turn and scans them all once every snapshot is open
+    private void scanInSnapshots(int shardIndex, RebuildProgress progress, Map<StatsKey, long[]> totals) {
+        List<String> shardIds = shardTopology.shardIds();
+        if (shardIndex == shardIds.size()) {
+            for (String shardId : shardIds) {
+                scanShard(shardId, progress, totals);
+            }
+            return;
+        }
+        String shardId = shardIds.get(shardIndex);
+        snapshotTransactions.get(shardId).executeWithoutResult(status -> {
+            // InnoDB fixes the snapshot at the first read, not at the start of the transaction
+            new JdbcTemplate(shardTopology.dataSource(shardId)).queryForList("select id from payments limit 1");
+            scanInSnapshots(shardIndex + 1, progress, totals);
+        });
+    }
+
+    private void scanShard(String shardId, RebuildProgress progress, Map<StatsKey, long[]> totals) {
+        JdbcTemplate shardJdbcTemplate = new JdbcTemplate(shardTopology.dataSource(shardId));
+        shardJdbcTemplate.setFetchSize(rebuildFetchSize);
+        shardJdbcTemplate.query("select created_at, gateway_type, status, amount from payments "
+                + "where created_at >= ? and created_at < ?", rs -> {
+            StatsKey key = new StatsKey(rs.getTimestamp(1).toLocalDateTime().truncatedTo(ChronoUnit.HOURS),
+                    Payment.PaymentGatewayType.valueOf(rs.getString(2)), Payment.PaymentStatus.valueOf(rs.getString(3)));
+            long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+            total[0]++;
+            total[1] += rs.getLong(4);
+            progress.scanned.incrementAndGet();
+        }, Timestamp.valueOf(progress.from), Timestamp.valueOf(progress.to));
+    }
+
+    // Earliest payment creation time across shards, for rebuilds without an explicit start
+    public LocalDateTime earliestCreatedAt() {
+        return shardTopology.shardIds().stream()
+                .map(shardId -> new JdbcTemplate(shardTopology.dataSource(shardId))
+                        .queryForObject("select min(created_at) from payments", Timestamp.class))
+                .filter(Objects::nonNull)
+                .map(Timestamp::toLocalDateTime)
+                .min(LocalDateTime::compareTo)
+                .orElse(null);
+    }
+
+    private void flushPending() {
+        Map<PendingKey, long[]> pending = accumulator.drain();
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<PendingKey, long[]> held = new HashMap<>();
+        try {
+            statsTransaction.executeWithoutResult(status -> {
+                held.clear();
+                lockRebuilds(false);
+                RebuildFences rebuilds = readRebuilds();
+                Map<StatsKey, long[]> deltas = new HashMap<>();
+                pending.forEach((key, delta) -> {
+                    switch (rebuilds.actionFor(key)) {
+                        case APPLY -> {
+                            long[] total = deltas.computeIfAbsent(key.key(), k -> new long[2]);
+                            total[0] += delta[0];
+                            total[1] += delta[1];
+                        }
+                        case HOLD -> held.put(key, delta);
+                        case DROP -> {
+                            // Already counted by the snapshot of a finished rebuild
+                        }
+                    }
+                });
+                if (!deltas.isEmpty()) {
+                    statsJdbcTemplate.batchUpdate(UPSERT_SQL, toBatchArgs(deltas));
+                }
+            });
+            accumulator.restore(held);
+        } catch (RuntimeException e) {
+            accumulator.restore(pending);
+            logger.warn("Payment stats flush failed, {} rollup deltas kept for the next attempt - {}", pending.size(), e.getMessage());
+        }
+    }
+
+    private static List<Object[]> toBatchArgs(Map<StatsKey, long[]> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> args.add(new Object[]{Timestamp.valueOf(key.hour()), key.gatewayType().name(),
+                key.status().name(), delta[0], delta[1]}));
+        return args;
+    }
+
+    public static class RebuildProgress {
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final AtomicLong scanned = new AtomicLong();
+        private volatile Long rebuildId;
+        private volatile boolean running = true;
+        private volatile String failure;
+
+        RebuildProgress(LocalDateTime from, LocalDateTime to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        public LocalDateTime getFrom() {
+            return from;
+        }
+
+        public LocalDateTime getTo() {
+            return to;
+        }
+
+        public long getScanned() {
+            return scanned.get();
+        }
+
+        public boolean isRunning() {
+            return running;
+        }
+
+        public String getFailure() {
+            return failure;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.PaymentService.paymentservice.stats;
+
+// A rollup key and the epoch second its transition was recorded in, which tells a flush whether a rebuild's snapshot counted it
+record PendingKey(StatsKey key, long recordedSecond) {
+}
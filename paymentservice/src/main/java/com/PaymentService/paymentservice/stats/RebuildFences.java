@@ -0,0 +1,36 @@
+package com.PaymentService.paymentservice.stats;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The rollup rebuilds one flush read from payment_stats_rebuilds, newest first. The newest
+ * rebuild covering a delta's hour decides what happens to it: while that rebuild runs the delta
+ * is held back, and once it has finished a delta recorded before its snapshot is dropped, because
+ * the snapshot counted it, and a later one is applied. Failed and abandoned rebuilds are not read.
+ */
+class RebuildFences {
+    enum Action { APPLY, HOLD, DROP }
+
+    record Fence(LocalDateTime from, LocalDateTime to, long snapshotSecond, boolean running) {
+    }
+
+    private final List<Fence> newestFirst;
+
+    RebuildFences(List<Fence> newestFirst) {
+        this.newestFirst = newestFirst;
+    }
+
+    Action actionFor(PendingKey pending) {
+        LocalDateTime hour = pending.key().hour();
+        for (Fence fence : newestFirst) {
+            if (!hour.isBefore(fence.from()) && hour.isBefore(fence.to())) {
+                if (fence.running()) {
+                    return Action.HOLD;
+                }
+                return pending.recordedSecond() < fence.snapshotSecond() ? Action.DROP : Action.APPLY;
+            }
+        }
+        return Action.APPLY;
+    }
+}
@@ -0,0 +1,9 @@
+package com.PaymentService.paymentservice.stats;
+
+import com.PaymentService.paymentservice.models.Payment;
+
+import java.time.LocalDateTime;
+
+// One rollup row: payments created in this hour, on this gateway, currently in this status
+record StatsKey(LocalDateTime hour, Payment.PaymentGatewayType gatewayType, Payment.PaymentStatus status) {
+}
@@ -0,0 +1,43 @@
+package com.PaymentService.paymentservice.sync;
+
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.sharding.ShardTopology;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persisted position of the bulk sync per gateway account: every payment created before it has
+ * been applied. Lives on the first shard, like the stats rollup. The platform account is stored
+ * under an empty account id.
+ */
+class GatewaySyncCursorStore {
+    private static final String PLATFORM_ACCOUNT = "";
+    private static final String UPSERT_SQL = "insert into gateway_sync_cursors (gateway_type, account_id, synced_until, updated_at) "
+            + "values (?, ?, ?, ?) on duplicate key update synced_until = values(synced_until), updated_at = values(updated_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    GatewaySyncCursorStore(ShardTopology shardTopology) {
+        this.jdbcTemplate = new JdbcTemplate(shardTopology.dataSource(shardTopology.shardIds().get(0)));
+    }
+
+    Optional<Instant> load(Payment.PaymentGatewayType gatewayType, String merchantId) {
+        List<Timestamp> cursors = jdbcTemplate.queryForList(
+                "select synced_until from gateway_sync_cursors where gateway_type = ? and account_id = ?",
+                Timestamp.class, gatewayType.name(), account(merchantId));
+        return cursors.isEmpty() ? Optional.empty() : Optional.of(cursors.get(0).toInstant());
+    }
+
+    void save(Payment.PaymentGatewayType gatewayType, String merchantId, Instant syncedUntil) {
+        jdbcTemplate.update(UPSERT_SQL, gatewayType.name(), account(merchantId), Timestamp.from(syncedUntil),
+                Timestamp.from(Instant.now()));
+    }
+
+    private static String account(String merchantId) {
+        return merchantId != null ? merchantId : PLATFORM_ACCOUNT;
+    }
+}
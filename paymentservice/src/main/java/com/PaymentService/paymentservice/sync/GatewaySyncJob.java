@@ -0,0 +1,156 @@
+package com.PaymentService.paymentservice.sync;
+
+import com.PaymentService.paymentservice.merchant.MerchantProperties;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.paymentgateway.GatewayPaymentPage;
+import com.PaymentService.paymentservice.paymentgateway.PaymentGateway;
+import com.PaymentService.paymentservice.paymentgateway.PaymentGatewayFactory;
+import com.PaymentService.paymentservice.services.PaymentService;
+import com.PaymentService.paymentservice.sharding.ShardTopology;
+import com.razorpay.RazorpayException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings payment statuses and refunds up to date from the gateways' list-by-creation-time APIs,
+ * a page of up to 100 payments per call, instead of one fetch per payment. Each gateway account
+ * has a persisted cursor, so a run only lists what was created since the previous one, plus a
+ * settle window for payments that complete after they are created. Each page is applied to
+ * every shard in one batched transaction per shard. Applying a record twice changes nothing,
+ * so overlapping windows are harmless. Several nodes may run the job: status changes follow the
+ * verify rules, and a refund the gateway reports beyond the ledger is booked only if the payment's
+ * refunded total is still the one that node read, so the same drift is booked once.
+ */
+@Component
+@EnableConfigurationProperties(GatewaySyncProperties.class)
+@ConditionalOnProperty(name = "payment.sync.enabled", havingValue = "true", matchIfMissing = true)
+public class GatewaySyncJob {
+    private static final Logger logger = LoggerFactory.getLogger(GatewaySyncJob.class);
+
+    private final PaymentGatewayFactory paymentGatewayFactory;
+    private final PaymentService paymentService;
+    private final ShardTopology shardTopology;
+    private final MerchantProperties merchantProperties;
+    private final GatewaySyncProperties properties;
+    private final GatewaySyncCursorStore cursorStore;
+    private final Map<Payment.PaymentGatewayType, Counter> recordsListed = new EnumMap<>(Payment.PaymentGatewayType.class);
+    private final Map<Payment.PaymentGatewayType, Counter> paymentsUpdated = new EnumMap<>(Payment.PaymentGatewayType.class);
+
+    public GatewaySyncJob(PaymentGatewayFactory paymentGatewayFactory, PaymentService paymentService,
+                          ShardTopology shardTopology, MerchantProperties merchantProperties,
+                          GatewaySyncProperties properties, MeterRegistry meterRegistry) {
+        this(paymentGatewayFactory, paymentService, shardTopology, merchantProperties, properties, meterRegistry,
+                new GatewaySyncCursorStore(shardTopology));
+    }
+
+    GatewaySyncJob(PaymentGatewayFactory paymentGatewayFactory, PaymentService paymentService,
+                   ShardTopology shardTopology, MerchantProperties merchantProperties,
+                   GatewaySyncProperties properties, MeterRegistry meterRegistry, GatewaySyncCursorStore cursorStore) {
+        this.paymentGatewayFactory = paymentGatewayFactory;
+        this.paymentService = paymentService;
+        this.shardTopology = shardTopology;
+        this.merchantProperties = merchantProperties;
+        this.properties = properties;
+        this.cursorStore = cursorStore;
+        for (Payment.PaymentGatewayType gatewayType : Payment.PaymentGatewayType.values()) {
+            String gatewayName = gatewayType.name().toLowerCase();
+            recordsListed.put(gatewayType, Counter.builder("payment.sync.records")
+                    .description("Payments returned by gateway list calls during bulk sync")
+                    .tag("gateway", gatewayName)
+                    .register(meterRegistry));
+            paymentsUpdated.put(gatewayType, Counter.builder("payment.sync.updates")
+                    .description("Payments whose status, payment id or refunds were changed by bulk sync")
+                    .tag("gateway", gatewayName)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${payment.sync.initial-delay-ms:60000}",
+            fixedDelayString = "${payment.sync.interval-ms:300000}")
+    public void syncAll() {
+        Instant until = Instant.now().minusMillis(properties.getLagMs());
+        for (Payment.PaymentGatewayType gatewayType : Payment.PaymentGatewayType.values()) {
+            for (String merchantId : accounts(gatewayType)) {
+                try {
+                    syncAccount(gatewayType, merchantId, until);
+                } catch (RazorpayException | RuntimeException e) {
+                    // The cursor stays at the last completed window, so the next run resumes there
+                    logger.warn("Bulk sync of {} account {} failed: {}", gatewayType, accountName(merchantId), e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private void syncAccount(Payment.PaymentGatewayType gatewayType, String merchantId, Instant until) throws RazorpayException {
+        PaymentGateway gateway = paymentGatewayFactory.getGateway(gatewayType, merchantId);
+        Instant cursor = cursorStore.load(gatewayType, merchantId)
+                .orElse(until.minusMillis(properties.getInitialLookbackMs()));
+        Duration settleWindow = Duration.ofMillis(properties.getSettleWindowMs());
+        while (cursor.isBefore(until)) {
+            Instant windowEnd = cursor.plusMillis(properties.getMaxWindowMs());
+            if (windowEnd.isAfter(until)) {
+                windowEnd = until;
+            }
+            long start = System.nanoTime();
+            int[] counts = syncWindow(gateway, gatewayType, merchantId, cursor.minus(settleWindow), windowEnd);
+            cursorStore.save(gatewayType, merchantId, windowEnd);
+            logger.info("Bulk sync of {} account {} up to {}: {} listed, {} updated in {} ms", gatewayType,
+                    accountName(merchantId), windowEnd, counts[0], counts[1], (System.nanoTime() - start) / 1_000_000);
+            cursor = windowEnd;
+        }
+    }
+
+    // Returns {records listed, payments updated}
+    private int[] syncWindow(PaymentGateway gateway, Payment.PaymentGatewayType gatewayType, String merchantId,
+                             Instant from, Instant to) throws RazorpayException {
+        int[] counts = new int[2];
+        String pageToken = null;
+        do {
+            GatewayPaymentPage page = gateway.listPayments(from, to, pageToken, properties.getPageSize());
+            counts[0] += page.records().size();
+            recordsListed.get(gatewayType).increment(page.records().size());
+            if (!page.records().isEmpty()) {
+                // A page can touch any shard; rows that live elsewhere simply aren't found
+                shardTopology.forEachShard(shardId -> {
+                    int updated = paymentService.applyGatewayRecords(gatewayType, merchantId, page.records());
+                    counts[1] += updated;
+                    paymentsUpdated.get(gatewayType).increment(updated);
+                });
+            }
+            pageToken = page.nextPageToken();
+        } while (pageToken != null);
+        return counts;
+    }
+
+    // The platform account (null) and every configured merchant with credentials for the gateway
+    private List<String> accounts(Payment.PaymentGatewayType gatewayType) {
+        List<String> accounts = new ArrayList<>();
+        accounts.add(null);
+        merchantProperties.getAccounts().forEach((merchantId, account) -> {
+            String credential = gatewayType == Payment.PaymentGatewayType.STRIPE
+                    ? account.getStripeSecretKey()
+                    : account.getRazorpayKeyId();
+            if (credential != null && !credential.isBlank()) {
+                accounts.add(merchantId);
+            }
+        });
+        return accounts;
+    }
+
+    private static String accountName(String merchantId) {
+        return merchantId != null ? merchantId : "platform";
+    }
+}
@@ -0,0 +1,20 @@
+package com.PaymentService.paymentservice.sync;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "payment.sync")
+public class GatewaySyncProperties {
+    private boolean enabled = true;
+    // Records requested per list call; each gateway caps this at 100
+    private int pageSize = 100;
+    // Where a gateway account without a cursor starts
+    private long initialLookbackMs = 24 * 60 * 60 * 1000L;
+    // Each run also re-reads this much before the cursor, for payments that settle after they are created
+    private long settleWindowMs = 60 * 60 * 1000L;
+    // Windows end this far behind now, so records the gateway is still indexing aren't skipped
+    private long lagMs = 60 * 1000L;
+    // Catch-up after an outage is split into windows of at most this length, each committing the cursor
+    private long maxWindowMs = 6 * 60 * 60 * 1000L;
+}
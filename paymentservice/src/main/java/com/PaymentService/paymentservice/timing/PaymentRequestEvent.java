@@ -0,0 +1,47 @@
+package com.PaymentService.paymentservice.timing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("paymentservice.PaymentRequest")
+@Label("Payment Request")
+@Category({"Payment Service", "HTTP"})
+@Description("Phase breakdown of a single HTTP request handled by the payment service")
+@StackTrace(false)
+class PaymentRequestEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Status")
+    int status;
+
+    @Label("DB Lookup")
+    @Timespan(Timespan.NANOSECONDS)
+    long dbLookupTime;
+
+    @Label("Gateway")
+    @Timespan(Timespan.NANOSECONDS)
+    long gatewayTime;
+
+    @Label("DB Save")
+    @Timespan(Timespan.NANOSECONDS)
+    long dbSaveTime;
+
+    @Label("Serialization")
+    @Timespan(Timespan.NANOSECONDS)
+    long serializationTime;
+
+    @Label("Gateway Calls")
+    int gatewayCalls;
+
+    @Label("DB Calls")
+    int dbCalls;
+}
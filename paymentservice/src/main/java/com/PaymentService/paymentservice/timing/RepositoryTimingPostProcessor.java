@@ -0,0 +1,34 @@
+package com.PaymentService.paymentservice.timing;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers a repository invocation listener that attributes every Spring Data call to the
+ * DB lookup or DB save phase of the current request.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.timing.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryTimingPostProcessor implements BeanPostProcessor {
+    private static final RepositoryMethodInvocationListener LISTENER = invocation -> {
+        String methodName = invocation.getMethod().getName();
+        RequestPhase phase = methodName.startsWith("save") || methodName.startsWith("delete")
+                ? RequestPhase.DB_SAVE
+                : RequestPhase.DB_LOOKUP;
+        RequestTimings.record(phase, invocation.getDuration(TimeUnit.NANOSECONDS));
+    };
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+            repositoryFactoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(LISTENER));
+        }
+        return bean;
+    }
+}
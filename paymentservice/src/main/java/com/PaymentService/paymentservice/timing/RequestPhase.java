@@ -0,0 +1,18 @@
+package com.PaymentService.paymentservice.timing;
+
+public enum RequestPhase {
+    DB_LOOKUP("db-lookup"),
+    GATEWAY("gateway"),
+    DB_SAVE("db-save"),
+    SERIALIZATION("serialization");
+
+    private final String metricName;
+
+    RequestPhase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,78 @@
+package com.PaymentService.paymentservice.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import com.PaymentService.paymentservice.warmup.ColdStartMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Binds a {@link RequestTimings} to each request, then emits the breakdown as a JFR event and,
+ * for requests slower than the configured threshold, as a warning log line. Also logs the
+ * time-to-first-request after JVM start, to compare startup modes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "payment.timing.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestTimingFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RequestTimingFilter.class);
+
+    private final long slowRequestThresholdNanos;
+    private final ColdStartMetrics coldStartMetrics;
+    private final AtomicBoolean firstRequestCompleted = new AtomicBoolean();
+
+    public RequestTimingFilter(@Value("${payment.timing.slow-request-threshold-ms:1000}") long slowRequestThresholdMs,
+                               ColdStartMetrics coldStartMetrics) {
+        this.slowRequestThresholdNanos = slowRequestThresholdMs * 1_000_000L;
+        this.coldStartMetrics = coldStartMetrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        PaymentRequestEvent event = new PaymentRequestEvent();
+        event.begin();
+        RequestTimings timings = RequestTimings.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTimings.clear();
+            timings.finish();
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = request.getMethod();
+                event.uri = request.getRequestURI();
+                event.status = response.getStatus();
+                event.dbLookupTime = timings.getPhaseNanos(RequestPhase.DB_LOOKUP);
+                event.gatewayTime = timings.getPhaseNanos(RequestPhase.GATEWAY);
+                event.dbSaveTime = timings.getPhaseNanos(RequestPhase.DB_SAVE);
+                event.serializationTime = timings.getPhaseNanos(RequestPhase.SERIALIZATION);
+                event.gatewayCalls = timings.getPhaseCount(RequestPhase.GATEWAY);
+                event.dbCalls = timings.getPhaseCount(RequestPhase.DB_LOOKUP) + timings.getPhaseCount(RequestPhase.DB_SAVE);
+                event.commit();
+            }
+            if (!firstRequestCompleted.get() && firstRequestCompleted.compareAndSet(false, true)) {
+                logger.info("First request completed {} ms after JVM start",
+                        ManagementFactory.getRuntimeMXBean().getUptime());
+            }
+            long elapsed = timings.getElapsedNanos();
+            coldStartMetrics.recordRequest(elapsed);
+            if (slowRequestThresholdNanos > 0 && elapsed >= slowRequestThresholdNanos) {
+                logger.warn("Slow request {} {} took {} ms - status: {}, {}", request.getMethod(), request.getRequestURI(),
+                        elapsed / 1_000_000, response.getStatus(), timings.toSummary());
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.PaymentService.paymentservice.timing;
+
+/**
+ * Per-request accumulator of time spent in each {@link RequestPhase}. Bound to the request thread
+ * by {@link RequestTimingFilter}; when the filter is disabled {@link #record} is a no-op.
+ */
+public final class RequestTimings {
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] phaseNanos = new long[RequestPhase.values().length];
+    private final int[] phaseCounts = new int[RequestPhase.values().length];
+    private long handlerEndNanos;
+
+    static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void record(RequestPhase phase, long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.phaseNanos[phase.ordinal()] += nanos;
+            timings.phaseCounts[phase.ordinal()]++;
+        }
+    }
+
+    void markHandlerEnd() {
+        if (handlerEndNanos == 0) {
+            handlerEndNanos = System.nanoTime();
+        }
+    }
+
+    // Everything after the handler returned is attributed to response serialization
+    void finish() {
+        long end = System.nanoTime();
+        if (handlerEndNanos != 0) {
+            phaseNanos[RequestPhase.SERIALIZATION.ordinal()] = end - handlerEndNanos;
+            phaseCounts[RequestPhase.SERIALIZATION.ordinal()] = 1;
+        } else {
+            handlerEndNanos = end;
+        }
+    }
+
+    long getPhaseNanos(RequestPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    int getPhaseCount(RequestPhase phase) {
+        return phaseCounts[phase.ordinal()];
+    }
+
+    long getHandlerNanos() {
+        return (handlerEndNanos != 0 ? handlerEndNanos : System.nanoTime()) - startNanos;
+    }
+
+    long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    String toServerTimingHeader() {
+        StringBuilder header = new StringBuilder(96);
+        for (RequestPhase phase : RequestPhase.values()) {
+            if (phase != RequestPhase.SERIALIZATION && phaseCounts[phase.ordinal()] > 0) {
+                appendMetric(header, phase.getMetricName(), phaseNanos[phase.ordinal()]);
+            }
+        }
+        appendMetric(header, "app", getHandlerNanos());
+        return header.toString();
+    }
+
+    String toSummary() {
+        StringBuilder summary = new StringBuilder(128);
+        for (RequestPhase phase : RequestPhase.values()) {
+            if (!summary.isEmpty()) {
+                summary.append(", ");
+            }
+            summary.append(phase.getMetricName()).append('=')
+                    .append(phaseNanos[phase.ordinal()] / 1_000_000).append("ms")
+                    .append(" (").append(phaseCounts[phase.ordinal()]).append(')');
+        }
+        return summary.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(nanos / 1_000_000).append('.').append((nanos / 100_000) % 10);
+    }
+}
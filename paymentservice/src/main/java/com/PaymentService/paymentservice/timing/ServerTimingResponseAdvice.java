@@ -0,0 +1,46 @@
+package com.PaymentService.paymentservice.timing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks the end of handler execution just before the body is serialized and, when enabled, writes
+ * the phase breakdown collected so far into a Server-Timing header.
+ */
+@RestControllerAdvice
+@ConditionalOnProperty(name = "payment.timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingResponseAdvice implements ResponseBodyAdvice<Object> {
+    private static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final boolean serverTimingHeaderEnabled;
+
+    public ServerTimingResponseAdvice(@Value("${payment.timing.server-timing-header.enabled:false}") boolean serverTimingHeaderEnabled) {
+        this.serverTimingHeaderEnabled = serverTimingHeaderEnabled;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.markHandlerEnd();
+            if (serverTimingHeaderEnabled) {
+                response.getHeaders().add(SERVER_TIMING_HEADER, timings.toServerTimingHeader());
+            }
+        }
+        return body;
+    }
+}
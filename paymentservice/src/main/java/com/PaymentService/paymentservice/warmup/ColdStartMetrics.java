@@ -0,0 +1,57 @@
+package com.PaymentService.paymentservice.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the requests a node serves in its first minute after reporting ready, tagged with
+ * whether warm-up ran, so nodes started with and without it can be compared directly.
+ */
+@Component
+public class ColdStartMetrics {
+    private static final long NOT_READY = 0;
+
+    private final Timer firstMinuteRequests;
+    private final Timer warmupDuration;
+    private final long windowNanos;
+    private volatile long readyAtNanos = NOT_READY;
+
+    public ColdStartMetrics(MeterRegistry meterRegistry,
+                            @Value("${payment.warmup.enabled:true}") boolean warmupEnabled,
+                            @Value("${payment.warmup.measurement-window-ms:60000}") long windowMs) {
+        this.windowNanos = windowMs * 1_000_000L;
+        this.firstMinuteRequests = Timer.builder("payment.requests.after.ready")
+                .description("Latency of requests served shortly after the node became ready")
+                .tag("warmup", warmupEnabled ? "enabled" : "disabled")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.warmupDuration = Timer.builder("payment.warmup.duration")
+                .description("Time spent warming up before accepting traffic")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && readyAtNanos == NOT_READY) {
+            readyAtNanos = System.nanoTime();
+        }
+    }
+
+    public void recordRequest(long elapsedNanos) {
+        long readyAt = readyAtNanos;
+        if (readyAt != NOT_READY && System.nanoTime() - readyAt < windowNanos) {
+            firstMinuteRequests.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    void recordWarmup(long elapsedNanos) {
+        warmupDuration.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,215 @@
+package com.PaymentService.paymentservice.warmup;
+
+import com.PaymentService.paymentservice.constants.PaymentConstants;
+import com.PaymentService.paymentservice.dtos.InitiatePaymentRequestDto;
+import com.PaymentService.paymentservice.dtos.RefundPaymentRequestDto;
+import com.PaymentService.paymentservice.dtos.VerifyPaymentRequestDto;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.paymentgateway.PaymentGateway;
+import com.PaymentService.paymentservice.paymentgateway.RazorpaymentGateway;
+import com.PaymentService.paymentservice.paymentgateway.StripePaymentGateway;
+import com.PaymentService.paymentservice.repositories.PaymentRepository;
+import com.PaymentService.paymentservice.services.PaymentResponseMapper;
+import com.PaymentService.paymentservice.sharding.ShardTopology;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exercises the request paths with synthetic data before the node reports ready. Application
+ * runners finish before Spring Boot publishes ACCEPTING_TRAFFIC, so the readiness probe stays
+ * down until the JIT has seen the mapping and serialization code, Hibernate has built its query
+ * plans, every shard's Hikari pool is filled and each gateway has an open TLS connection.
+ * Afterwards the gateway connections are touched periodically so they stay warm.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+    // Ids no gateway will ever have; the calls fail fast but leave a pooled connection behind
+    private static final String RAZORPAY_PROBE_ID = "pay_warmup";
+    private static final String STRIPE_PROBE_ID = "pi_warmup";
+
+    private final ObjectMapper objectMapper;
+    private final PaymentRepository paymentRepository;
+    private final ShardTopology shardTopology;
+    private final TransactionTemplate readOnlyTransaction;
+    private final RazorpaymentGateway razorpaymentGateway;
+    private final StripePaymentGateway stripePaymentGateway;
+    private final ColdStartMetrics coldStartMetrics;
+    private final int iterations;
+    private final int queryIterations;
+    private final long maxDurationNanos;
+    private final boolean warmGateways;
+
+    public WarmupRunner(ObjectMapper objectMapper, PaymentRepository paymentRepository, ShardTopology shardTopology,
+                        PlatformTransactionManager transactionManager, RazorpaymentGateway razorpaymentGateway,
+                        StripePaymentGateway stripePaymentGateway, ColdStartMetrics coldStartMetrics,
+                        @Value("${payment.warmup.iterations:2000}") int iterations,
+                        @Value("${payment.warmup.query-iterations:100}") int queryIterations,
+                        @Value("${payment.warmup.max-duration-ms:30000}") long maxDurationMs,
+                        @Value("${payment.warmup.gateways:true}") boolean warmGateways) {
+        this.objectMapper = objectMapper;
+        this.paymentRepository = paymentRepository;
+        this.shardTopology = shardTopology;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.razorpaymentGateway = razorpaymentGateway;
+        this.stripePaymentGateway = stripePaymentGateway;
+        this.coldStartMetrics = coldStartMetrics;
+        this.iterations = iterations;
+        this.queryIterations = queryIterations;
+        this.maxDurationNanos = maxDurationMs * 1_000_000L;
+        this.warmGateways = warmGateways;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + maxDurationNanos;
+        // Each stage is best effort: a failure only means that path starts cold
+        stage("connection pools", start, this::primeConnectionPools);
+        stage("gateway connections", start, this::touchGateways);
+        stage("mapping and serialization", start, () -> exerciseMapping(deadline));
+        stage("repository queries", start, () -> exerciseQueries(deadline));
+        long elapsed = System.nanoTime() - start;
+        coldStartMetrics.recordWarmup(elapsed);
+        logger.info("Warm-up completed in {} ms", elapsed / 1_000_000);
+    }
+
+    @Scheduled(initialDelayString = "${payment.warmup.gateway-keepalive-ms:240000}",
+            fixedDelayString = "${payment.warmup.gateway-keepalive-ms:240000}")
+    public void keepGatewayConnectionsAlive() {
+        // Inside OkHttp's five-minute idle timeout, so Razorpay's pooled connection isn't closed; the
+        // JDK client under the Stripe SDK drops idle connections sooner but keeps the TLS session
+        touchGateways();
+    }
+
+    private void stage(String name, long start, Runnable work) {
+        long stageStart = System.nanoTime();
+        try {
+            work.run();
+            logger.debug("Warm-up of {} took {} ms", name, (System.nanoTime() - stageStart) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.warn("Warm-up of {} failed after {} ms", name, (System.nanoTime() - start) / 1_000_000, e);
+        }
+    }
+
+    private void primeConnectionPools() {
+        for (String shardId : shardTopology.shardIds()) {
+            DataSource dataSource = shardTopology.dataSource(shardId);
+            int connections = dataSource instanceof HikariDataSource hikari
+                    ? Math.max(hikari.getMinimumIdle(), 1)
+                    : 1;
+            List<Connection> opened = new ArrayList<>(connections);
+            try {
+                for (int i = 0; i < connections; i++) {
+                    opened.add(dataSource.getConnection());
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Unable to open connections to shard " + shardId, e);
+            } finally {
+                for (Connection connection : opened) {
+                    try {
+                        connection.close();
+                    } catch (SQLException e) {
+                        logger.debug("Failed to return warm-up connection to shard {}", shardId, e);
+                    }
+                }
+            }
+        }
+    }
+
+    private void touchGateways() {
+        if (!warmGateways) {
+            return;
+        }
+        touch(razorpaymentGateway, RAZORPAY_PROBE_ID);
+        touch(stripePaymentGateway, STRIPE_PROBE_ID);
+    }
+
+    // Bypasses the metered and retrying decorators so probes don't show up as gateway errors
+    private void touch(PaymentGateway gateway, String probeId) {
+        try {
+            gateway.getPaymentStatus(probeId);
+        } catch (Exception e) {
+            logger.debug("Gateway warm-up probe answered with {}", e.getMessage());
+        }
+    }
+
+    private void exerciseMapping(long deadline) {
+        Map<String, String> paymentResponse = Map.of("paymentId", "pay_warmup", "status", PaymentConstants.STATUS_CAPTURED,
+                "amount", "50000", "currency", PaymentConstants.CURRENCY_INR, "orderId", "order_warmup", "method", "upi");
+        Map<String, String> refundResponse = Map.of("refundId", "rfnd_warmup", "paymentId", "pay_warmup",
+                "amount", "10000", "status", "processed");
+        String initiateRequest = "{\"orderId\":\"order_warmup\",\"amount\":50000,\"phoneNumber\":\"9999999999\","
+                + "\"email\":\"warmup@example.com\",\"gatewayType\":\"RAZORPAY\"}";
+        String verifyRequest = "{\"paymentId\":\"pay_warmup\",\"orderId\":\"order_warmup\"}";
+        String refundRequest = "{\"paymentId\":\"pay_warmup\",\"amount\":10000}";
+        try {
+            for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+                Payment payment = syntheticPayment(i);
+                objectMapper.writeValueAsBytes(PaymentResponseMapper.toInitiateResponse(payment,
+                        PaymentConstants.MESSAGE_PAYMENT_LINK_GENERATED));
+                objectMapper.writeValueAsBytes(PaymentResponseMapper.toVerifyResponse(payment, paymentResponse));
+                objectMapper.writeValueAsBytes(PaymentResponseMapper.toRefundResponse(payment, refundResponse));
+                objectMapper.writeValueAsBytes(PaymentResponseMapper.toStatusResponse(payment, paymentResponse));
+                objectMapper.writeValueAsBytes(PaymentResponseMapper.toStatusResponse(payment));
+                objectMapper.readValue(initiateRequest, InitiatePaymentRequestDto.class);
+                objectMapper.readValue(verifyRequest, VerifyPaymentRequestDto.class);
+                objectMapper.readValue(refundRequest, RefundPaymentRequestDto.class);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Warm-up serialization failed", e);
+        }
+    }
+
+    // Lookups of ids that don't exist: the full Hibernate query path without touching real rows
+    private void exerciseQueries(long deadline) {
+        shardTopology.forEachShard(shardId -> readOnlyTransaction.executeWithoutResult(status -> {
+            for (int i = 0; i < queryIterations && System.nanoTime() < deadline; i++) {
+                paymentRepository.findByOrderId("warmup-order-" + i);
+                paymentRepository.findByPaymentId("warmup-payment-" + i);
+                paymentRepository.findByPaymentLinkId("warmup-link-" + i);
+                paymentRepository.findVersionByPaymentId("warmup-payment-" + i);
+            }
+        }));
+    }
+
+    private static Payment syntheticPayment(int i) {
+        LocalDateTime now = LocalDateTime.now();
+        return Payment.builder()
+                .id((long) i)
+                .orderId("order_warmup_" + i)
+                .amount(50_000L)
+                .currency(PaymentConstants.CURRENCY_INR)
+                .phoneNumber("9999999999")
+                .email("warmup@example.com")
+                .status(Payment.PaymentStatus.SUCCESS)
+                .gatewayType(i % 2 == 0 ? Payment.PaymentGatewayType.RAZORPAY : Payment.PaymentGatewayType.STRIPE)
+                .paymentLinkId("plink_warmup_" + i)
+                .paymentId("pay_warmup_" + i)
+                .paymentLinkUrl("https://pay.example.com/plink_warmup_" + i)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
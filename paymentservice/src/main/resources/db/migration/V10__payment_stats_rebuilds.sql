@@ -0,0 +1,18 @@
+-- Rollup rebuilds, read by every node's stats flush: deltas a rebuild's snapshot already counted are dropped,
+-- and deltas in the range of a running rebuild are held back until it finishes
+CREATE TABLE IF NOT EXISTS payment_stats_rebuilds (
+    id          BIGINT      NOT NULL AUTO_INCREMENT,
+    bucket_from DATETIME    NOT NULL,
+    bucket_to   DATETIME    NOT NULL,
+    snapshot_at DATETIME(6) NOT NULL,
+    state       VARCHAR(16) NOT NULL,
+    updated_at  DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- Single row that flushes lock shared and rebuilds lock exclusively to open or finish a rebuild
+CREATE TABLE IF NOT EXISTS payment_stats_lock (
+    id TINYINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+INSERT IGNORE INTO payment_stats_lock (id) VALUES (1);
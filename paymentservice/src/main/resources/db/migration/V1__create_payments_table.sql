@@ -0,0 +1,21 @@
+-- Matches the table ddl-auto=update used to create, so existing databases only need the baseline.
+CREATE TABLE IF NOT EXISTS payments (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    order_id         VARCHAR(255) NOT NULL,
+    amount           BIGINT       NOT NULL,
+    currency         VARCHAR(255) NOT NULL,
+    phone_number     VARCHAR(255) NOT NULL,
+    email            VARCHAR(255) NOT NULL,
+    status           VARCHAR(32)  NOT NULL,
+    gateway_type     VARCHAR(32)  NOT NULL,
+    payment_link_id  VARCHAR(255),
+    payment_id       VARCHAR(255),
+    payment_link_url VARCHAR(255),
+    failure_reason   VARCHAR(255),
+    created_at       DATETIME(6),
+    updated_at       DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_payments_order_id UNIQUE (order_id),
+    CONSTRAINT uk_payments_payment_link_id UNIQUE (payment_link_id),
+    CONSTRAINT uk_payments_payment_id UNIQUE (payment_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,13 @@
+-- ddl-auto=update created the enum columns as MySQL ENUMs; plain VARCHARs let new statuses ship without a table rebuild.
+ALTER TABLE payments
+    MODIFY status VARCHAR(32) NOT NULL,
+    MODIFY gateway_type VARCHAR(32) NOT NULL;
+
+-- Status scans ordered/bounded by creation time (pending sweeps, failure reports)
+CREATE INDEX idx_payments_status_created_at ON payments (status, created_at);
+
+-- Per-gateway reporting over a time window
+CREATE INDEX idx_payments_gateway_type_created_at ON payments (gateway_type, created_at);
+
+-- Sweeps over recently changed rows
+CREATE INDEX idx_payments_updated_at ON payments (updated_at);
@@ -0,0 +1,3 @@
+-- Keyset pages of the settlement export over (created_at, id) when no gateway/status filter is given;
+-- InnoDB appends the primary key to secondary indexes, so id does not need to be listed.
+CREATE INDEX idx_payments_created_at ON payments (created_at);
@@ -0,0 +1,9 @@
+-- Incrementally maintained rollup: payments created per hour, by gateway and current status
+CREATE TABLE IF NOT EXISTS payment_stats_hourly (
+    bucket_hour   DATETIME    NOT NULL,
+    gateway_type  VARCHAR(32) NOT NULL,
+    status        VARCHAR(32) NOT NULL,
+    payment_count BIGINT      NOT NULL,
+    amount_sum    BIGINT      NOT NULL,
+    PRIMARY KEY (bucket_hour, gateway_type, status)
+) ENGINE = InnoDB;
@@ -0,0 +1,21 @@
+-- Running total of reserved and completed refunds, checked against amount by a guarded update
+ALTER TABLE payments ADD COLUMN refunded_amount BIGINT NOT NULL DEFAULT 0;
+
+-- Before the ledger any refund moved a payment to REFUNDED and blocked further refunds; keep that closed
+UPDATE payments SET refunded_amount = amount WHERE status = 'REFUNDED';
+
+CREATE TABLE IF NOT EXISTS refunds (
+    id                BIGINT       NOT NULL AUTO_INCREMENT,
+    payment_id        BIGINT       NOT NULL,
+    amount            BIGINT       NOT NULL,
+    status            VARCHAR(32)  NOT NULL,
+    gateway_refund_id VARCHAR(255),
+    gateway_status    VARCHAR(255),
+    failure_reason    VARCHAR(255),
+    created_at        DATETIME(6),
+    updated_at        DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refunds_gateway_refund_id UNIQUE (gateway_refund_id),
+    CONSTRAINT fk_refunds_payment FOREIGN KEY (payment_id) REFERENCES payments (id),
+    INDEX idx_refunds_payment_id_created_at (payment_id, created_at)
+) ENGINE = InnoDB;
@@ -0,0 +1,2 @@
+-- Marketplace seller whose gateway account took the payment; NULL for the platform account
+ALTER TABLE payments ADD COLUMN merchant_id VARCHAR(64);
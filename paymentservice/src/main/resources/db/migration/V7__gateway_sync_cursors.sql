@@ -0,0 +1,8 @@
+-- Position of the bulk gateway sync per gateway account; account_id is '' for the platform account
+CREATE TABLE IF NOT EXISTS gateway_sync_cursors (
+    gateway_type VARCHAR(32) NOT NULL,
+    account_id   VARCHAR(64) NOT NULL,
+    synced_until DATETIME(6) NOT NULL,
+    updated_at   DATETIME(6) NOT NULL,
+    PRIMARY KEY (gateway_type, account_id)
+) ENGINE = InnoDB;
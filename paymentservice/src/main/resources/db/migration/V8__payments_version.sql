@@ -0,0 +1,2 @@
+-- Optimistic lock for entity saves; the guarded refund updates bump it as well
+ALTER TABLE payments ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
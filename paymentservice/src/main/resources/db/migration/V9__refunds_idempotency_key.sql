@@ -0,0 +1,5 @@
+-- Globally unique gateway idempotency key per refund; refund ids are per-shard auto-increment values
+ALTER TABLE refunds ADD COLUMN idempotency_key VARCHAR(64);
+UPDATE refunds SET idempotency_key = UUID() WHERE idempotency_key IS NULL;
+ALTER TABLE refunds MODIFY idempotency_key VARCHAR(64) NOT NULL;
+ALTER TABLE refunds ADD CONSTRAINT uk_refunds_idempotency_key UNIQUE (idempotency_key);
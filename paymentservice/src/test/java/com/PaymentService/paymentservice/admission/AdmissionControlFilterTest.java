@@ -0,0 +1,160 @@
+package com.PaymentService.paymentservice.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlFilterTest {
+	private static final String INITIATE = "/payments/";
+	private static final String STATUS = "/payments/status/pay_1";
+	private static final String EXPORT = "/payments/export";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CountDownLatch finish = new CountDownLatch(1);
+	private ExecutorService executor;
+	private AdmissionControlFilter filter;
+
+	@BeforeEach
+	void createFilter() {
+		AdmissionProperties properties = new AdmissionProperties();
+		properties.setLowPriorityFraction(0.25);
+		properties.getEndpoints().put(EndpointClass.INITIATE, limits(1, 1, 1));
+		properties.getEndpoints().put(EndpointClass.STATUS, limits(4, 1, 4));
+		properties.getEndpoints().get(EndpointClass.STATUS).setRetryAfterSeconds(2);
+		properties.getEndpoints().put(EndpointClass.EXPORT, limits(4, 1, 4));
+		filter = new AdmissionControlFilter(properties, new ObjectMapper().findAndRegisterModules(), meterRegistry);
+		executor = Executors.newCachedThreadPool();
+	}
+
+	@AfterEach
+	void releaseHeldRequests() throws InterruptedException {
+		finish.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void shedsStatusPollsWithRetryAfterWhileInitiateIsSaturated() throws Exception {
+		hold("POST", INITIATE, EndpointClass.INITIATE);
+		hold("GET", STATUS, EndpointClass.STATUS);
+
+		MockHttpServletResponse response = send("GET", STATUS);
+
+		assertEquals(429, response.getStatus());
+		assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+		assertTrue(response.getContentAsString().contains("TOO_MANY_REQUESTS"), response.getContentAsString());
+		assertEquals(1.0, shed(EndpointClass.STATUS, "priority"));
+	}
+
+	@Test
+	void statusPollsUseTheirFullLimitWhileInitiateIsIdle() throws Exception {
+		hold("GET", STATUS, EndpointClass.STATUS);
+
+		MockHttpServletResponse response = send("GET", STATUS);
+
+		assertEquals(200, response.getStatus());
+		assertNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+	}
+
+	@Test
+	void initiateOverItsLimitIsRejectedAsUnavailable() throws Exception {
+		hold("POST", INITIATE, EndpointClass.INITIATE);
+
+		MockHttpServletResponse response = send("POST", INITIATE);
+
+		assertEquals(503, response.getStatus());
+		assertNotNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+		assertEquals(1.0, shed(EndpointClass.INITIATE, "limit"));
+	}
+
+	@Test
+	void exportsAreShedWhileStatusPollsAreSaturated() throws Exception {
+		for (int i = 0; i < 4; i++) {
+			hold("GET", STATUS, EndpointClass.STATUS);
+		}
+		hold("GET", EXPORT, EndpointClass.EXPORT);
+
+		MockHttpServletResponse response = send("GET", EXPORT);
+
+		assertEquals(429, response.getStatus());
+		assertEquals(1.0, shed(EndpointClass.EXPORT, "priority"));
+	}
+
+	@Test
+	void reportingReadsAreClassifiedBelowStatusPolls() {
+		assertEquals(EndpointClass.EXPORT, EndpointClass.of(new MockHttpServletRequest("GET", EXPORT)));
+		assertEquals(EndpointClass.STATS, EndpointClass.of(new MockHttpServletRequest("GET", "/payments/stats")));
+		assertTrue(EndpointClass.EXPORT.getPriority() > EndpointClass.STATUS.getPriority());
+		assertTrue(EndpointClass.STATS.getPriority() > EndpointClass.STATUS.getPriority());
+	}
+
+	@Test
+	void requestsOutsidePaymentsAreNotAdmissionControlled() throws Exception {
+		hold("POST", INITIATE, EndpointClass.INITIATE);
+
+		MockHttpServletResponse response = send("GET", "/actuator/health");
+
+		assertEquals(200, response.getStatus());
+	}
+
+	private MockHttpServletResponse send(String method, String uri) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(new MockHttpServletRequest(method, uri), response, chain);
+		return response;
+	}
+
+	// Starts a request that stays admitted until the test ends
+	private void hold(String method, String uri, EndpointClass endpointClass) throws InterruptedException {
+		double before = inflight(endpointClass);
+		FilterChain blocking = (request, response) -> {
+			try {
+				finish.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+		executor.submit(() -> {
+			filter.doFilter(new MockHttpServletRequest(method, uri), new MockHttpServletResponse(), blocking);
+			return null;
+		});
+		for (int wait = 0; wait < 500 && inflight(endpointClass) == before; wait++) {
+			Thread.sleep(10);
+		}
+		assertEquals(before + 1, inflight(endpointClass));
+	}
+
+	private double inflight(EndpointClass endpointClass) {
+		return meterRegistry.get("payment.admission.inflight").tag("endpoint", endpointClass.getTagValue()).gauge().value();
+	}
+
+	private double shed(EndpointClass endpointClass, String reason) {
+		return meterRegistry.get("payment.admission.shed").tag("endpoint", endpointClass.getTagValue())
+				.tag("reason", reason).counter().count();
+	}
+
+	private static AdmissionProperties.Limits limits(int initial, int min, int max) {
+		AdmissionProperties.Limits limits = new AdmissionProperties.Limits();
+		limits.setInitialLimit(initial);
+		limits.setMinLimit(min);
+		limits.setMaxLimit(max);
+		return limits;
+	}
+}
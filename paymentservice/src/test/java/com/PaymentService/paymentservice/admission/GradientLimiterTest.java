@@ -0,0 +1,94 @@
+package com.PaymentService.paymentservice.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientLimiterTest {
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+	@Test
+	void growsWhileSaturatedAndLatencyHoldsSteady() {
+		GradientLimiter limiter = new GradientLimiter(10, 2, 100);
+
+		saturatedSamples(limiter, 50, FAST);
+
+		assertTrue(limiter.getLimit() > 10, "limit " + limiter.getLimit());
+	}
+
+	@Test
+	void shrinksWhenLatencyRises() {
+		GradientLimiter limiter = new GradientLimiter(10, 2, 100);
+		saturatedSamples(limiter, 50, FAST);
+		int steadyLimit = limiter.getLimit();
+
+		saturatedSamples(limiter, 20, SLOW);
+
+		assertTrue(limiter.getLimit() < steadyLimit / 2, "limit " + limiter.getLimit() + " after " + steadyLimit);
+	}
+
+	@Test
+	void staysWithinItsBounds() {
+		GradientLimiter limiter = new GradientLimiter(10, 8, 16);
+
+		saturatedSamples(limiter, 200, FAST);
+		assertEquals(16, limiter.getLimit());
+
+		saturatedSamples(limiter, 40, SLOW * 10);
+		assertEquals(8, limiter.getLimit());
+	}
+
+	@Test
+	void doesNotGrowWhileMostlyIdle() {
+		GradientLimiter limiter = new GradientLimiter(10, 2, 100);
+
+		for (int i = 0; i < 50; i++) {
+			assertTrue(limiter.tryAcquire(1.0));
+			limiter.release(FAST);
+		}
+
+		assertEquals(10, limiter.getLimit());
+	}
+
+	@Test
+	void fractionCapsAcquisitionsButNeverBelowTheMinimum() {
+		GradientLimiter limiter = new GradientLimiter(8, 1, 8);
+
+		assertTrue(limiter.tryAcquire(0.25));
+		assertTrue(limiter.tryAcquire(0.25));
+		assertFalse(limiter.tryAcquire(0.25));
+		assertFalse(limiter.isSaturated());
+
+		GradientLimiter small = new GradientLimiter(2, 1, 2);
+		assertTrue(small.tryAcquire(0.1));
+		assertFalse(small.tryAcquire(0.1));
+	}
+
+	@Test
+	void failedRequestsFreeTheirSlotWithoutAdjustingTheLimit() {
+		GradientLimiter limiter = new GradientLimiter(2, 1, 10);
+		assertTrue(limiter.tryAcquire(1.0));
+		assertTrue(limiter.tryAcquire(1.0));
+		assertTrue(limiter.isSaturated());
+
+		limiter.release(0);
+
+		assertEquals(1, limiter.getInflight());
+		assertEquals(2, limiter.getLimit());
+	}
+
+	// Fills the limit, then completes one request, so every sample is taken at full concurrency
+	private static void saturatedSamples(GradientLimiter limiter, int count, long rttNanos) {
+		for (int i = 0; i < count; i++) {
+			while (limiter.tryAcquire(1.0)) {
+				// take every free slot
+			}
+			limiter.release(rttNanos);
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.PaymentService.paymentservice.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NegativeLookupCacheTest {
+
+	@Test
+	void remembersKeyUntilItExpires() throws InterruptedException {
+		NegativeLookupCache cache = new NegativeLookupCache(20, 10);
+		cache.put("pay_missing");
+		assertTrue(cache.contains("pay_missing"));
+
+		Thread.sleep(40);
+		assertFalse(cache.contains("pay_missing"));
+	}
+
+	@Test
+	void unknownKeyIsNotContained() {
+		NegativeLookupCache cache = new NegativeLookupCache(60_000, 10);
+		assertFalse(cache.contains("pay_never_seen"));
+	}
+
+	@Test
+	void invalidateForgetsKey() {
+		NegativeLookupCache cache = new NegativeLookupCache(60_000, 10);
+		cache.put("pay_1");
+		cache.invalidate("pay_1");
+		assertFalse(cache.contains("pay_1"));
+	}
+
+	@Test
+	void fullCacheEvictsExpiredEntriesFirst() throws InterruptedException {
+		NegativeLookupCache cache = new NegativeLookupCache(20, 2);
+		cache.put("pay_old_1");
+		cache.put("pay_old_2");
+		Thread.sleep(40);
+
+		cache.put("pay_new");
+		assertTrue(cache.contains("pay_new"));
+		assertFalse(cache.contains("pay_old_1"));
+	}
+
+	@Test
+	void fullCacheOfLiveEntriesStartsOver() {
+		NegativeLookupCache cache = new NegativeLookupCache(60_000, 2);
+		cache.put("pay_1");
+		cache.put("pay_2");
+
+		cache.put("pay_3");
+		assertTrue(cache.contains("pay_3"));
+		assertFalse(cache.contains("pay_1"));
+		assertFalse(cache.contains("pay_2"));
+	}
+
+}
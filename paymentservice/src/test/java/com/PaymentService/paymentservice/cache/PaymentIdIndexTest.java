@@ -0,0 +1,106 @@
+package com.PaymentService.paymentservice.cache;
+
+import com.PaymentService.paymentservice.repositories.PaymentRepository;
+import com.PaymentService.paymentservice.sharding.ShardTopology;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.sql.DataSource;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The filter against a mocked repository: ids stored anywhere are let through, including ones
+ * only a refresh can know about, and ids are only reported unknown after a refresh.
+ */
+class PaymentIdIndexTest {
+
+	private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+	private PaymentIdIndex index;
+
+	@BeforeEach
+	void createIndex() {
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		when(paymentRepository.streamAllPaymentIds()).thenAnswer(invocation -> Stream.of("pay_1"));
+		when(paymentRepository.streamPaymentIdsUpdatedSince(any())).thenAnswer(invocation -> Stream.empty());
+		index = new PaymentIdIndex(paymentRepository, ShardTopology.single(mock(DataSource.class)), transactionManager,
+				1000, 0.01, 5000, 1000, 60_000, 100);
+	}
+
+	@Test
+	void everyIdIsLookedUpUntilTheFirstBuild() {
+		assertFalse(index.isKnownAbsent("pay_bogus"));
+		verify(paymentRepository, never()).streamPaymentIdsUpdatedSince(any());
+	}
+
+	@Test
+	void storedIdsPassWithoutARefresh() {
+		index.rebuild();
+
+		assertFalse(index.isKnownAbsent("pay_1"));
+		verify(paymentRepository, never()).streamPaymentIdsUpdatedSince(any());
+	}
+
+	@Test
+	void anIdStoredByAnotherNodeSinceTheLastRefreshIsFoundByTheCatchUp() {
+		index.rebuild();
+		when(paymentRepository.streamPaymentIdsUpdatedSince(any())).thenAnswer(invocation -> Stream.of("pay_2"));
+
+		assertFalse(index.isKnownAbsent("pay_2"));
+	}
+
+	@Test
+	void anUnknownIdIsRejectedAfterOneRefreshAndThenFromMemory() {
+		index.rebuild();
+
+		assertTrue(index.isKnownAbsent("pay_bogus"));
+		assertTrue(index.isKnownAbsent("pay_bogus"));
+		verify(paymentRepository, times(1)).streamPaymentIdsUpdatedSince(any());
+	}
+
+	@Test
+	void aScheduledRefreshClearsTheMissOfAnIdStoredSince() {
+		index.rebuild();
+		assertTrue(index.isKnownAbsent("pay_late"));
+		when(paymentRepository.streamPaymentIdsUpdatedSince(any())).thenAnswer(invocation -> Stream.of("pay_late"));
+
+		index.refresh();
+
+		assertFalse(index.isKnownAbsent("pay_late"));
+	}
+
+	@Test
+	void aFailedRefreshLooksTheIdUp() {
+		index.rebuild();
+		when(paymentRepository.streamPaymentIdsUpdatedSince(any()))
+				.thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+		assertFalse(index.isKnownAbsent("pay_bogus"));
+	}
+
+	@Test
+	void storingAnIdClearsItsMiss() {
+		index.markAbsent("pay_late");
+		index.add("pay_late");
+		assertFalse(index.isKnownAbsent("pay_late"));
+	}
+
+	@Test
+	void addingNullIsIgnored() {
+		index.add(null);
+		assertFalse(index.isKnownAbsent("pay_1"));
+	}
+
+}
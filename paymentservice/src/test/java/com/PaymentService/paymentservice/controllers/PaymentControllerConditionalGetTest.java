@@ -0,0 +1,140 @@
+package com.PaymentService.paymentservice.controllers;
+
+import com.PaymentService.paymentservice.dtos.PaymentStatusResponseDto;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.repositories.PaymentVersion;
+import com.PaymentService.paymentservice.services.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PaymentControllerConditionalGetTest {
+
+	private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+	private PaymentService paymentService;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		paymentService = mock(PaymentService.class);
+		mockMvc = MockMvcBuilders.standaloneSetup(new PaymentController(paymentService)).build();
+	}
+
+	@Test
+	void orderStatusIsNotModifiedWhileRowVersionMatches() throws Exception {
+		when(paymentService.getPaymentVersionByOrderId("order_1"))
+				.thenReturn(Optional.of(version(Payment.PaymentStatus.SUCCESS)));
+		when(paymentService.getPaymentStatusByOrderId("order_1")).thenReturn(statusBody("captured", null));
+
+		MvcResult first = mockMvc.perform(get("/payments/status/order/order_1"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+				.andReturn();
+		String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/payments/status/order/order_1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, eTag))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+		verify(paymentService, times(1)).getPaymentStatusByOrderId("order_1");
+	}
+
+	@Test
+	void terminalOrderStatusIsPubliclyCacheable() throws Exception {
+		when(paymentService.getPaymentVersionByOrderId("order_1"))
+				.thenReturn(Optional.of(version(Payment.PaymentStatus.REFUNDED)));
+		when(paymentService.getPaymentStatusByOrderId("order_1")).thenReturn(statusBody("REFUNDED", null));
+
+		mockMvc.perform(get("/payments/status/order/order_1"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"));
+	}
+
+	@Test
+	void failedOrderStatusIsRevalidated() throws Exception {
+		// A later successful attempt can still move a failed payment to SUCCESS
+		when(paymentService.getPaymentVersionByOrderId("order_1"))
+				.thenReturn(Optional.of(version(Payment.PaymentStatus.FAILED)));
+		when(paymentService.getPaymentStatusByOrderId("order_1")).thenReturn(statusBody("FAILED", null));
+
+		mockMvc.perform(get("/payments/status/order/order_1"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+	}
+
+	@Test
+	void paymentStatusIsNotModifiedWithoutLoadingItOrCallingTheGateway() throws Exception {
+		when(paymentService.getPaymentVersion("pay_1")).thenReturn(Optional.of(version(Payment.PaymentStatus.PENDING)));
+		when(paymentService.getPaymentStatus("pay_1")).thenReturn(statusBody("authorized", null));
+		String eTag = mockMvc.perform(get("/payments/status/pay_1"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/payments/status/pay_1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+		verify(paymentService, times(1)).getPaymentStatus("pay_1");
+
+		// Verify or the gateway sync stored the capture
+		when(paymentService.getPaymentVersion("pay_1")).thenReturn(Optional.of(version(Payment.PaymentStatus.SUCCESS)));
+		when(paymentService.getPaymentStatus("pay_1")).thenReturn(statusBody("captured", "card"));
+		String changed = mockMvc.perform(get("/payments/status/pay_1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(eTag, changed);
+	}
+
+	@Test
+	void statusWithoutAStoredVersionIsServedWithoutAValidator() throws Exception {
+		when(paymentService.getPaymentVersion("pay_1")).thenReturn(Optional.empty());
+		when(paymentService.getPaymentStatus("pay_1")).thenReturn(statusBody("captured", "card"));
+
+		mockMvc.perform(get("/payments/status/pay_1"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.ETAG));
+	}
+
+	private static PaymentVersion version(Payment.PaymentStatus status) {
+		return new PaymentVersion() {
+			@Override
+			public Payment.PaymentStatus getStatus() {
+				return status;
+			}
+
+			@Override
+			public LocalDateTime getUpdatedAt() {
+				return UPDATED_AT;
+			}
+		};
+	}
+
+	private static PaymentStatusResponseDto statusBody(String status, String method) {
+		PaymentStatusResponseDto response = new PaymentStatusResponseDto();
+		response.setPaymentId("pay_1");
+		response.setOrderId("order_1");
+		response.setStatus(status);
+		response.setAmount(50_000L);
+		response.setCurrency("INR");
+		response.setMethod(method);
+		response.setRefundedAmount(0L);
+		return response;
+	}
+
+}
@@ -0,0 +1,197 @@
+package com.PaymentService.paymentservice.grpc;
+
+import com.PaymentService.paymentservice.dtos.PaymentStatusResponseDto;
+import com.PaymentService.paymentservice.exceptions.InvalidPaymentStateException;
+import com.PaymentService.paymentservice.exceptions.PaymentNotFoundException;
+import com.PaymentService.paymentservice.grpc.v1.InitiatePaymentRequest;
+import com.PaymentService.paymentservice.grpc.v1.PaymentApiGrpc;
+import com.PaymentService.paymentservice.grpc.v1.PaymentStatusRequest;
+import com.PaymentService.paymentservice.grpc.v1.PaymentStatusResponse;
+import com.PaymentService.paymentservice.grpc.v1.RefundPaymentRequest;
+import com.PaymentService.paymentservice.grpc.v1.VerifyPaymentRequest;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.repositories.PaymentVersion;
+import com.PaymentService.paymentservice.services.PaymentService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * The gRPC binding over an in-process channel: request validation, the mapping of service
+ * exceptions to status codes, and the cap on open status watches.
+ */
+class PaymentGrpcServiceTest {
+
+	private final PaymentService paymentService = mock(PaymentService.class);
+	private PaymentGrpcService grpcService;
+	private Server server;
+	private ManagedChannel channel;
+	private PaymentApiGrpc.PaymentApiBlockingStub stub;
+
+	@BeforeEach
+	void startServer() throws Exception {
+		GrpcProperties properties = new GrpcProperties();
+		properties.setWatchIntervalMs(20);
+		properties.setMaxWatches(1);
+		grpcService = new PaymentGrpcService(paymentService, properties);
+		String name = InProcessServerBuilder.generateName();
+		server = InProcessServerBuilder.forName(name).directExecutor().addService(grpcService).build().start();
+		channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+		stub = PaymentApiGrpc.newBlockingStub(channel);
+	}
+
+	@AfterEach
+	void stopServer() throws InterruptedException {
+		channel.shutdownNow();
+		server.shutdownNow();
+		grpcService.shutdown();
+		assertTrue(server.awaitTermination(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void rejectsInvalidRequestsBeforeCallingTheService() {
+		StatusRuntimeException missingOrder = assertThrows(StatusRuntimeException.class, () -> stub.initiatePayment(
+				InitiatePaymentRequest.newBuilder().setAmount(100).setPhoneNumber("9999999999").setEmail("a@b.c").build()));
+		StatusRuntimeException badPhone = assertThrows(StatusRuntimeException.class, () -> stub.initiatePayment(
+				InitiatePaymentRequest.newBuilder().setOrderId("order-1").setAmount(100).setPhoneNumber("12")
+						.setEmail("a@b.c").build()));
+		StatusRuntimeException zeroRefund = assertThrows(StatusRuntimeException.class, () -> stub.refundPayment(
+				RefundPaymentRequest.newBuilder().setPaymentId("pay_1").setAmount(0).build()));
+
+		assertEquals(Status.Code.INVALID_ARGUMENT, missingOrder.getStatus().getCode());
+		assertEquals("Order ID is required", missingOrder.getStatus().getDescription());
+		assertEquals(Status.Code.INVALID_ARGUMENT, badPhone.getStatus().getCode());
+		assertEquals(Status.Code.INVALID_ARGUMENT, zeroRefund.getStatus().getCode());
+		verifyNoInteractions(paymentService);
+	}
+
+	@Test
+	void mapsServiceExceptionsToStatusCodes() {
+		when(paymentService.getPaymentStatus("missing")).thenThrow(new PaymentNotFoundException("Payment not found"));
+		when(paymentService.refundPayment(anyString(), any())).thenThrow(new InvalidPaymentStateException("Already refunded"));
+		when(paymentService.verifyPayment("pay_1", null))
+				.thenThrow(new ObjectOptimisticLockingFailureException(Payment.class, 1L));
+
+		assertEquals(Status.Code.NOT_FOUND, codeOf(() -> stub.getPaymentStatus(statusRequest("missing"))));
+		assertEquals(Status.Code.FAILED_PRECONDITION, codeOf(() -> stub.refundPayment(
+				RefundPaymentRequest.newBuilder().setPaymentId("pay_1").build())));
+		assertEquals(Status.Code.ABORTED, codeOf(() -> stub.verifyPayment(
+				VerifyPaymentRequest.newBuilder().setPaymentId("pay_1").build())));
+	}
+
+	@Test
+	void unexpectedErrorsDoNotLeakTheirMessage() {
+		when(paymentService.getPaymentStatus("pay_1")).thenThrow(new IllegalStateException("connection pool exhausted"));
+
+		StatusRuntimeException error = assertThrows(StatusRuntimeException.class,
+				() -> stub.getPaymentStatus(statusRequest("pay_1")));
+
+		assertEquals(Status.Code.INTERNAL, error.getStatus().getCode());
+		assertEquals("An unexpected error occurred", error.getStatus().getDescription());
+	}
+
+	@Test
+	void watchStreamsUntilTheStatusIsTerminal() {
+		when(paymentService.getPaymentVersion("pay_1"))
+				.thenReturn(Optional.of(version(Payment.PaymentStatus.SUCCESS, 1)))
+				.thenReturn(Optional.of(version(Payment.PaymentStatus.REFUNDED, 2)));
+		when(paymentService.getStoredPaymentStatus("pay_1"))
+				.thenReturn(status("SUCCESS"))
+				.thenReturn(status("REFUNDED"));
+
+		Iterator<PaymentStatusResponse> updates = stub.watchPaymentStatus(statusRequest("pay_1"));
+
+		assertEquals("SUCCESS", updates.next().getStatus());
+		assertEquals("REFUNDED", updates.next().getStatus());
+		assertFalse(updates.hasNext());
+		assertEquals(0, grpcService.getActiveWatches());
+	}
+
+	@Test
+	void refusesWatchesOverTheCap() throws InterruptedException {
+		when(paymentService.getPaymentVersion("pay_1")).thenReturn(Optional.of(version(Payment.PaymentStatus.PENDING, 1)));
+		when(paymentService.getStoredPaymentStatus("pay_1")).thenReturn(status("PENDING"));
+		CountDownLatch firstUpdate = new CountDownLatch(1);
+		PaymentApiGrpc.newStub(channel).watchPaymentStatus(statusRequest("pay_1"), new StreamObserver<>() {
+			@Override
+			public void onNext(PaymentStatusResponse value) {
+				firstUpdate.countDown();
+			}
+
+			@Override
+			public void onError(Throwable t) {
+			}
+
+			@Override
+			public void onCompleted() {
+			}
+		});
+		assertTrue(firstUpdate.await(5, TimeUnit.SECONDS));
+
+		StatusRuntimeException refused = assertThrows(StatusRuntimeException.class,
+				() -> stub.watchPaymentStatus(statusRequest("pay_1")).hasNext());
+
+		assertEquals(Status.Code.RESOURCE_EXHAUSTED, refused.getStatus().getCode());
+		assertEquals(1, grpcService.getActiveWatches());
+	}
+
+	@Test
+	void rejectsWatchesWithoutAPaymentId() {
+		assertEquals(Status.Code.INVALID_ARGUMENT, codeOf(() -> stub.watchPaymentStatus(statusRequest("")).hasNext()));
+		assertEquals(0, grpcService.getActiveWatches());
+	}
+
+	private static Status.Code codeOf(Runnable call) {
+		return assertThrows(StatusRuntimeException.class, call::run).getStatus().getCode();
+	}
+
+	private static PaymentStatusRequest statusRequest(String paymentId) {
+		return PaymentStatusRequest.newBuilder().setPaymentId(paymentId).build();
+	}
+
+	private static PaymentStatusResponseDto status(String status) {
+		PaymentStatusResponseDto dto = new PaymentStatusResponseDto();
+		dto.setPaymentId("pay_1");
+		dto.setStatus(status);
+		return dto;
+	}
+
+	private static PaymentVersion version(Payment.PaymentStatus status, int minute) {
+		LocalDateTime updatedAt = LocalDateTime.of(2024, 3, 1, 10, minute);
+		return new PaymentVersion() {
+			@Override
+			public Payment.PaymentStatus getStatus() {
+				return status;
+			}
+
+			@Override
+			public LocalDateTime getUpdatedAt() {
+				return updatedAt;
+			}
+		};
+	}
+}
@@ -0,0 +1,88 @@
+package com.PaymentService.paymentservice.journal;
+
+import com.PaymentService.paymentservice.models.Payment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GatewayJournalTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void refundsLeftOpenAreRecoveredByTheirIdempotencyKey() {
+		GatewayJournal journal = open();
+		long interrupted = journal.refundIntent("key-1", "pay_1");
+		long answered = journal.refundIntent("key-2", "pay_2");
+		journal.refundOutcome(answered, Map.of("refundId", "rfnd_2", "status", "processed"));
+		long completed = journal.refundIntent("key-3", "pay_3");
+		journal.refundOutcome(completed, Map.of("refundId", "rfnd_3", "status", "processed"));
+		journal.close(completed);
+		journal.shutdown();
+
+		List<PendingRefund> pending = open().pendingRefunds();
+
+		assertEquals(2, pending.size());
+		PendingRefund first = pending.get(0);
+		assertEquals(interrupted, first.opId());
+		assertEquals("key-1", first.idempotencyKey());
+		assertEquals("pay_1", first.paymentId());
+		assertFalse(first.hasOutcome());
+		PendingRefund second = pending.get(1);
+		assertEquals("key-2", second.idempotencyKey());
+		assertTrue(second.hasOutcome());
+		assertEquals("rfnd_2", second.gatewayRefundId());
+		assertEquals("processed", second.gatewayStatus());
+	}
+
+	@Test
+	void paymentLinksAndRefundsAreRecoveredSeparately() {
+		GatewayJournal journal = open();
+		journal.paymentLinkIntent("order_1", 50_000L, "9999999999", null, Payment.PaymentGatewayType.STRIPE, "merchant_a");
+		journal.refundIntent("key-1", "pay_1");
+		journal.shutdown();
+
+		GatewayJournal reopened = open();
+		List<PendingPaymentLink> links = reopened.pendingPaymentLinks();
+
+		assertEquals(1, links.size());
+		assertEquals("order_1", links.get(0).orderId());
+		assertEquals(50_000L, links.get(0).amount());
+		assertNull(links.get(0).email());
+		assertEquals(Payment.PaymentGatewayType.STRIPE, links.get(0).gatewayType());
+		assertEquals("merchant_a", links.get(0).merchantId());
+		assertEquals(1, reopened.pendingRefunds().size());
+	}
+
+	@Test
+	void aDisabledJournalHandsOutNoOperations() {
+		JournalProperties properties = new JournalProperties();
+		properties.setEnabled(false);
+		GatewayJournal journal = new GatewayJournal(properties, new SimpleMeterRegistry());
+
+		long opId = journal.refundIntent("key-1", "pay_1");
+		journal.refundOutcome(opId, Map.of("refundId", "rfnd_1", "status", "processed"));
+		journal.close(opId);
+
+		assertEquals(0, opId);
+		assertTrue(journal.pendingRefunds().isEmpty());
+	}
+
+	private GatewayJournal open() {
+		JournalProperties properties = new JournalProperties();
+		properties.setDirectory(directory.toString());
+		properties.setSegmentSizeBytes(64 * 1024);
+		properties.setForceIntervalMs(60_000);
+		return new GatewayJournal(properties, new SimpleMeterRegistry());
+	}
+}
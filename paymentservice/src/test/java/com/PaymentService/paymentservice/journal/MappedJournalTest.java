@@ -0,0 +1,210 @@
+package com.PaymentService.paymentservice.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class MappedJournalTest {
+	private static final int SEGMENT_SIZE = 64 * 1024;
+	private static final int SEGMENT_HEADER_SIZE = 8;
+	private static final int RECORD_HEADER_SIZE = 8;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void reopensWithOnlyTheOperationsLeftOpen() {
+		MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE);
+		journal.append(JournalRecord.intent(1, List.of("REFUND", "key-1", "pay_1")));
+		journal.append(JournalRecord.outcome(1, List.of("rfnd_1", "processed")));
+		journal.append(JournalRecord.close(1));
+		journal.append(JournalRecord.intent(2, List.of("REFUND", "key-2", "pay_2")));
+		journal.append(JournalRecord.outcome(2, List.of("rfnd_2", "processed")));
+		journal.append(JournalRecord.intent(3, List.of("REFUND", "key-3", "pay_3")));
+		journal.close();
+
+		MappedJournal reopened = new MappedJournal(directory, SEGMENT_SIZE);
+
+		assertEquals(List.of(2L, 3L), List.copyOf(reopened.recovered().keySet()));
+		assertEquals(List.of("rfnd_2", "processed"), reopened.recovered().get(2L).get(1).fields());
+		assertEquals(1, reopened.recovered().get(3L).size());
+		assertEquals(2, reopened.openOperations());
+		assertTrue(reopened.nextOpId() > 3);
+	}
+
+	@Test
+	void replayStopsAtATornRecordAndTheJournalCarriesOn() throws IOException {
+		JournalRecord first = JournalRecord.intent(1, List.of("REFUND", "key-1", "pay_1"));
+		JournalRecord torn = JournalRecord.intent(2, List.of("REFUND", "key-2", "pay_2"));
+		MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE);
+		journal.append(first);
+		journal.append(torn);
+		journal.append(JournalRecord.intent(3, List.of("REFUND", "key-3", "pay_3")));
+		journal.close();
+		// Damage the payload of the second record, as a crash in the middle of writing it would
+		int tornPayload = SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE + first.encode().length + RECORD_HEADER_SIZE;
+		flipByte(onlySegment(), tornPayload + torn.encode().length - 1);
+
+		MappedJournal reopened = new MappedJournal(directory, SEGMENT_SIZE);
+		assertEquals(List.of(1L), List.copyOf(reopened.recovered().keySet()));
+		long next = reopened.nextOpId();
+		reopened.append(JournalRecord.intent(next, List.of("REFUND", "key-4", "pay_4")));
+		reopened.close();
+
+		MappedJournal again = new MappedJournal(directory, SEGMENT_SIZE);
+		assertEquals(List.of(1L, next), List.copyOf(again.recovered().keySet()));
+	}
+
+	@Test
+	void replayStopsAtALengthPastTheEndOfTheSegment() throws IOException {
+		JournalRecord first = JournalRecord.intent(1, List.of("REFUND", "key-1", "pay_1"));
+		MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE);
+		journal.append(first);
+		journal.close();
+		writeInt(onlySegment(), SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE + first.encode().length, SEGMENT_SIZE);
+
+		MappedJournal reopened = new MappedJournal(directory, SEGMENT_SIZE);
+		assertEquals(List.of(1L), List.copyOf(reopened.recovered().keySet()));
+	}
+
+	@Test
+	void rollingCarriesOpenOperationsIntoASingleSegment() throws IOException {
+		MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE);
+		journal.append(JournalRecord.intent(1, List.of("REFUND", "key-1", "pay_1")));
+		journal.append(JournalRecord.outcome(1, List.of("rfnd_1", "processed")));
+		String padding = "x".repeat(500);
+		// About ten segments' worth of operations that open and close while the first stays open
+		for (long opId = 2; opId < 1300; opId++) {
+			journal.append(JournalRecord.intent(opId, List.of("REFUND", padding, "pay_" + opId)));
+			journal.append(JournalRecord.close(opId));
+		}
+		journal.append(JournalRecord.intent(1300, List.of("REFUND", "key-1300", "pay_1300")));
+		journal.close();
+
+		assertEquals(1, segments().size());
+		MappedJournal reopened = new MappedJournal(directory, SEGMENT_SIZE);
+		assertEquals(List.of(1L, 1300L), List.copyOf(reopened.recovered().keySet()));
+		List<JournalRecord> first = reopened.recovered().get(1L);
+		assertEquals(2, first.size());
+		assertEquals(JournalRecord.Type.OUTCOME, first.get(1).type());
+		assertTrue(reopened.nextOpId() > 1300);
+	}
+
+	@Test
+	void aCrashDuringARollReplaysBothSegmentsWithoutDuplicatingOperations() throws IOException {
+		MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE);
+		journal.append(JournalRecord.intent(1, List.of("REFUND", "key-1", "pay_1")));
+		journal.append(JournalRecord.outcome(1, List.of("rfnd_1", "processed")));
+		journal.close();
+		// The new segment was forced with the open operations copied in, the old one not yet deleted
+		Files.copy(onlySegment(), directory.resolve("journal-" + String.format("%019d", 99) + ".seg"));
+
+		MappedJournal reopened = new MappedJournal(directory, SEGMENT_SIZE);
+
+		assertEquals(2, reopened.recovered().get(1L).size());
+		assertEquals(1, segments().size());
+		reopened.close();
+		assertEquals(2, new MappedJournal(directory, SEGMENT_SIZE).recovered().get(1L).size());
+	}
+
+	@Test
+	void openOperationsThatLeaveNoRoomAfterARollFailTheAppend() {
+		MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE);
+		String padding = "x".repeat(1000);
+		UncheckedIOException failure = assertThrows(UncheckedIOException.class, () -> {
+			for (long opId = 1; opId < 200; opId++) {
+				journal.append(JournalRecord.intent(opId, List.of("REFUND", padding, "pay_" + opId)));
+			}
+		});
+		assertTrue(failure.getCause().getMessage().contains("no room"));
+	}
+
+	@Test
+	void anAgedSegmentRollsOffClosedRecordsAndKeepsOpenOnes() throws IOException {
+		MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE);
+		journal.append(JournalRecord.intent(1, List.of("PAYMENT_LINK", "order_1", "customer@example.com")));
+		journal.append(JournalRecord.close(1));
+		journal.append(JournalRecord.intent(2, List.of("REFUND", "key-2", "pay_2")));
+
+		journal.rollIfOlderThan(Long.MAX_VALUE);
+		assertTrue(contains(onlySegment(), "customer@example.com"));
+
+		journal.rollIfOlderThan(0);
+		journal.close();
+
+		assertFalse(contains(onlySegment(), "customer@example.com"));
+		assertEquals(List.of(2L), List.copyOf(new MappedJournal(directory, SEGMENT_SIZE).recovered().keySet()));
+	}
+
+	@Test
+	void segmentsAreReadableByTheirOwnerOnly() throws IOException {
+		assumeTrue(directory.getFileSystem().supportedFileAttributeViews().contains("posix"));
+		new MappedJournal(directory, SEGMENT_SIZE).close();
+
+		assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(onlySegment())));
+	}
+
+	@Test
+	void rejectsRecordsLargerThanASegmentAndSegmentsBelowTheMinimum() {
+		MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE);
+		assertThrows(IllegalArgumentException.class,
+				() -> journal.append(JournalRecord.intent(1, List.of("x".repeat(SEGMENT_SIZE)))));
+		assertThrows(IllegalArgumentException.class, () -> new MappedJournal(directory, 4096));
+	}
+
+	@Test
+	void recordsRoundTripWithNullAndMultiByteFields() {
+		JournalRecord record = JournalRecord.outcome(42, Arrays.asList("\u20b9 refund", null, ""));
+		assertEquals(record, JournalRecord.decode(ByteBuffer.wrap(record.encode())));
+	}
+
+	private Path onlySegment() throws IOException {
+		List<Path> segments = segments();
+		assertEquals(1, segments.size());
+		return segments.get(0);
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(path -> path.getFileName().toString().endsWith(".seg")).sorted().toList();
+		}
+	}
+
+	private static boolean contains(Path segment, String text) throws IOException {
+		return new String(Files.readAllBytes(segment), StandardCharsets.UTF_8).contains(text);
+	}
+
+	private static void flipByte(Path segment, int offset) throws IOException {
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.allocate(1);
+			channel.read(buffer, offset);
+			buffer.put(0, (byte) (buffer.get(0) ^ 0xff));
+			buffer.rewind();
+			channel.write(buffer, offset);
+		}
+	}
+
+	private static void writeInt(Path segment, int offset, int value) throws IOException {
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, value), offset);
+		}
+	}
+}
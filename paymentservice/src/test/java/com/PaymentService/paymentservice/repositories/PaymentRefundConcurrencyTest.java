@@ -0,0 +1,168 @@
+package com.PaymentService.paymentservice.repositories;
+
+import com.PaymentService.paymentservice.models.Payment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Refund reservations against MySQL racing each other and the read-modify-save of verify and
+ * refund completion: whatever the interleaving, refunded_amount only moves through the guarded
+ * updates and never exceeds the payment amount.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentRefundConcurrencyTest {
+
+	private static final Set<Payment.PaymentStatus> REFUNDABLE =
+			EnumSet.of(Payment.PaymentStatus.SUCCESS, Payment.PaymentStatus.PARTIALLY_REFUNDED);
+
+	@Container
+	@ServiceConnection
+	static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void setUp() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Test
+	void staleVerifySaveCannotUndoReservation() {
+		Payment payment = newPayment(1000L);
+		// Verify read the row, then a refund reserved before verify wrote its result back
+		Payment readByVerify = paymentRepository.findById(payment.getId()).orElseThrow();
+		assertEquals(1, reserve(payment.getId(), 400L));
+
+		readByVerify.setStatus(Payment.PaymentStatus.SUCCESS);
+		readByVerify.setPaymentId("pay_" + UUID.randomUUID());
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> paymentRepository.save(readByVerify));
+
+		Payment stored = paymentRepository.findById(payment.getId()).orElseThrow();
+		assertEquals(400L, stored.getRefundedAmount());
+	}
+
+	@Test
+	void entitySaveNeverWritesRefundedAmount() {
+		Payment payment = newPayment(1000L);
+		assertEquals(1, reserve(payment.getId(), 300L));
+
+		Payment fresh = paymentRepository.findById(payment.getId()).orElseThrow();
+		fresh.setRefundedAmount(0L);
+		fresh.setStatus(Payment.PaymentStatus.PARTIALLY_REFUNDED);
+		paymentRepository.save(fresh);
+
+		Payment stored = paymentRepository.findById(payment.getId()).orElseThrow();
+		assertEquals(300L, stored.getRefundedAmount());
+		assertEquals(Payment.PaymentStatus.PARTIALLY_REFUNDED, stored.getStatus());
+	}
+
+	@Test
+	void concurrentReservationsNeverOverRefund() throws Exception {
+		Payment payment = newPayment(1000L);
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return reserve(payment.getId(), 300L);
+				}));
+			}
+			start.countDown();
+			int reserved = 0;
+			for (Future<Integer> result : results) {
+				reserved += result.get();
+			}
+			assertEquals(3, reserved);
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(900L, paymentRepository.findById(payment.getId()).orElseThrow().getRefundedAmount());
+	}
+
+	@Test
+	void releasedAmountCanBeReservedAgain() throws Exception {
+		Payment payment = newPayment(1000L);
+		assertEquals(1, reserve(payment.getId(), 1000L));
+		assertEquals(0, reserve(payment.getId(), 1L));
+
+		// A failed gateway call releasing while another refund tries to reserve the same amount
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			Future<Integer> released = executor.submit(() -> {
+				start.await();
+				return transactionTemplate.execute(status -> paymentRepository.releaseRefund(payment.getId(), 1000L));
+			});
+			Future<Integer> retried = executor.submit(() -> {
+				start.await();
+				return reserve(payment.getId(), 1000L);
+			});
+			start.countDown();
+			assertEquals(1, released.get());
+			long expected = retried.get() == 1 ? 1000L : 0L;
+			assertEquals(expected, paymentRepository.findById(payment.getId()).orElseThrow().getRefundedAmount());
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(Integer.valueOf(0), transactionTemplate.execute(status -> paymentRepository.releaseRefund(payment.getId(), 5000L)));
+	}
+
+	private int reserve(Long id, long amount) {
+		Integer updated = transactionTemplate.execute(status -> paymentRepository.reserveRefund(id, amount, REFUNDABLE));
+		return updated != null ? updated : 0;
+	}
+
+	private Payment newPayment(long amount) {
+		String suffix = UUID.randomUUID().toString();
+		return paymentRepository.save(Payment.builder()
+				.orderId("order_" + suffix)
+				.amount(amount)
+				.currency("INR")
+				.phoneNumber("9999999999")
+				.email("buyer@example.com")
+				.status(Payment.PaymentStatus.SUCCESS)
+				.gatewayType(Payment.PaymentGatewayType.RAZORPAY)
+				.paymentLinkId("plink_" + suffix)
+				.build());
+	}
+
+}
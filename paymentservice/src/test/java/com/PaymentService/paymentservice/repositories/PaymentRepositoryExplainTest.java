@@ -0,0 +1,101 @@
+package com.PaymentService.paymentservice.repositories;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the Flyway migrations against a real MySQL and checks that every repository query and
+ * background scan resolves through an index rather than a full table scan.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentRepositoryExplainTest {
+
+	private static final int ROWS = 5000;
+
+	@Container
+	@ServiceConnection
+	static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	void seed() {
+		// Enough rows with spread-out values that the optimizer has no reason to prefer a scan
+		String[] statuses = {"PENDING", "SUCCESS", "FAILED", "REFUNDED", "CANCELLED"};
+		String[] gateways = {"RAZORPAY", "STRIPE"};
+		LocalDateTime start = LocalDateTime.now().minusDays(30);
+		List<Object[]> rows = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			Timestamp createdAt = Timestamp.valueOf(start.plusMinutes(i * 8L));
+			rows.add(new Object[]{"order_" + i, 1000L + i, "INR", "9999999999", "buyer@example.com",
+					statuses[i % statuses.length], gateways[i % gateways.length],
+					"plink_" + i, "pay_" + i, createdAt, createdAt});
+		}
+		jdbcTemplate.batchUpdate("insert into payments (order_id, amount, currency, phone_number, email, status, " +
+				"gateway_type, payment_link_id, payment_id, created_at, updated_at) values (?,?,?,?,?,?,?,?,?,?,?)", rows);
+		jdbcTemplate.execute("analyze table payments");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			// PaymentRepository derived and @Query lookups
+			"select * from payments where order_id = 'order_42'",
+			"select * from payments where payment_link_id = 'plink_42'",
+			"select * from payments where payment_id = 'pay_42'",
+			"select payment_id from payments where payment_id is not null",
+			"select status, updated_at from payments where payment_id = 'pay_42'",
+			"select status, updated_at from payments where order_id = 'order_42'",
+			// Bulk gateway sync matching a page of records, and its cursor
+			"select * from payments where payment_link_id in ('plink_1', 'plink_42', 'plink_99')",
+			"select * from payments where order_id in ('order_1', 'order_42', 'order_99')",
+			"select synced_until from gateway_sync_cursors where gateway_type = 'STRIPE' and account_id = ''",
+			// Refund ledger of a payment
+			"select * from refunds where payment_id = 42 order by created_at",
+			// Status scans bounded by creation time
+			"select * from payments where status = 'PENDING' and created_at < now() - interval 1 day order by created_at limit 100",
+			// Gateway reporting over a window
+			"select status, count(*), sum(amount) from payments where gateway_type = 'STRIPE' " +
+					"and created_at >= now() - interval 1 day group by status",
+			// Recently changed rows
+			"select id, status from payments where updated_at >= now() - interval 1 hour order by updated_at limit 500",
+			// Settlement export keyset pages, unfiltered and filtered
+			"select * from payments where created_at >= now() - interval 2 day and created_at < now() " +
+					"and (created_at > now() - interval 2 day or (created_at = now() - interval 2 day and id > 0)) " +
+					"order by created_at, id limit 5000",
+			"select * from payments where created_at >= now() - interval 2 day and created_at < now() and status = 'SUCCESS' " +
+					"and (created_at > now() - interval 2 day or (created_at = now() - interval 2 day and id > 0)) " +
+					"order by created_at, id limit 5000"
+	})
+	void queryDoesNotScanTable(String sql) {
+		List<Map<String, Object>> plan = jdbcTemplate.queryForList("explain " + sql);
+		for (Map<String, Object> step : plan) {
+			assertFalse("ALL".equals(step.get("type")), () -> "Full table scan for: " + sql + " -> " + plan);
+		}
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.PaymentService.paymentservice.retry;
+
+import com.PaymentService.paymentservice.models.Payment;
+import com.razorpay.RazorpayException;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.RateLimitException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GatewayErrorClassifierTest {
+	private static final Payment.PaymentGatewayType RAZORPAY = Payment.PaymentGatewayType.RAZORPAY;
+	private static final Payment.PaymentGatewayType STRIPE = Payment.PaymentGatewayType.STRIPE;
+
+	@Test
+	void razorpayServerAndGatewayErrorsAreRetryable() {
+		assertTrue(GatewayErrorClassifier.isRetryable(RAZORPAY, new RazorpayException("SERVER_ERROR:Something went wrong")));
+		assertTrue(GatewayErrorClassifier.isRetryable(RAZORPAY, new RazorpayException("GATEWAY_ERROR:Bank timed out")));
+	}
+
+	@Test
+	void razorpayBadRequestsAreNotRetryable() {
+		assertFalse(GatewayErrorClassifier.isRetryable(RAZORPAY,
+				new RazorpayException("BAD_REQUEST_ERROR:The amount must be at least INR 1.00")));
+		assertFalse(GatewayErrorClassifier.isRetryable(RAZORPAY, new RazorpayException((String) null)));
+	}
+
+	@Test
+	void razorpayStatusLinesAreClassifiedByCode() {
+		assertTrue(GatewayErrorClassifier.isRetryable(RAZORPAY,
+				new RazorpayException("Status Code: 502\nServer response: <html>Bad Gateway</html>")));
+		assertTrue(GatewayErrorClassifier.isRetryable(RAZORPAY,
+				new RazorpayException("Status Code: 429\nServer response: ")));
+		assertFalse(GatewayErrorClassifier.isRetryable(RAZORPAY,
+				new RazorpayException("Status Code: 401\nServer response: ")));
+	}
+
+	@Test
+	void razorpayTransportMessagesAreRetryable() {
+		assertTrue(GatewayErrorClassifier.isRetryable(RAZORPAY, new RazorpayException("Read timed out")));
+		assertTrue(GatewayErrorClassifier.isRetryable(RAZORPAY, new RazorpayException("Connection reset")));
+	}
+
+	@Test
+	void ioExceptionCausesAreRetryableForEitherGateway() {
+		RuntimeException wrapped = new RuntimeException("refund failed", new SocketTimeoutException("Read timed out"));
+		assertTrue(GatewayErrorClassifier.isRetryable(RAZORPAY, wrapped));
+		assertTrue(GatewayErrorClassifier.isRetryable(STRIPE, new RuntimeException(new IOException("broken pipe"))));
+	}
+
+	@Test
+	void stripeConnectionAndRateLimitErrorsAreRetryable() {
+		assertTrue(GatewayErrorClassifier.isRetryable(STRIPE,
+				new RuntimeException(new ApiConnectionException("Could not connect to Stripe"))));
+		assertTrue(GatewayErrorClassifier.isRetryable(STRIPE,
+				new RuntimeException(new RateLimitException("Too many requests", null, "req_1", "rate_limit", 429, null))));
+	}
+
+	@Test
+	void stripeApiErrorsAreClassifiedByStatusCode() {
+		assertTrue(GatewayErrorClassifier.isRetryable(STRIPE,
+				new RuntimeException(new ApiException("Internal error", "req_1", null, 500, null))));
+		// Another request with the same idempotency key is still in flight
+		assertTrue(GatewayErrorClassifier.isRetryable(STRIPE,
+				new RuntimeException(new ApiException("Conflict", "req_2", "idempotency_key_in_use", 409, null))));
+		assertFalse(GatewayErrorClassifier.isRetryable(STRIPE,
+				new RuntimeException(new ApiException("Invalid amount", "req_3", "parameter_invalid_integer", 400, null))));
+	}
+
+	@Test
+	void stripeErrorsWithoutAStripeCauseAreNotRetryable() {
+		assertFalse(GatewayErrorClassifier.isRetryable(STRIPE, new IllegalStateException("no charge on the payment intent")));
+	}
+}
@@ -0,0 +1,46 @@
+package com.PaymentService.paymentservice.retry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBudgetTest {
+
+	@Test
+	void startsFullAndWithdrawsWholeTokens() {
+		RetryBudget budget = new RetryBudget(0.1, 2);
+
+		assertEquals(2.0, budget.available());
+		assertTrue(budget.tryWithdraw());
+		assertTrue(budget.tryWithdraw());
+		assertFalse(budget.tryWithdraw());
+		assertEquals(0.0, budget.available());
+	}
+
+	@Test
+	void depositsRefillInFractionsOfAToken() {
+		RetryBudget budget = new RetryBudget(0.1, 1);
+		assertTrue(budget.tryWithdraw());
+
+		for (int call = 0; call < 9; call++) {
+			budget.deposit();
+		}
+		assertFalse(budget.tryWithdraw());
+
+		budget.deposit();
+		assertTrue(budget.tryWithdraw());
+	}
+
+	@Test
+	void depositsAreCappedAtTheMaximum() {
+		RetryBudget budget = new RetryBudget(0.5, 3);
+
+		for (int call = 0; call < 100; call++) {
+			budget.deposit();
+		}
+
+		assertEquals(3.0, budget.available());
+	}
+}
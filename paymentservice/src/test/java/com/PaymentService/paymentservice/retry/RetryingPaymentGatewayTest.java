@@ -0,0 +1,170 @@
+package com.PaymentService.paymentservice.retry;
+
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.paymentgateway.GatewayPaymentPage;
+import com.PaymentService.paymentservice.paymentgateway.PaymentGateway;
+import com.razorpay.RazorpayException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RetryingPaymentGatewayTest {
+	private static final Map<String, String> OK = Map.of("status", "captured");
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void retriesTransientFailuresUntilTheCallSucceeds() throws Exception {
+		ScriptedGateway delegate = new ScriptedGateway(true,
+				new RazorpayException("SERVER_ERROR:Something went wrong"), new RazorpayException("Read timed out"));
+
+		Map<String, String> response = retrying(delegate, 4, new RetryBudget(0.1, 10)).verifyPayment("pay_1");
+
+		assertSame(OK, response);
+		assertEquals(3, delegate.calls);
+		assertEquals(2.0, retries("verify_payment"));
+	}
+
+	@Test
+	void givesUpAfterMaxAttempts() {
+		ScriptedGateway delegate = new ScriptedGateway(true, new RazorpayException("SERVER_ERROR:1"),
+				new RazorpayException("SERVER_ERROR:2"), new RazorpayException("SERVER_ERROR:3"));
+
+		RazorpayException thrown = assertThrows(RazorpayException.class,
+				() -> retrying(delegate, 3, new RetryBudget(0.1, 10)).getPaymentStatus("pay_1"));
+
+		assertEquals("SERVER_ERROR:3", thrown.getMessage());
+		assertEquals(3, delegate.calls);
+	}
+
+	@Test
+	void doesNotRetryNonRetryableErrors() {
+		ScriptedGateway delegate = new ScriptedGateway(true, new RazorpayException("BAD_REQUEST_ERROR:invalid id"));
+
+		assertThrows(RazorpayException.class,
+				() -> retrying(delegate, 4, new RetryBudget(0.1, 10)).verifyPayment("pay_1"));
+
+		assertEquals(1, delegate.calls);
+	}
+
+	@Test
+	void neverRepeatsARefundOnAGatewayWithoutIdempotencyKeys() {
+		ScriptedGateway delegate = new ScriptedGateway(false, new RazorpayException("SERVER_ERROR:Something went wrong"));
+
+		assertThrows(RazorpayException.class,
+				() -> retrying(delegate, 4, new RetryBudget(0.1, 10)).refundPayment("pay_1", 100L, "key-1"));
+
+		assertEquals(1, delegate.calls);
+	}
+
+	@Test
+	void sendsTheSameIdempotencyKeyOnEveryAttempt() throws Exception {
+		ScriptedGateway delegate = new ScriptedGateway(true,
+				new RazorpayException("GATEWAY_ERROR:1"), new RazorpayException("GATEWAY_ERROR:2"));
+
+		retrying(delegate, 4, new RetryBudget(0.1, 10)).refundPayment("pay_1", 100L, "key-1");
+
+		assertEquals(List.of("key-1", "key-1", "key-1"), delegate.keys);
+	}
+
+	@Test
+	void stopsRetryingWhenTheBudgetIsEmpty() {
+		ScriptedGateway delegate = new ScriptedGateway(true, new RazorpayException("SERVER_ERROR:1"),
+				new RazorpayException("SERVER_ERROR:2"), new RazorpayException("SERVER_ERROR:3"));
+
+		RazorpayException thrown = assertThrows(RazorpayException.class,
+				() -> retrying(delegate, 4, new RetryBudget(0.1, 1)).verifyPayment("pay_1"));
+
+		assertEquals("SERVER_ERROR:2", thrown.getMessage());
+		assertEquals(2, delegate.calls);
+		assertEquals(1.0, meterRegistry.get("payment.gateway.retry.budget.exhausted").counter().count());
+	}
+
+	private RetryingPaymentGateway retrying(PaymentGateway delegate, int maxAttempts, RetryBudget budget) {
+		return new RetryingPaymentGateway(delegate, Payment.PaymentGatewayType.RAZORPAY, maxAttempts, 0, 0, budget,
+				meterRegistry);
+	}
+
+	private double retries(String operation) {
+		return meterRegistry.get("payment.gateway.retries").tag("operation", operation).counter().count();
+	}
+
+	// Throws the scripted failures in order, then answers OK
+	private static class ScriptedGateway implements PaymentGateway {
+		private final boolean idempotent;
+		private final Deque<RazorpayException> failures;
+		private final List<String> keys = new ArrayList<>();
+		private int calls;
+
+		ScriptedGateway(boolean idempotent, RazorpayException... failures) {
+			this.idempotent = idempotent;
+			this.failures = new ArrayDeque<>(List.of(failures));
+		}
+
+		private Map<String, String> answer() throws RazorpayException {
+			calls++;
+			RazorpayException failure = failures.poll();
+			if (failure != null) {
+				throw failure;
+			}
+			return OK;
+		}
+
+		@Override
+		public Map<String, String> generatePaymentLink(String orderId, Long amount, String phoneNumber, String email)
+				throws RazorpayException {
+			return answer();
+		}
+
+		@Override
+		public Map<String, String> generatePaymentLink(String orderId, Long amount, String phoneNumber, String email,
+													   String idempotencyKey) throws RazorpayException {
+			keys.add(idempotencyKey);
+			return answer();
+		}
+
+		@Override
+		public Map<String, String> verifyPayment(String paymentId) throws RazorpayException {
+			return answer();
+		}
+
+		@Override
+		public Map<String, String> refundPayment(String paymentId, Long amount) throws RazorpayException {
+			return answer();
+		}
+
+		@Override
+		public Map<String, String> refundPayment(String paymentId, Long amount, String idempotencyKey)
+				throws RazorpayException {
+			keys.add(idempotencyKey);
+			return answer();
+		}
+
+		@Override
+		public Map<String, String> getPaymentStatus(String paymentId) throws RazorpayException {
+			return answer();
+		}
+
+		@Override
+		public GatewayPaymentPage listPayments(Instant from, Instant to, String pageToken, int pageSize)
+				throws RazorpayException {
+			answer();
+			return new GatewayPaymentPage(List.of(), null);
+		}
+
+		@Override
+		public boolean supportsIdempotencyKeys() {
+			return idempotent;
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package com.PaymentService.paymentservice.services;
+
+import com.PaymentService.paymentservice.cache.PaymentIdIndex;
+import com.PaymentService.paymentservice.journal.GatewayJournal;
+import com.PaymentService.paymentservice.metrics.PaymentMetrics;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.models.Refund;
+import com.PaymentService.paymentservice.paymentgateway.GatewayPaymentRecord;
+import com.PaymentService.paymentservice.paymentgateway.PaymentGatewayFactory;
+import com.PaymentService.paymentservice.repositories.PaymentRepository;
+import com.PaymentService.paymentservice.repositories.RefundRepository;
+import com.PaymentService.paymentservice.sharding.ShardLocator;
+import com.PaymentService.paymentservice.stats.PaymentStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * How bulk sync records are matched to payments and applied, and how refund drift is booked.
+ */
+class PaymentServiceGatewaySyncTest {
+	private static final Payment.PaymentGatewayType RAZORPAY = Payment.PaymentGatewayType.RAZORPAY;
+
+	private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+	private final RefundRepository refundRepository = mock(RefundRepository.class);
+	private PaymentService paymentService;
+
+	@BeforeEach
+	void createService() {
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		paymentService = new PaymentService(mock(PaymentGatewayFactory.class), paymentRepository,
+				mock(PaymentIdIndex.class), mock(PaymentMetrics.class), mock(ShardLocator.class),
+				mock(PaymentStatsService.class), refundRepository, transactionManager, mock(GatewayJournal.class), 16, 1000);
+	}
+
+	@Test
+	void settledRecordsSettlePendingAndFailedPaymentsByLink() {
+		Payment pending = payment(1L, "order_1", "plink_1", Payment.PaymentStatus.PENDING);
+		Payment failed = payment(2L, "order_2", "plink_2", Payment.PaymentStatus.FAILED);
+		failed.setPaymentId("pay_failed");
+		when(paymentRepository.findByPaymentLinkIdIn(anyCollection())).thenReturn(List.of(pending, failed));
+
+		int updated = paymentService.applyGatewayRecords(RAZORPAY, null, List.of(
+				new GatewayPaymentRecord("pay_1", "plink_1", "order_1", "captured", 0),
+				new GatewayPaymentRecord("pay_2", "plink_2", "order_2", "paid", 0)));
+
+		assertEquals(2, updated);
+		assertEquals(Payment.PaymentStatus.SUCCESS, pending.getStatus());
+		assertEquals("pay_1", pending.getPaymentId());
+		assertEquals(Payment.PaymentStatus.SUCCESS, failed.getStatus());
+		assertEquals("pay_2", failed.getPaymentId());
+	}
+
+	@Test
+	void failedRecordsOnlyFailPendingPayments() {
+		Payment pending = payment(1L, "order_1", "plink_1", Payment.PaymentStatus.PENDING);
+		Payment settled = payment(2L, "order_2", "plink_2", Payment.PaymentStatus.SUCCESS);
+		settled.setPaymentId("pay_2");
+		when(paymentRepository.findByPaymentLinkIdIn(anyCollection())).thenReturn(List.of(pending, settled));
+
+		int updated = paymentService.applyGatewayRecords(RAZORPAY, null, List.of(
+				new GatewayPaymentRecord("pay_1", "plink_1", "order_1", "failed", 0),
+				new GatewayPaymentRecord("pay_3", "plink_2", "order_2", "failed", 0)));
+
+		assertEquals(1, updated);
+		assertEquals(Payment.PaymentStatus.FAILED, pending.getStatus());
+		assertEquals(Payment.PaymentStatus.SUCCESS, settled.getStatus());
+		assertEquals("pay_2", settled.getPaymentId());
+	}
+
+	@Test
+	void aSettledAttemptOutranksAFailedOneOnTheSameLinkInEitherOrder() {
+		Payment first = payment(1L, "order_1", "plink_1", Payment.PaymentStatus.PENDING);
+		Payment second = payment(2L, "order_2", "plink_2", Payment.PaymentStatus.PENDING);
+		when(paymentRepository.findByPaymentLinkIdIn(anyCollection())).thenReturn(List.of(first, second));
+
+		paymentService.applyGatewayRecords(RAZORPAY, null, List.of(
+				new GatewayPaymentRecord("pay_1a", "plink_1", "order_1", "failed", 0),
+				new GatewayPaymentRecord("pay_1b", "plink_1", "order_1", "captured", 0),
+				new GatewayPaymentRecord("pay_2a", "plink_2", "order_2", "captured", 0),
+				new GatewayPaymentRecord("pay_2b", "plink_2", "order_2", "failed", 0)));
+
+		assertEquals(Payment.PaymentStatus.SUCCESS, first.getStatus());
+		assertEquals("pay_1b", first.getPaymentId());
+		assertEquals(Payment.PaymentStatus.SUCCESS, second.getStatus());
+		assertEquals("pay_2a", second.getPaymentId());
+	}
+
+	@Test
+	void recordsWithoutALinkMatchByOrderId() {
+		Payment payment = payment(1L, "order_1", null, Payment.PaymentStatus.PENDING);
+		when(paymentRepository.findByOrderIdIn(anyCollection())).thenReturn(List.of(payment));
+
+		int updated = paymentService.applyGatewayRecords(RAZORPAY, null,
+				List.of(new GatewayPaymentRecord("pi_1", null, "order_1", "succeeded", 0)));
+
+		assertEquals(1, updated);
+		assertEquals(Payment.PaymentStatus.SUCCESS, payment.getStatus());
+		verify(paymentRepository, never()).findByPaymentLinkIdIn(anyCollection());
+	}
+
+	@Test
+	void paymentsOfAnotherAccountOrGatewayAreLeftAlone() {
+		Payment otherMerchant = payment(1L, "order_1", "plink_1", Payment.PaymentStatus.PENDING);
+		otherMerchant.setMerchantId("merchant_b");
+		Payment otherGateway = payment(2L, "order_2", "plink_2", Payment.PaymentStatus.PENDING);
+		otherGateway.setGatewayType(Payment.PaymentGatewayType.STRIPE);
+		when(paymentRepository.findByPaymentLinkIdIn(anyCollection())).thenReturn(List.of(otherMerchant, otherGateway));
+
+		int updated = paymentService.applyGatewayRecords(RAZORPAY, null, List.of(
+				new GatewayPaymentRecord("pay_1", "plink_1", "order_1", "captured", 0),
+				new GatewayPaymentRecord("pay_2", "plink_2", "order_2", "captured", 0)));
+
+		assertEquals(0, updated);
+		assertEquals(Payment.PaymentStatus.PENDING, otherMerchant.getStatus());
+		assertNull(otherMerchant.getPaymentId());
+		assertEquals(Payment.PaymentStatus.PENDING, otherGateway.getStatus());
+	}
+
+	@Test
+	void refundDriftIsBookedAgainstTheRefundedTotalThatWasRead() {
+		Payment payment = payment(1L, "order_1", "plink_1", Payment.PaymentStatus.PARTIALLY_REFUNDED);
+		payment.setPaymentId("pay_1");
+		payment.setRefundedAmount(100L);
+		when(paymentRepository.findByPaymentLinkIdIn(anyCollection())).thenReturn(List.of(payment));
+		when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
+		when(paymentRepository.bookRefundIfUnchanged(eq(1L), eq(100L), eq(300L), anyCollection())).thenReturn(1);
+
+		int updated = paymentService.applyGatewayRecords(RAZORPAY, null,
+				List.of(new GatewayPaymentRecord("pay_1", "plink_1", "order_1", "captured", 300)));
+
+		assertEquals(1, updated);
+		ArgumentCaptor<Refund> refund = ArgumentCaptor.forClass(Refund.class);
+		verify(refundRepository).save(refund.capture());
+		assertEquals(200L, refund.getValue().getAmount());
+		assertEquals(Refund.RefundStatus.SUCCEEDED, refund.getValue().getStatus());
+	}
+
+	@Test
+	void refundDriftAlreadyBookedByAnotherNodeIsNotBookedAgain() {
+		Payment payment = payment(1L, "order_1", "plink_1", Payment.PaymentStatus.SUCCESS);
+		payment.setPaymentId("pay_1");
+		when(paymentRepository.findByPaymentLinkIdIn(anyCollection())).thenReturn(List.of(payment));
+		when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
+		when(paymentRepository.bookRefundIfUnchanged(anyLong(), anyLong(), anyLong(), anyCollection())).thenReturn(0);
+
+		int updated = paymentService.applyGatewayRecords(RAZORPAY, null,
+				List.of(new GatewayPaymentRecord("pay_1", "plink_1", "order_1", "captured", 500)));
+
+		assertEquals(0, updated);
+		verify(paymentRepository).bookRefundIfUnchanged(eq(1L), eq(0L), eq(500L), anyCollection());
+		verify(refundRepository, never()).save(any());
+	}
+
+	private static Payment payment(Long id, String orderId, String paymentLinkId, Payment.PaymentStatus status) {
+		return Payment.builder()
+				.id(id)
+				.orderId(orderId)
+				.paymentLinkId(paymentLinkId)
+				.amount(1000L)
+				.status(status)
+				.gatewayType(RAZORPAY)
+				.build();
+	}
+}
@@ -0,0 +1,212 @@
+package com.PaymentService.paymentservice.services;
+
+import com.PaymentService.paymentservice.cache.PaymentIdIndex;
+import com.PaymentService.paymentservice.exceptions.InvalidPaymentStateException;
+import com.PaymentService.paymentservice.journal.GatewayJournal;
+import com.PaymentService.paymentservice.journal.JournalProperties;
+import com.PaymentService.paymentservice.journal.PendingRefund;
+import com.PaymentService.paymentservice.metrics.PaymentMetrics;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.models.Refund;
+import com.PaymentService.paymentservice.paymentgateway.PaymentGateway;
+import com.PaymentService.paymentservice.paymentgateway.PaymentGatewayFactory;
+import com.PaymentService.paymentservice.repositories.PaymentRepository;
+import com.PaymentService.paymentservice.repositories.RefundRepository;
+import com.PaymentService.paymentservice.sharding.ShardLocator;
+import com.PaymentService.paymentservice.stats.PaymentStatsService;
+import com.razorpay.RazorpayException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refund journaling against a real journal directory: the intent is written under the refund's
+ * idempotency key before the reservation, and recovery resolves what a run left open.
+ */
+class PaymentServiceRefundRecoveryTest {
+	private static final Map<String, String> REFUND_RESPONSE =
+			Map.of("refundId", "rfnd_1", "status", "processed", "amount", "400");
+
+	@TempDir
+	Path directory;
+
+	private final PaymentGatewayFactory gatewayFactory = mock(PaymentGatewayFactory.class);
+	private final PaymentGateway gateway = mock(PaymentGateway.class);
+	private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+	private final RefundRepository refundRepository = mock(RefundRepository.class);
+	private final Payment payment = Payment.builder()
+			.id(7L)
+			.orderId("order_1")
+			.paymentId("pay_1")
+			.amount(1000L)
+			.status(Payment.PaymentStatus.SUCCESS)
+			.gatewayType(Payment.PaymentGatewayType.RAZORPAY)
+			.build();
+	private GatewayJournal journal;
+	private PaymentService paymentService;
+
+	@BeforeEach
+	void createService() {
+		when(gatewayFactory.getGateway(Payment.PaymentGatewayType.RAZORPAY, null)).thenReturn(gateway);
+		when(paymentRepository.findByPaymentId("pay_1")).thenReturn(Optional.of(payment));
+		when(paymentRepository.findById(7L)).thenReturn(Optional.of(payment));
+		when(paymentRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		journal = openJournal();
+		paymentService = service(journal);
+	}
+
+	@AfterEach
+	void closeJournal() {
+		journal.shutdown();
+	}
+
+	@Test
+	void aCompletedRefundClosesItsIntentAndUsesTheJournaledKey() throws RazorpayException {
+		when(paymentRepository.reserveRefund(eq(7L), eq(400L), anyCollection())).thenReturn(1);
+		Refund reserved = Refund.builder().id(11L).payment(payment).amount(400L).status(Refund.RefundStatus.PENDING).build();
+		when(refundRepository.save(any())).thenReturn(reserved);
+		when(refundRepository.findById(11L)).thenReturn(Optional.of(reserved));
+		when(gateway.refundPayment(eq("pay_1"), eq(400L), anyString())).thenReturn(REFUND_RESPONSE);
+
+		paymentService.refundPayment("pay_1", 400L);
+
+		ArgumentCaptor<Refund> saved = ArgumentCaptor.forClass(Refund.class);
+		verify(refundRepository).save(saved.capture());
+		verify(gateway).refundPayment("pay_1", 400L, saved.getValue().getIdempotencyKey());
+		assertEquals(Refund.RefundStatus.SUCCEEDED, reserved.getStatus());
+		assertTrue(reopenJournal().pendingRefunds().isEmpty());
+	}
+
+	@Test
+	void aRejectedRefundClosesItsIntent() {
+		payment.setStatus(Payment.PaymentStatus.PENDING);
+
+		assertThrows(InvalidPaymentStateException.class, () -> paymentService.refundPayment("pay_1", 400L));
+
+		verify(paymentRepository, never()).reserveRefund(anyLong(), anyLong(), anyCollection());
+		assertTrue(reopenJournal().pendingRefunds().isEmpty());
+	}
+
+	@Test
+	void theIntentIsOpenBeforeTheReservationIsAttempted() {
+		when(paymentRepository.reserveRefund(eq(7L), eq(400L), anyCollection()))
+				.thenThrow(new DataAccessResourceFailureException("connection reset after commit"));
+
+		assertThrows(DataAccessResourceFailureException.class, () -> paymentService.refundPayment("pay_1", 400L));
+
+		List<PendingRefund> pending = reopenJournal().pendingRefunds();
+		assertEquals(1, pending.size());
+		assertEquals("pay_1", pending.get(0).paymentId());
+		assertFalse(pending.get(0).hasOutcome());
+	}
+
+	@Test
+	void recoveryWithoutARefundUnderTheKeyHasNothingToSettle() throws RazorpayException {
+		when(refundRepository.findByIdempotencyKey("key-1")).thenReturn(Optional.empty());
+
+		boolean settled = paymentService.recoverRefund("pay_1", new PendingRefund(1, "key-1", "pay_1", null, null));
+
+		assertFalse(settled);
+		verify(gateway, never()).refundPayment(anyString(), anyLong(), anyString());
+		verify(paymentRepository, never()).releaseRefund(anyLong(), anyLong());
+	}
+
+	@Test
+	void recoveryCompletesAReservationFromTheJournaledOutcome() throws RazorpayException {
+		Refund reserved = pendingRefund("key-1");
+
+		boolean settled = paymentService.recoverRefund("pay_1",
+				new PendingRefund(1, "key-1", "pay_1", "rfnd_1", "processed"));
+
+		assertTrue(settled);
+		assertEquals(Refund.RefundStatus.SUCCEEDED, reserved.getStatus());
+		assertEquals("rfnd_1", reserved.getGatewayRefundId());
+		verify(gateway, never()).refundPayment(anyString(), anyLong(), anyString());
+	}
+
+	@Test
+	void recoveryRepeatsTheCallUnderTheSameKeyWhereTheGatewayDeduplicates() throws RazorpayException {
+		Refund reserved = pendingRefund("key-1");
+		when(gateway.supportsIdempotencyKeys()).thenReturn(true);
+		when(gateway.refundPayment("pay_1", 400L, "key-1")).thenReturn(REFUND_RESPONSE);
+
+		boolean settled = paymentService.recoverRefund("pay_1", new PendingRefund(1, "key-1", "pay_1", null, null));
+
+		assertTrue(settled);
+		assertEquals(Refund.RefundStatus.SUCCEEDED, reserved.getStatus());
+	}
+
+	@Test
+	void recoveryReleasesTheReservationWhereTheGatewayCannotDeduplicate() throws RazorpayException {
+		Refund reserved = pendingRefund("key-1");
+		when(gateway.supportsIdempotencyKeys()).thenReturn(false);
+
+		boolean settled = paymentService.recoverRefund("pay_1", new PendingRefund(1, "key-1", "pay_1", null, null));
+
+		assertTrue(settled);
+		assertEquals(Refund.RefundStatus.FAILED, reserved.getStatus());
+		verify(paymentRepository).releaseRefund(7L, 400L);
+		verify(gateway, never()).refundPayment(anyString(), anyLong(), anyString());
+	}
+
+	private Refund pendingRefund(String idempotencyKey) {
+		Refund refund = Refund.builder()
+				.id(11L)
+				.payment(payment)
+				.amount(400L)
+				.idempotencyKey(idempotencyKey)
+				.status(Refund.RefundStatus.PENDING)
+				.build();
+		when(refundRepository.findByIdempotencyKey(idempotencyKey)).thenReturn(Optional.of(refund));
+		when(refundRepository.findById(11L)).thenReturn(Optional.of(refund));
+		return refund;
+	}
+
+	// The running journal is shut down first, as a restart would
+	private GatewayJournal reopenJournal() {
+		journal.shutdown();
+		journal = openJournal();
+		return journal;
+	}
+
+	private GatewayJournal openJournal() {
+		JournalProperties properties = new JournalProperties();
+		properties.setDirectory(directory.toString());
+		properties.setSegmentSizeBytes(64 * 1024);
+		properties.setForceIntervalMs(60_000);
+		return new GatewayJournal(properties, new SimpleMeterRegistry());
+	}
+
+	private PaymentService service(GatewayJournal gatewayJournal) {
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		return new PaymentService(gatewayFactory, paymentRepository, mock(PaymentIdIndex.class), mock(PaymentMetrics.class),
+				mock(ShardLocator.class), mock(PaymentStatsService.class), refundRepository, transactionManager,
+				gatewayJournal, 16, 1000);
+	}
+}
@@ -0,0 +1,91 @@
+package com.PaymentService.paymentservice.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedLocksTest {
+
+	@Test
+	void sameKeyAlwaysGetsSameLock() {
+		StripedLocks locks = new StripedLocks(64);
+		assertSame(locks.get("pay_1"), locks.get(new String("pay_1")));
+	}
+
+	@Test
+	void stripeCountIsRoundedUpToPowerOfTwo() {
+		assertEquals(8, distinctLocks(new StripedLocks(5)));
+		assertEquals(8, distinctLocks(new StripedLocks(8)));
+		assertEquals(1, distinctLocks(new StripedLocks(1)));
+		assertEquals(1, distinctLocks(new StripedLocks(0)));
+	}
+
+	@Test
+	void heldLockBlocksSameKeyOnOtherThread() throws Exception {
+		StripedLocks locks = new StripedLocks(16);
+		ReentrantLock lock = locks.get("pay_1");
+		lock.lock();
+		try {
+			ExecutorService executor = Executors.newSingleThreadExecutor();
+			try {
+				assertFalse(executor.submit(() -> locks.get("pay_1").tryLock()).get());
+			} finally {
+				executor.shutdownNow();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Test
+	void serializesWorkOnSameKey() throws Exception {
+		StripedLocks locks = new StripedLocks(16);
+		int threads = 8;
+		AtomicInteger inside = new AtomicInteger();
+		AtomicInteger maxInside = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		for (int i = 0; i < threads; i++) {
+			executor.submit(() -> {
+				start.await();
+				for (int n = 0; n < 200; n++) {
+					ReentrantLock lock = locks.get("pay_shared");
+					lock.lock();
+					try {
+						maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+						inside.decrementAndGet();
+					} finally {
+						lock.unlock();
+					}
+				}
+				return null;
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals(1, maxInside.get());
+	}
+
+	private static int distinctLocks(StripedLocks locks) {
+		Set<ReentrantLock> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (int i = 0; i < 10_000; i++) {
+			seen.add(locks.get("key_" + i));
+		}
+		return seen.size();
+	}
+
+}
@@ -0,0 +1,172 @@
+package com.PaymentService.paymentservice.sharding;
+
+import com.PaymentService.paymentservice.cache.PaymentIdIndex;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Rows moved between two MySQL schemas: the move survives being re-run over a partial copy
+ * without duplicating refunds, skips payments with a refund in flight, and keeps both rows when
+ * the target already holds a different version of the payment.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ShardRebalancerTest {
+
+	@Container
+	static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0").withUsername("root");
+
+	private final Map<String, DataSource> dataSources = new LinkedHashMap<>();
+	private ShardTopology topology;
+	private ShardRebalancer rebalancer;
+	private JdbcTemplate s0;
+	private JdbcTemplate s1;
+
+	@BeforeAll
+	void createShards() {
+		JdbcTemplate server = new JdbcTemplate(dataSource(""));
+		for (String shardId : List.of("s0", "s1")) {
+			server.execute("create database " + shardId);
+			DataSource dataSource = dataSource(shardId);
+			Flyway.configure().dataSource(dataSource).load().migrate();
+			dataSources.put(shardId, dataSource);
+		}
+		topology = new ShardTopology(dataSources, 128, true);
+		ShardLocator shardLocator = new ShardLocator(topology, mock(PaymentIdIndex.class), new ShardingProperties());
+		rebalancer = new ShardRebalancer(topology, shardLocator);
+		s0 = new JdbcTemplate(dataSources.get("s0"));
+		s1 = new JdbcTemplate(dataSources.get("s1"));
+	}
+
+	@BeforeEach
+	void clearShards() {
+		for (JdbcTemplate shard : List.of(s0, s1)) {
+			shard.update("delete from refunds");
+			shard.update("delete from payments");
+		}
+	}
+
+	@Test
+	void movesAPaymentAndItsRefundsToTheOwningShard() throws InterruptedException {
+		String orderId = orderOwnedBy("s1");
+		long id = insertPayment(s0, orderId, "PARTIALLY_REFUNDED", 300);
+		String refundKey = insertRefund(s0, id, 300, "SUCCEEDED");
+
+		ShardRebalancer.Progress progress = rebalance();
+
+		assertEquals(1, progress.getMoved());
+		assertEquals(0, count(s0, "payments"));
+		assertEquals(0, count(s0, "refunds"));
+		Long targetId = s1.queryForObject("select id from payments where order_id = ?", Long.class, orderId);
+		assertEquals(targetId, s1.queryForObject("select payment_id from refunds where idempotency_key = ?", Long.class, refundKey));
+	}
+
+	@Test
+	void completesAnInterruptedMoveWithoutDuplicatingRefunds() throws InterruptedException {
+		String orderId = orderOwnedBy("s1");
+		long id = insertPayment(s0, orderId, "PARTIALLY_REFUNDED", 500);
+		String firstKey = insertRefund(s0, id, 200, "SUCCEEDED");
+		insertRefund(s0, id, 300, "SUCCEEDED");
+		// A previous run copied the payment and one refund, then stopped before deleting the source
+		s1.update("insert into payments (order_id, amount, currency, phone_number, email, status, gateway_type, refunded_amount, version)"
+				+ " select order_id, amount, currency, phone_number, email, status, gateway_type, refunded_amount, version"
+				+ " from s0.payments where id = ?", id);
+		s1.update("insert into refunds (payment_id, amount, status, idempotency_key, created_at)"
+				+ " select (select id from payments where order_id = ?), amount, status, idempotency_key, created_at"
+				+ " from s0.refunds where idempotency_key = ?", orderId, firstKey);
+
+		ShardRebalancer.Progress progress = rebalance();
+
+		assertEquals(1, progress.getMoved());
+		assertEquals(0, progress.getConflicts());
+		assertEquals(1, count(s1, "payments"));
+		assertEquals(2, count(s1, "refunds"));
+		assertEquals(0, count(s0, "payments"));
+	}
+
+	@Test
+	void skipsPaymentsWithAPendingRefund() throws InterruptedException {
+		String orderId = orderOwnedBy("s1");
+		long id = insertPayment(s0, orderId, "SUCCESS", 100);
+		insertRefund(s0, id, 100, "PENDING");
+
+		ShardRebalancer.Progress progress = rebalance();
+
+		assertEquals(1, progress.getSkipped());
+		assertEquals(1, count(s0, "payments"));
+		assertEquals(0, count(s1, "payments"));
+	}
+
+	@Test
+	void keepsBothRowsWhenTheTargetHoldsADifferentPayment() throws InterruptedException {
+		String orderId = orderOwnedBy("s1");
+		insertPayment(s0, orderId, "SUCCESS", 0);
+		insertPayment(s1, orderId, "FAILED", 0);
+
+		ShardRebalancer.Progress progress = rebalance();
+
+		assertEquals(1, progress.getConflicts());
+		assertEquals(0, progress.getMoved());
+		assertEquals(1, count(s0, "payments"));
+		assertEquals("FAILED", s1.queryForObject("select status from payments where order_id = ?", String.class, orderId));
+	}
+
+	private ShardRebalancer.Progress rebalance() throws InterruptedException {
+		assertTrue(rebalancer.start(10));
+		ShardRebalancer.Progress progress = rebalancer.getProgress();
+		for (int wait = 0; wait < 300 && progress.isRunning(); wait++) {
+			Thread.sleep(100);
+		}
+		assertEquals(null, progress.getFailure());
+		return progress;
+	}
+
+	private String orderOwnedBy(String shardId) {
+		while (true) {
+			String orderId = "order-" + UUID.randomUUID();
+			if (topology.ownerOf(orderId).equals(shardId)) {
+				return orderId;
+			}
+		}
+	}
+
+	private static long insertPayment(JdbcTemplate shard, String orderId, String status, long refundedAmount) {
+		shard.update("insert into payments (order_id, amount, currency, phone_number, email, status, gateway_type, refunded_amount)"
+				+ " values (?, 1000, 'INR', '9999999999', 'buyer@example.com', ?, 'RAZORPAY', ?)", orderId, status, refundedAmount);
+		return shard.queryForObject("select id from payments where order_id = ?", Long.class, orderId);
+	}
+
+	private static String insertRefund(JdbcTemplate shard, long paymentId, long amount, String status) {
+		String key = UUID.randomUUID().toString();
+		shard.update("insert into refunds (payment_id, amount, status, idempotency_key, created_at) values (?, ?, ?, ?, now(6))",
+				paymentId, amount, status, key);
+		return key;
+	}
+
+	private static long count(JdbcTemplate shard, String table) {
+		return shard.queryForObject("select count(*) from " + table, Long.class);
+	}
+
+	private static DataSource dataSource(String database) {
+		return new DriverManagerDataSource("jdbc:mysql://" + mysql.getHost() + ":" + mysql.getMappedPort(MySQLContainer.MYSQL_PORT)
+				+ "/" + database, mysql.getUsername(), mysql.getPassword());
+	}
+}
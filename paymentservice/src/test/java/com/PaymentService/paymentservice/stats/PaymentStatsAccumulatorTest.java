@@ -0,0 +1,104 @@
+package com.PaymentService.paymentservice.stats;
+
+import com.PaymentService.paymentservice.models.Payment;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentStatsAccumulatorTest {
+	private static final LocalDateTime HOUR = LocalDateTime.of(2024, 3, 1, 10, 0);
+	private static final StatsKey SUCCESS = new StatsKey(HOUR, Payment.PaymentGatewayType.RAZORPAY, Payment.PaymentStatus.SUCCESS);
+	private static final StatsKey PENDING = new StatsKey(HOUR, Payment.PaymentGatewayType.RAZORPAY, Payment.PaymentStatus.PENDING);
+
+	@Test
+	void drainMergesDeltasAndEmptiesTheAccumulator() {
+		PaymentStatsAccumulator<StatsKey> accumulator = new PaymentStatsAccumulator<>(4);
+		accumulator.add(SUCCESS, 1, 500);
+		accumulator.add(SUCCESS, 1, 700);
+
+		Map<StatsKey, long[]> drained = accumulator.drain();
+
+		assertArrayEquals(new long[]{2, 1200}, drained.get(SUCCESS));
+		assertTrue(accumulator.drain().isEmpty());
+	}
+
+	@Test
+	void deltasThatCancelOutAreDropped() {
+		PaymentStatsAccumulator<StatsKey> accumulator = new PaymentStatsAccumulator<>(4);
+		accumulator.add(PENDING, 1, 500);
+		accumulator.add(PENDING, -1, -500);
+		accumulator.add(SUCCESS, 1, 500);
+
+		Map<StatsKey, long[]> drained = accumulator.drain();
+
+		assertEquals(1, drained.size());
+		assertArrayEquals(new long[]{1, 500}, drained.get(SUCCESS));
+	}
+
+	@Test
+	void restorePutsAFailedFlushBack() {
+		PaymentStatsAccumulator<StatsKey> accumulator = new PaymentStatsAccumulator<>(4);
+		accumulator.add(SUCCESS, 1, 500);
+		Map<StatsKey, long[]> failed = accumulator.drain();
+		accumulator.add(SUCCESS, 1, 300);
+
+		accumulator.restore(failed);
+
+		assertArrayEquals(new long[]{2, 800}, accumulator.drain().get(SUCCESS));
+	}
+
+	@Test
+	void concurrentAddsAreNeitherLostNorCountedTwiceAcrossDrains() throws Exception {
+		PaymentStatsAccumulator<StatsKey> accumulator = new PaymentStatsAccumulator<>(1);
+		int threads = 8;
+		int addsPerThread = 20_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> writers = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				writers.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < addsPerThread; i++) {
+						accumulator.add(SUCCESS, 1, 2);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			long count = 0;
+			long amount = 0;
+			while (!writers.stream().allMatch(Future::isDone)) {
+				long[] delta = accumulator.drain().get(SUCCESS);
+				if (delta != null) {
+					count += delta[0];
+					amount += delta[1];
+				}
+			}
+			for (Future<?> writer : writers) {
+				writer.get();
+			}
+			long[] rest = accumulator.drain().getOrDefault(SUCCESS, new long[2]);
+			count += rest[0];
+			amount += rest[1];
+
+			assertEquals((long) threads * addsPerThread, count);
+			assertEquals(2L * threads * addsPerThread, amount);
+		} finally {
+			executor.shutdownNow();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.PaymentService.paymentservice.stats;
+
+import com.PaymentService.paymentservice.models.Payment;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RebuildFencesTest {
+	private static final LocalDateTime HOUR = LocalDateTime.of(2024, 3, 1, 10, 0);
+	private static final long SNAPSHOT_SECOND = 1_709_290_000L;
+
+	@Test
+	void deltasOutsideEveryRebuildAreApplied() {
+		RebuildFences rebuilds = new RebuildFences(List.of(fence(HOUR.plusHours(1), HOUR.plusHours(2), false)));
+
+		assertEquals(RebuildFences.Action.APPLY, rebuilds.actionFor(pending(HOUR, SNAPSHOT_SECOND - 60)));
+	}
+
+	@Test
+	void deltasInTheRangeOfARunningRebuildAreHeldWhateverTheirTime() {
+		RebuildFences rebuilds = new RebuildFences(List.of(fence(HOUR, HOUR.plusHours(1), true)));
+
+		assertEquals(RebuildFences.Action.HOLD, rebuilds.actionFor(pending(HOUR, SNAPSHOT_SECOND - 60)));
+		assertEquals(RebuildFences.Action.HOLD, rebuilds.actionFor(pending(HOUR, SNAPSHOT_SECOND + 60)));
+	}
+
+	@Test
+	void aFinishedRebuildDropsWhatItsSnapshotCountedAndAppliesTheRest() {
+		RebuildFences rebuilds = new RebuildFences(List.of(fence(HOUR, HOUR.plusHours(1), false)));
+
+		assertEquals(RebuildFences.Action.DROP, rebuilds.actionFor(pending(HOUR, SNAPSHOT_SECOND - 1)));
+		assertEquals(RebuildFences.Action.APPLY, rebuilds.actionFor(pending(HOUR, SNAPSHOT_SECOND)));
+	}
+
+	@Test
+	void theNewestCoveringRebuildDecides() {
+		// A later rebuild of a wider range was finished over an earlier one that is still listed
+		RebuildFences rebuilds = new RebuildFences(List.of(
+				new RebuildFences.Fence(HOUR.minusHours(1), HOUR.plusHours(1), SNAPSHOT_SECOND + 600, false),
+				fence(HOUR, HOUR.plusHours(1), false)));
+
+		assertEquals(RebuildFences.Action.DROP, rebuilds.actionFor(pending(HOUR, SNAPSHOT_SECOND + 60)));
+	}
+
+	private static RebuildFences.Fence fence(LocalDateTime from, LocalDateTime to, boolean running) {
+		return new RebuildFences.Fence(from, to, SNAPSHOT_SECOND, running);
+	}
+
+	private static PendingKey pending(LocalDateTime hour, long recordedSecond) {
+		return new PendingKey(new StatsKey(hour, Payment.PaymentGatewayType.RAZORPAY, Payment.PaymentStatus.SUCCESS),
+				recordedSecond);
+	}
+}
@@ -0,0 +1,196 @@
+package com.PaymentService.paymentservice.sync;
+
+import com.PaymentService.paymentservice.merchant.MerchantProperties;
+import com.PaymentService.paymentservice.models.Payment;
+import com.PaymentService.paymentservice.paymentgateway.GatewayPaymentPage;
+import com.PaymentService.paymentservice.paymentgateway.GatewayPaymentRecord;
+import com.PaymentService.paymentservice.paymentgateway.PaymentGateway;
+import com.PaymentService.paymentservice.paymentgateway.PaymentGatewayFactory;
+import com.PaymentService.paymentservice.services.PaymentService;
+import com.PaymentService.paymentservice.sharding.ShardTopology;
+import com.razorpay.RazorpayException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Windowing and cursor handling of the bulk sync against a scripted gateway and an in-memory
+ * cursor store.
+ */
+class GatewaySyncJobTest {
+	private static final Duration SETTLE = Duration.ofHours(1);
+	private static final Duration MAX_WINDOW = Duration.ofHours(6);
+	private static final Duration LOOKBACK = Duration.ofHours(24);
+	private static final Payment.PaymentGatewayType RAZORPAY = Payment.PaymentGatewayType.RAZORPAY;
+
+	private final PaymentService paymentService = mock(PaymentService.class);
+	private final InMemoryCursorStore cursorStore = new InMemoryCursorStore();
+	private final ListingGateway razorpay = new ListingGateway();
+	private GatewaySyncJob job;
+
+	@BeforeEach
+	void createJob() {
+		GatewaySyncProperties properties = new GatewaySyncProperties();
+		properties.setLagMs(0);
+		properties.setSettleWindowMs(SETTLE.toMillis());
+		properties.setMaxWindowMs(MAX_WINDOW.toMillis());
+		properties.setInitialLookbackMs(LOOKBACK.toMillis());
+		PaymentGatewayFactory gatewayFactory = mock(PaymentGatewayFactory.class);
+		when(gatewayFactory.getGateway(RAZORPAY, null)).thenReturn(razorpay);
+		when(gatewayFactory.getGateway(Payment.PaymentGatewayType.STRIPE, null)).thenReturn(new ListingGateway());
+		DriverManagerDataSource unused = new DriverManagerDataSource();
+		ShardTopology topology = new ShardTopology(Map.of("s0", unused, "s1", unused), 16, false);
+		job = new GatewaySyncJob(gatewayFactory, paymentService, topology, new MerchantProperties(), properties,
+				new SimpleMeterRegistry(), cursorStore);
+	}
+
+	@Test
+	void catchesUpInBoundedWindowsThatEachReachBackBySettleWindow() {
+		Instant cursor = Instant.now().minus(Duration.ofHours(13));
+		cursorStore.cursors.put(RAZORPAY, cursor);
+
+		Instant before = Instant.now();
+		job.syncAll();
+		Instant after = Instant.now();
+
+		assertEquals(3, razorpay.calls.size());
+		assertEquals(cursor.minus(SETTLE), razorpay.calls.get(0).from);
+		assertEquals(cursor.plus(MAX_WINDOW), razorpay.calls.get(0).to);
+		assertEquals(cursor.plus(MAX_WINDOW).minus(SETTLE), razorpay.calls.get(1).from);
+		assertEquals(cursor.plus(MAX_WINDOW.multipliedBy(2)), razorpay.calls.get(1).to);
+		Instant lastEnd = razorpay.calls.get(2).to;
+		assertTrue(!lastEnd.isBefore(before) && !lastEnd.isAfter(after), "last window ends at " + lastEnd);
+		assertEquals(List.of(cursor.plus(MAX_WINDOW), cursor.plus(MAX_WINDOW.multipliedBy(2)), lastEnd),
+				cursorStore.saved.get(RAZORPAY));
+	}
+
+	@Test
+	void startsALookbackBeforeNowWithoutACursor() {
+		Instant before = Instant.now();
+		job.syncAll();
+
+		Instant firstFrom = razorpay.calls.get(0).from;
+		Instant expected = before.minus(LOOKBACK).minus(SETTLE);
+		assertTrue(!firstFrom.isBefore(expected) && firstFrom.isBefore(expected.plusSeconds(5)), "first window from " + firstFrom);
+		assertEquals(4, razorpay.calls.size());
+	}
+
+	@Test
+	void followsPageTokensAndAppliesEveryPageOnEveryShard() {
+		cursorStore.cursors.put(RAZORPAY, Instant.now().minus(Duration.ofHours(1)));
+		razorpay.pages.add(new GatewayPaymentPage(List.of(record("pay_1")), "page-2"));
+		razorpay.pages.add(new GatewayPaymentPage(List.of(record("pay_2")), null));
+
+		job.syncAll();
+
+		assertEquals(2, razorpay.calls.size());
+		assertNull(razorpay.calls.get(0).pageToken);
+		assertEquals("page-2", razorpay.calls.get(1).pageToken);
+		assertEquals(razorpay.calls.get(0).from, razorpay.calls.get(1).from);
+		verify(paymentService, times(4)).applyGatewayRecords(eq(RAZORPAY), isNull(), anyList());
+	}
+
+	@Test
+	void aFailedWindowLeavesTheCursorAtTheLastCompletedOne() {
+		Instant cursor = Instant.now().minus(Duration.ofHours(13));
+		cursorStore.cursors.put(RAZORPAY, cursor);
+		razorpay.pages.add(new GatewayPaymentPage(List.of(), null));
+		razorpay.failAtCall = 2;
+
+		job.syncAll();
+
+		assertEquals(List.of(cursor.plus(MAX_WINDOW)), cursorStore.saved.get(RAZORPAY));
+		assertEquals(cursor.plus(MAX_WINDOW), cursorStore.cursors.get(RAZORPAY));
+		// Other accounts are still synced
+		assertTrue(cursorStore.saved.containsKey(Payment.PaymentGatewayType.STRIPE));
+		verify(paymentService, times(0)).applyGatewayRecords(any(), any(), anyList());
+	}
+
+	private static GatewayPaymentRecord record(String paymentId) {
+		return new GatewayPaymentRecord(paymentId, null, "order-" + paymentId, "captured", 0);
+	}
+
+	private record ListCall(Instant from, Instant to, String pageToken) {
+	}
+
+	// Answers scripted pages in order, then empty ones
+	private static class ListingGateway implements PaymentGateway {
+		private final List<ListCall> calls = new ArrayList<>();
+		private final Deque<GatewayPaymentPage> pages = new ArrayDeque<>();
+		private int failAtCall;
+
+		@Override
+		public GatewayPaymentPage listPayments(Instant from, Instant to, String pageToken, int pageSize) throws RazorpayException {
+			calls.add(new ListCall(from, to, pageToken));
+			if (calls.size() == failAtCall) {
+				throw new RazorpayException("SERVER_ERROR:list failed");
+			}
+			GatewayPaymentPage page = pages.poll();
+			return page != null ? page : new GatewayPaymentPage(List.of(), null);
+		}
+
+		@Override
+		public Map<String, String> generatePaymentLink(String orderId, Long amount, String phoneNumber, String email) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Map<String, String> verifyPayment(String paymentId) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Map<String, String> refundPayment(String paymentId, Long amount) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Map<String, String> getPaymentStatus(String paymentId) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	// Platform account only, which is all the job syncs without merchant accounts configured
+	private static class InMemoryCursorStore extends GatewaySyncCursorStore {
+		private final Map<Payment.PaymentGatewayType, Instant> cursors = new HashMap<>();
+		private final Map<Payment.PaymentGatewayType, List<Instant>> saved = new HashMap<>();
+
+		InMemoryCursorStore() {
+			super(ShardTopology.single(new DriverManagerDataSource()));
+		}
+
+		@Override
+		Optional<Instant> load(Payment.PaymentGatewayType gatewayType, String merchantId) {
+			return Optional.ofNullable(cursors.get(gatewayType));
+		}
+
+		@Override
+		void save(Payment.PaymentGatewayType gatewayType, String merchantId, Instant syncedUntil) {
+			cursors.put(gatewayType, syncedUntil);
+			saved.computeIfAbsent(gatewayType, type -> new ArrayList<>()).add(syncedUntil);
+		}
+	}
+}